@@ -0,0 +1,100 @@
+package com.ems.backend.loadtest;
+
+import com.ems.backend.service.AtsScorer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Local ATS scoring cost per resume. "regex" is the naive alternative the
+// automaton replaces: one word-bounded pattern per skill alias, each a full pass.
+// Run: mvn -Ploadtest test-compile exec:exec@benchmarks -Djmh.args="AtsScorer"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtsScorerBenchmark {
+
+    private static final List<String> JAVA_ALIASES = List.of("java", "java 8", "java 11", "java 17", "java 21",
+            "spring boot", "spring", "spring mvc", "hibernate", "jpa", "spring data", "restful", "rest api",
+            "rest apis", "microservices", "sql", "mysql", "postgresql", "oracle", "maven", "gradle", "junit",
+            "mockito", "unit testing", "tdd", "git", "github", "gitlab", "docker", "kubernetes", "kafka",
+            "rabbitmq", "jms", "communication", "communicated", "presented", "team", "collaborated",
+            "cross-functional", "problem solving", "troubleshooting", "debugging");
+
+    private static final String[] FILLER = {"designed", "delivered", "the", "platform", "customers", "latency",
+            "reduced", "ownership", "services", "with", "and", "for", "production", "migrated", "reports"};
+
+    @Param({"600", "3000"})
+    private int words;
+
+    private final AtsScorer scorer = new AtsScorer();
+    private String resume;
+    private List<Pattern> patterns;
+    private int adhocRole;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder("Jane Doe\nSenior Backend Engineer\n");
+        for (int i = 0; i < words; i++) {
+            boolean skill = random.nextInt(12) == 0;
+            text.append(skill ? JAVA_ALIASES.get(random.nextInt(JAVA_ALIASES.size()))
+                    : FILLER[random.nextInt(FILLER.length)]);
+            text.append(i % 15 == 14 ? ".\n" : " ");
+        }
+        resume = text.toString();
+        patterns = JAVA_ALIASES.stream()
+                .map(alias -> Pattern.compile("\\b" + Pattern.quote(alias) + "\\b"))
+                .toList();
+    }
+
+    @Benchmark
+    public Object knownProfile() {
+        return scorer.score(resume, "Java Developer");
+    }
+
+    // Resolves to a known profile through a role alias
+    @Benchmark
+    public Object aliasedRole() {
+        return scorer.score(resume, "Senior Backend Engineer");
+    }
+
+    // Cycles through more free-text roles than the ad-hoc cache holds, so this
+    // includes compiling an automaton on most calls
+    @Benchmark
+    public Object adhocRoleCacheMiss() {
+        adhocRole = (adhocRole + 1) % 1024;
+        return scorer.score(resume, "Actuary " + adhocRole);
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        String lower = resume.toLowerCase(Locale.ROOT);
+        for (Pattern pattern : patterns) {
+            Matcher matcher = pattern.matcher(lower);
+            int count = 0;
+            while (matcher.find()) {
+                count++;
+            }
+            blackhole.consume(count);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.ems.backend.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load: each scenario gets Poisson arrivals at a fixed rate, whether
+// or not earlier arrivals have finished, and every arrival runs on its own
+// virtual thread. The first request of an arrival is timed from its scheduled
+// start, so a stalled server shows up as latency instead of fewer requests
+// (no coordinated omission). Only arrivals scheduled after the warmup count.
+@Slf4j
+class LoadGenerator {
+
+    // Something a scenario does once per arrival
+    interface Scenario {
+        void run(Session session) throws Exception;
+    }
+
+    static class EndpointStats {
+        private final String scenario;
+        private final Histogram micros = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        EndpointStats(String scenario) {
+            this.scenario = scenario;
+        }
+    }
+
+    // One arrival: its scheduled start and a random stream derived from the run seed
+    class Session {
+        private final String scenario;
+        private final long scheduledNanos;
+        private final boolean measured;
+        private final SplittableRandom random;
+        private boolean first = true;
+
+        Session(String scenario, long scheduledNanos, boolean measured, long seed) {
+            this.scenario = scenario;
+            this.scheduledNanos = scheduledNanos;
+            this.measured = measured;
+            this.random = new SplittableRandom(seed);
+        }
+
+        SplittableRandom random() {
+            return random;
+        }
+
+        // Sends the request and records it under endpoint; null when it failed
+        HttpResponse<String> call(String endpoint, HttpRequest.Builder request) {
+            long started = first ? scheduledNanos : System.nanoTime();
+            first = false;
+            EndpointStats stats = measured
+                    ? endpoints.computeIfAbsent(endpoint, key -> new EndpointStats(scenario))
+                    : null;
+            try {
+                HttpResponse<String> response = client.send(request.timeout(REQUEST_TIMEOUT).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (stats != null) {
+                    if (response.statusCode() >= 400) {
+                        stats.errors.incrementAndGet();
+                    } else {
+                        stats.micros.recordValue(Math.max(0, (System.nanoTime() - started) / 1000));
+                    }
+                }
+                return response.statusCode() < 400 ? response : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                if (stats != null) {
+                    stats.errors.incrementAndGet();
+                }
+                return null;
+            }
+        }
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final int maxInFlight;
+    private final HttpClient client;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> dropped = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadGenerator(String baseUrl, int maxInFlight) {
+        this.baseUrl = baseUrl;
+        this.maxInFlight = maxInFlight;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path));
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    // Runs every scenario for warmup + duration, then waits for stragglers
+    void run(Map<String, Double> rates, Map<String, Scenario> scenarios, long seed, Duration warmup,
+            Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        List<Thread> schedulers = new ArrayList<>();
+        scenarios.forEach((name, scenario) -> {
+            double rate = rates.getOrDefault(name, 0.0);
+            if (rate > 0) {
+                long scenarioSeed = seed ^ name.hashCode();
+                schedulers.add(Thread.ofPlatform().name("load-" + name)
+                        .start(() -> schedule(name, scenario, rate, scenarioSeed, start, measureFrom, end)));
+            }
+        });
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+        long drainUntil = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(50);
+        }
+    }
+
+    private void schedule(String name, Scenario scenario, double rate, long seed, long start, long measureFrom,
+            long end) {
+        SplittableRandom arrivals = new SplittableRandom(seed);
+        long next = start;
+        while (true) {
+            next += (long) (-Math.log(1 - arrivals.nextDouble()) / rate * 1e9);
+            if (next >= end) {
+                return;
+            }
+            long arrivalSeed = arrivals.nextLong();
+            LockSupport.parkNanos(next - System.nanoTime());
+            boolean measured = next >= measureFrom;
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    dropped.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+                }
+                continue;
+            }
+            Session session = new Session(name, next, measured, arrivalSeed);
+            Thread.ofVirtual().start(() -> {
+                try {
+                    scenario.run(session);
+                } catch (Exception e) {
+                    log.debug("Scenario {} failed", name, e);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    // One entry per endpoint, in scenario order
+    List<Map<String, Object>> report(Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> {
+            Histogram micros = stats.micros;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("scenario", stats.scenario);
+            row.put("endpoint", endpoint);
+            row.put("requests", micros.getTotalCount());
+            row.put("errors", stats.errors.get());
+            row.put("throughputPerSec", round(micros.getTotalCount() / seconds));
+            row.put("p50Ms", millis(micros.getValueAtPercentile(50)));
+            row.put("p90Ms", millis(micros.getValueAtPercentile(90)));
+            row.put("p99Ms", millis(micros.getValueAtPercentile(99)));
+            row.put("p999Ms", millis(micros.getValueAtPercentile(99.9)));
+            row.put("maxMs", millis(micros.getMaxValue()));
+            rows.add(row);
+        });
+        rows.sort((a, b) -> ((String) a.get("scenario") + a.get("endpoint"))
+                .compareTo((String) b.get("scenario") + b.get("endpoint")));
+        return rows;
+    }
+
+    Map<String, Long> dropped() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        dropped.forEach((name, count) -> counts.put(name, count.get()));
+        return counts;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,283 @@
+package com.ems.backend.loadtest;
+
+import com.ems.backend.BackendApplication;
+import com.ems.backend.config.VirtualThreadPinningMonitor;
+import com.ems.backend.model.LeaveAccrualRun;
+import com.ems.backend.service.LeaveAccrualService;
+import com.ems.backend.service.PunchIngestionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Entry point of the load-test suite (mvn -Ploadtest verify). Boots the backend
+// in this JVM with the "loadtest" profile on an embedded H2 in MySQL mode, seeds
+// it, signs in the actors, drives the scenarios and writes a JSON report with
+// throughput and latency percentiles per endpoint. Arguments are Spring
+// properties (--loadtest.duration-seconds=120, --spring.threads.virtual.enabled=true, ...);
+// --loadtest.thread-modes=platform,virtual runs the same load once per thread mode.
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        // Read from the command line only: it decides how many times the app boots
+        String threadModes = new SimpleCommandLinePropertySource(args).getProperty("loadtest.thread-modes");
+        if (threadModes == null || threadModes.isBlank()) {
+            ConfigurableApplicationContext context = boot(args);
+            int exitCode = runAndWrite(context) ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+        System.exit(compareThreadModes(args, threadModes.split(",")) ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext boot(String[] args) {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("loadtest")
+                .run(args);
+    }
+
+    private static boolean runAndWrite(ConfigurableApplicationContext context) {
+        try {
+            write(context.getBean(ObjectMapper.class), output(context), run(context));
+            return true;
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            return false;
+        }
+    }
+
+    // --loadtest.thread-modes=platform,virtual: boots the app once per mode with
+    // spring.threads.virtual.enabled set accordingly and the same seed, data and
+    // rates, then writes one report with a section per mode. The embedded
+    // database is recreated and reseeded on every boot.
+    private static boolean compareThreadModes(String[] args, String[] modes) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        ObjectMapper objectMapper = null;
+        Path output = null;
+        for (String mode : modes) {
+            String name = mode.trim();
+            if (!name.equals("platform") && !name.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown thread mode: " + name);
+            }
+            String[] modeArgs = Arrays.copyOf(args, args.length + 1);
+            modeArgs[args.length] = "--spring.threads.virtual.enabled=" + name.equals("virtual");
+            ConfigurableApplicationContext context = boot(modeArgs);
+            try {
+                objectMapper = context.getBean(ObjectMapper.class);
+                output = output(context);
+                report.put(name, run(context));
+            } catch (Exception e) {
+                log.error("Load test failed in {} mode", name, e);
+                return false;
+            } finally {
+                SpringApplication.exit(context);
+            }
+        }
+        write(objectMapper, output, Map.of("threadModes", report));
+        return true;
+    }
+
+    private static Map<String, Object> run(ConfigurableApplicationContext context) throws Exception {
+        Environment environment = context.getEnvironment();
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        LoadTestSeeder.SeedData data = new LoadTestSeeder(context.getBean(JdbcTemplate.class),
+                context.getBean(PasswordEncoder.class), environment).seed();
+        if (context.containsBean("replicaDataSource")) {
+            snapshotToReplica(context);
+        }
+
+        LoadGenerator generator = new LoadGenerator("http://localhost:" + port,
+                environment.getProperty("loadtest.max-in-flight", Integer.class, 2000));
+        int tokenPool = Math.min(data.employeeEmails().size(),
+                environment.getProperty("loadtest.token-pool", Integer.class, 50));
+        List<String> employeeTokens = new ArrayList<>(tokenPool);
+        for (int i = 0; i < tokenPool; i++) {
+            employeeTokens.add(login(generator, objectMapper, data.employeeEmails().get(i)));
+        }
+        Scenarios scenarios = new Scenarios(generator, objectMapper, data,
+                login(generator, objectMapper, "hr@ems.com"), login(generator, objectMapper, "admin@ems.com"),
+                employeeTokens, environment.getProperty("loadtest.punch-batch", Integer.class, 50));
+
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String name : scenarios.all().keySet()) {
+            rates.put(name, environment.getProperty("loadtest.rate." + name, Double.class, 0.0));
+        }
+        long seed = environment.getProperty("loadtest.seed", Long.class, 42L);
+        Duration warmup = Duration.ofSeconds(environment.getProperty("loadtest.warmup-seconds", Long.class, 10L));
+        Duration duration = Duration.ofSeconds(environment.getProperty("loadtest.duration-seconds", Long.class, 60L));
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+        log.info("Running {} for {}s after a {}s warmup against port {} on {} threads", rates, duration.toSeconds(),
+                warmup.toSeconds(), port, virtualThreads ? "virtual" : "platform");
+        PunchIngestionService punches = context.getBean(PunchIngestionService.class);
+        long writtenBefore = (long) punches.getStatus().get("written");
+        long started = System.nanoTime();
+        List<Map<String, Object>> punchTimeline = Collections.synchronizedList(new ArrayList<>());
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(punchSampler(context.getBean(MeterRegistry.class), punchTimeline, started),
+                1, 1, TimeUnit.SECONDS);
+        generator.run(rates, scenarios.all(), seed, warmup, duration);
+        Map<String, Object> punchPipeline = drainPunches(punches, writtenBefore, started);
+        sampler.shutdownNow();
+        punchPipeline.put("timeline", new ArrayList<>(punchTimeline));
+        Map<String, Object> accrual = environment.getProperty("loadtest.accrual", Boolean.class, true)
+                ? runAccrual(context) : null;
+
+        List<Map<String, Object>> endpoints = generator.report(duration);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("seed", seed);
+        report.put("employees", data.employeeEmails().size());
+        report.put("virtualThreads", virtualThreads);
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("ratesPerSec", rates);
+        report.put("dropped", generator.dropped());
+        report.put("endpoints", endpoints);
+        report.put("punchPipeline", punchPipeline);
+        if (accrual != null) {
+            report.put("accrual", accrual);
+        }
+        if (virtualThreads) {
+            // Carrier pinning over threads.pinning.threshold-ms, per site
+            report.put("pinning", context.getBean(VirtualThreadPinningMonitor.class).getSummaries());
+        }
+        for (Map<String, Object> row : endpoints) {
+            log.info("{}", objectMapper.writeValueAsString(row));
+        }
+        return report;
+    }
+
+    private static Path output(ConfigurableApplicationContext context) {
+        return Path.of(context.getEnvironment().getProperty("loadtest.output", "target/loadtest/results.json"));
+    }
+
+    private static void write(ObjectMapper objectMapper, Path output, Map<String, Object> report) throws Exception {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(output.toString()), report);
+        log.info("Report written to {}", output.toAbsolutePath());
+    }
+
+    // Waits for the writer to catch up, so the rate covers punches persisted, not just accepted
+    private static Map<String, Object> drainPunches(PunchIngestionService punches, long writtenBefore,
+                                                    long started) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while ((long) punches.getStatus().get("pending") > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        Map<String, Object> status = new LinkedHashMap<>(punches.getStatus());
+        long written = (long) status.get("written") - writtenBefore;
+        double seconds = (System.nanoTime() - started) / 1e9;
+        status.put("writtenPerSec", Math.round(written / seconds));
+        return status;
+    }
+
+    // Writer throughput and buffer depth once a second, from the punch.written and
+    // punch.buffer.depth meters: a writer that keeps up holds depth near zero, one
+    // that falls behind shows depth climbing while writtenPerSec stays flat
+    private static Runnable punchSampler(MeterRegistry meters, List<Map<String, Object>> timeline, long started) {
+        Counter written = meters.get("punch.written").counter();
+        Gauge depth = meters.get("punch.buffer.depth").gauge();
+        double[] last = { written.count() };
+        return () -> {
+            double total = written.count();
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("second", Math.round((System.nanoTime() - started) / 1e9));
+            sample.put("writtenPerSec", Math.round(total - last[0]));
+            sample.put("bufferDepth", Math.round(depth.value()));
+            timeline.add(sample);
+            last[0] = total;
+        };
+    }
+
+    // One monthly leave accrual over every seeded user, after the load. The heap
+    // high-water mark should stay flat as --loadtest.employees grows: the run
+    // holds one chunk of ids at a time.
+    private static Map<String, Object> runAccrual(ConfigurableApplicationContext context) {
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        long heapBefore = heap.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long started = System.nanoTime();
+        LeaveAccrualRun run = context.getBean(LeaveAccrualService.class).runAccrual(YearMonth.now());
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        long heapPeak = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("period", run.getPeriod());
+        report.put("usersCredited", run.getUsersCredited());
+        report.put("elapsedMs", elapsedMs);
+        report.put("usersPerSec", Math.round(run.getUsersCredited() * 1000.0 / Math.max(1, elapsedMs)));
+        report.put("heapBeforeMb", heapBefore / (1024 * 1024));
+        report.put("heapPeakMb", heapPeak / (1024 * 1024));
+        log.info("Accrual credited {} users in {} ms", run.getUsersCredited(), elapsedMs);
+        return report;
+    }
+
+    // --db.replica.enabled=true: the replica is a second in-memory database.
+    // Nothing replicates into it, so it gets one copy of the seeded primary.
+    private static void snapshotToReplica(ConfigurableApplicationContext context) throws Exception {
+        Path script = Files.createTempFile("loadtest-replica", ".sql");
+        try {
+            new JdbcTemplate(context.getBean("primaryDataSource", DataSource.class))
+                    .execute("SCRIPT TO '" + script + "'");
+            new JdbcTemplate(context.getBean("replicaDataSource", DataSource.class))
+                    .execute("RUNSCRIPT FROM '" + script + "'");
+            log.info("Replica loaded with a snapshot of the seeded primary");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private static String login(LoadGenerator generator, ObjectMapper objectMapper, String email) throws Exception {
+        HttpResponse<String> response = generator.client().send(generator.request("/api/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                        Map.of("email", email, "password", LoadTestSeeder.PASSWORD))))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode token = objectMapper.readTree(response.body()).path("token");
+        if (response.statusCode() != 200 || token.isMissingNode()) {
+            throw new IllegalStateException("Login failed for " + email + ": HTTP " + response.statusCode());
+        }
+        return token.asText();
+    }
+}
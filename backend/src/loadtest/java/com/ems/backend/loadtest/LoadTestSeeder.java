@@ -0,0 +1,159 @@
+package com.ems.backend.loadtest;
+
+import com.ems.backend.model.AttendanceStatus;
+import com.ems.backend.model.LeaveStatus;
+import com.ems.backend.model.LeaveType;
+import com.ems.backend.model.Role;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Seeds load-test volumes on top of DataSeeder's demo users, straight through
+// JDBC batches: employees, past leaves, finalized attendance for the months
+// payroll generation will consume, and the current month up to today.
+@Slf4j
+@RequiredArgsConstructor
+class LoadTestSeeder {
+
+    static final String EMAIL_DOMAIN = "@load.test";
+
+    static final String PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 1000;
+
+    record SeedData(List<String> employeeEmails, List<Long> employeeIds, List<YearMonth> payrollMonths,
+                    YearMonth currentMonth) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Environment environment;
+
+    SeedData seed() {
+        long started = System.nanoTime();
+        Random random = new Random(environment.getProperty("loadtest.seed", Long.class, 42L));
+        int employees = environment.getProperty("loadtest.employees", Integer.class, 2000);
+        String[] departments = environment.getProperty("loadtest.departments", String[].class);
+        int payrollMonths = environment.getProperty("loadtest.payroll-months", Integer.class, 3);
+        int leavesPerEmployee = environment.getProperty("loadtest.leaves-per-employee", Integer.class, 2);
+
+        List<String> emails = seedUsers(random, employees, departments);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE ? ORDER BY id", Long.class, "%" + EMAIL_DOMAIN);
+
+        YearMonth current = YearMonth.now();
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = payrollMonths; i >= 1; i--) {
+            months.add(current.minusMonths(i));
+        }
+        long leaves = seedLeaves(random, ids, leavesPerEmployee, current.minusMonths(payrollMonths).atDay(1));
+        long attendance = 0;
+        for (YearMonth month : months) {
+            attendance += seedAttendance(random, ids, month.atDay(1), month.atEndOfMonth(), true);
+        }
+        attendance += seedAttendance(random, ids, current.atDay(1), LocalDate.now(), false);
+
+        log.info("Seeded {} employees, {} leaves, {} attendance rows in {} ms", ids.size(), leaves, attendance,
+                (System.nanoTime() - started) / 1_000_000);
+        return new SeedData(emails, ids, months, current);
+    }
+
+    private List<String> seedUsers(Random random, int count, String[] departments) {
+        // One hash for everyone: logins still verify BCrypt, seeding does not pay for it per row
+        String password = passwordEncoder.encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<String> emails = new ArrayList<>(count);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= count; i++) {
+            String email = "employee" + i + EMAIL_DOMAIN;
+            emails.add(email);
+            // Log-normal around 70k, as salaries are
+            long salary = Math.round(Math.exp(Math.log(70000) + 0.35 * random.nextGaussian()));
+            rows.add(new Object[] { "Load Employee " + i, email, password, departments[random.nextInt(departments.length)],
+                    String.format("555-%07d", i), i + " Load Test Ave", Role.EMPLOYEE.name(),
+                    BigDecimal.valueOf(salary), 10000, true, now, now });
+            if (rows.size() == BATCH_SIZE || i == count) {
+                // Large balance: approvals in the leave scenario never run out
+                jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, department, phone, address, role, "
+                        + "salary, leave_balance, is_active, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return emails;
+    }
+
+    private long seedLeaves(Random random, List<Long> ids, int perEmployee, LocalDate from) {
+        LeaveType[] types = LeaveType.values();
+        int spanDays = (int) (LocalDate.now().toEpochDay() - from.toEpochDay());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        long total = 0;
+        for (Long id : ids) {
+            for (int i = 0; i < perEmployee; i++) {
+                LocalDate start = from.plusDays(random.nextInt(Math.max(1, spanDays)));
+                LocalDate end = start.plusDays(random.nextInt(3));
+                LeaveStatus status = random.nextInt(10) < 8 ? LeaveStatus.APPROVED : LeaveStatus.REJECTED;
+                rows.add(new Object[] { id, Date.valueOf(start), Date.valueOf(end), "Seeded leave", status.name(),
+                        types[random.nextInt(types.length)].name(), now });
+                total++;
+            }
+            if (rows.size() >= BATCH_SIZE) {
+                insertLeaves(rows);
+            }
+        }
+        insertLeaves(rows);
+        return total;
+    }
+
+    private void insertLeaves(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO leave_requests (user_id, start_date, end_date, reason, status, "
+                    + "leave_type, applied_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+            rows.clear();
+        }
+    }
+
+    // 85% present, 5% each half day / leave / absent
+    private long seedAttendance(Random random, List<Long> ids, LocalDate from, LocalDate to, boolean finalized) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        long total = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Date day = Date.valueOf(date);
+            for (Long id : ids) {
+                int roll = random.nextInt(100);
+                AttendanceStatus status = roll < 85 ? AttendanceStatus.PRESENT
+                        : roll < 90 ? AttendanceStatus.HALF_DAY
+                        : roll < 95 ? AttendanceStatus.LEAVE
+                        : AttendanceStatus.ABSENT;
+                rows.add(new Object[] { id, day, status.name(), finalized });
+                if (rows.size() == BATCH_SIZE) {
+                    insertAttendance(rows);
+                }
+                total++;
+            }
+        }
+        insertAttendance(rows);
+        return total;
+    }
+
+    private void insertAttendance(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO attendance (employee_id, date, status, finalized) VALUES (?, ?, ?, ?)",
+                    rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ems.backend.loadtest;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// What one log call costs the calling (request) thread when the sink behind it
+// is slow. "sync" writes through the JSON encoder to the sink on the caller;
+// "async" is the logback-spring.xml setup: bounded queue, INFO dropped past 80%,
+// neverBlock. Async caller latency should stay flat as sinkMicros grows; sync
+// latency tracks it.
+// Run: mvn -Ploadtest test-compile exec:exec@benchmarks -Djmh.args="LogSink"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LogSinkBenchmark {
+
+    @Param({"sync", "async"})
+    private String pipeline;
+
+    // Time the sink takes per written event, e.g. a stalled stdout pipe or collector
+    @Param({"0", "200", "2000"})
+    private int sinkMicros;
+
+    private LoggerContext context;
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+        // A context built by hand has no MDC adapter, and every append fails without one
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        context.start();
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setCustomFields("{\"app\":\"backend\"}");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setName("SINK");
+        sink.setEncoder(encoder);
+        sink.setOutputStream(new SlowOutputStream(sinkMicros));
+        sink.start();
+
+        Appender<ILoggingEvent> root = sink;
+        if ("async".equals(pipeline)) {
+            // Same settings as the ASYNC appender in logback-spring.xml
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.setMaxFlushTime(2000);
+            async.addAppender(sink);
+            async.start();
+            root = async;
+        }
+
+        logger = context.getLogger("bench");
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(root);
+        MDC.put("requestId", "3f2c9a1e-bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MDC.clear();
+        context.stop();
+    }
+
+    // A typical request log line
+    @Benchmark
+    public void info() {
+        logger.info("GET /api/attendance 200 {}ms", 12);
+    }
+
+    // Kept in the queue until it is completely full
+    @Benchmark
+    public void warn() {
+        logger.warn("Payroll run {} retried", 7);
+    }
+
+    // Stands in for stdout or a socket that takes a while to drain
+    private static final class SlowOutputStream extends OutputStream {
+
+        private final long writeNanos;
+
+        SlowOutputStream(int micros) {
+            this.writeNanos = TimeUnit.MICROSECONDS.toNanos(micros);
+        }
+
+        @Override
+        public void write(int b) {
+        }
+
+        // The encoder hands over each event as one array
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (writeNanos > 0) {
+                LockSupport.parkNanos(writeNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.ems.backend.loadtest;
+
+import com.ems.backend.service.LlmClient;
+import com.ems.backend.service.ResumeCondenser;
+import com.ems.backend.service.ResumeTextExtractor;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Prompt size and LLM round trip with and without section condensing, on
+// Sample_Resume_Java_Dev.pdf ("sample") and on its text laid out as an 8-page
+// resume with a running header and page footers ("long"). "truncated" is the
+// prompt as it was before condensing: the first 10,000 characters of raw text.
+// Prompt bytes and estimated tokens are printed once per trial. The round trips
+// go through LlmClient to a local stub; upstreamMicrosPerKb stands in for a model
+// whose time to answer grows with the prompt (0 = transport and JSON only).
+// Run: mvn -Ploadtest test-compile exec:exec@benchmarks -Djmh.args="ResumeCondenser"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResumeCondenserBenchmark {
+
+    private static final Path SAMPLE = Path.of("../Sample_Resume_Java_Dev.pdf");
+
+    // The same prefix and budget as ResumeService (gemini.api.max-resume-tokens=1500, 4 chars a token)
+    private static final String PREFIX = "Act as an ATS. Analyze this resume for a 'Java Developer' role. "
+            + "Return a raw JSON object {score, missingKeywords, summary, recommendation}. Resume:\n";
+    private static final int CHAR_BUDGET = 1500 * 4;
+    private static final int TRUNCATED_CHARS = 10_000;
+
+    private static final byte[] OK_BODY = ("{\"candidates\":[{\"content\":{\"parts\":[{\"text\":"
+            + "\"{\\\"score\\\":80}\"}]}}]}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"sample", "long"})
+    private String resume;
+
+    @Param({"0", "1000"})
+    private int upstreamMicrosPerKb;
+
+    private final ResumeCondenser condenser = new ResumeCondenser();
+    private String text;
+    private String truncatedPrompt;
+    private String condensedPrompt;
+    private HttpServer stub;
+    private LlmClient llmClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String extracted = extractor().extract(SAMPLE).text();
+        text = "long".equals(resume) ? paginate(extracted, 8) : extracted;
+        truncatedPrompt = PREFIX + text.substring(0, Math.min(text.length(), TRUNCATED_CHARS));
+        condensedPrompt = PREFIX + condenser.condense(text, CHAR_BUDGET);
+        System.out.printf("%n%s: extracted %d chars; prompt truncated %d bytes (~%d tokens), "
+                        + "condensed %d bytes (~%d tokens)%n", resume, text.length(),
+                bytes(truncatedPrompt), bytes(truncatedPrompt) / 4, bytes(condensedPrompt), bytes(condensedPrompt) / 4);
+
+        // Without it headers and body go out as separate segments and delayed ACKs add ~40ms a call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/", exchange -> {
+            long received;
+            try (InputStream in = exchange.getRequestBody()) {
+                received = in.transferTo(OutputStream.nullOutputStream());
+            }
+            if (upstreamMicrosPerKb > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(upstreamMicrosPerKb * received / 1024));
+            }
+            exchange.sendResponseHeaders(200, OK_BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(OK_BODY);
+            }
+        });
+        stub.start();
+        llmClient = llmClient("http://localhost:" + stub.getAddress().getPort() + "/");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stub.stop(0);
+    }
+
+    @Benchmark
+    public String condense() {
+        return condenser.condense(text, CHAR_BUDGET);
+    }
+
+    @Benchmark
+    public String roundTripTruncated() throws InterruptedException {
+        return llmClient.generateContent(truncatedPrompt);
+    }
+
+    @Benchmark
+    public String roundTripCondensed() throws InterruptedException {
+        return llmClient.generateContent(condensedPrompt);
+    }
+
+    // Every page repeats the text under a running header, with a page footer
+    private static String paginate(String text, int pages) {
+        StringBuilder document = new StringBuilder();
+        for (int page = 1; page <= pages; page++) {
+            document.append("Jane Doe - Curriculum Vitae\n")
+                    .append(text.replace('\f', '\n'))
+                    .append("\nPage ").append(page).append(" of ").append(pages).append('\f');
+        }
+        return document.toString();
+    }
+
+    private static int bytes(String prompt) {
+        return prompt.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // Production defaults
+    private static ResumeTextExtractor extractor() {
+        ResumeTextExtractor extractor = new ResumeTextExtractor();
+        ReflectionTestUtils.setField(extractor, "maxPages", 10);
+        ReflectionTestUtils.setField(extractor, "maxChars", 20_000);
+        ReflectionTestUtils.setField(extractor, "rejectPages", 300);
+        ReflectionTestUtils.setField(extractor, "scratchMemoryBytes", 4_194_304L);
+        ReflectionTestUtils.setField(extractor, "scratchMaxBytes", 67_108_864L);
+        ReflectionTestUtils.setField(extractor, "timeBudgetMs", 5_000L);
+        ReflectionTestUtils.setField(extractor, "maxConcurrent", 0);
+        ReflectionTestUtils.invokeMethod(extractor, "init");
+        return extractor;
+    }
+
+    // Production defaults, without retries or hedging so each call is one round trip
+    private static LlmClient llmClient(String endpoint) {
+        LlmClient client = new LlmClient(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "apiKey", "stub-key");
+        ReflectionTestUtils.setField(client, "apiEndpoint", endpoint);
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(client, "requestTimeoutMs", 30_000L);
+        ReflectionTestUtils.setField(client, "deadlineMs", 45_000L);
+        ReflectionTestUtils.setField(client, "maxConcurrentCalls", 8);
+        ReflectionTestUtils.setField(client, "maxRetries", 0);
+        ReflectionTestUtils.setField(client, "retryBaseMs", 200L);
+        ReflectionTestUtils.setField(client, "retryMaxMs", 2_000L);
+        ReflectionTestUtils.setField(client, "hedgeAfterMs", 0L);
+        ReflectionTestUtils.setField(client, "breakerWindow", 20);
+        ReflectionTestUtils.setField(client, "breakerMinCalls", 10);
+        ReflectionTestUtils.setField(client, "breakerFailureRate", 0.5);
+        ReflectionTestUtils.setField(client, "breakerOpenMs", 30_000L);
+        ReflectionTestUtils.invokeMethod(client, "init");
+        return client;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ems.backend.loadtest;
+
+import com.ems.backend.model.LeaveStatus;
+import com.ems.backend.model.LeaveType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The scripted scenarios. Endpoint labels are route templates, never ids, so
+// the report has one row per endpoint.
+@RequiredArgsConstructor
+class Scenarios {
+
+    private final LoadGenerator generator;
+    private final ObjectMapper objectMapper;
+    private final LoadTestSeeder.SeedData data;
+    private final String hrToken;
+    private final String adminToken;
+    private final List<String> employeeTokens;
+    private final int punchBatch;
+
+    private final AtomicInteger nextPayrollMonth = new AtomicInteger();
+
+    Map<String, LoadGenerator.Scenario> all() {
+        Map<String, LoadGenerator.Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("login", this::login);
+        scenarios.put("leave", this::leave);
+        scenarios.put("dashboard", this::dashboard);
+        scenarios.put("attendance", this::attendance);
+        scenarios.put("payroll", this::payroll);
+        scenarios.put("punch", this::punch);
+        return scenarios;
+    }
+
+    // Login storm: a random seeded employee signs in (BCrypt verification included)
+    private void login(LoadGenerator.Session session) throws Exception {
+        String email = data.employeeEmails().get(session.random().nextInt(data.employeeEmails().size()));
+        session.call("POST /api/auth/login", generator.request("/api/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("email", email, "password", LoadTestSeeder.PASSWORD))));
+    }
+
+    // An employee applies for one to three days off; HR approves four in five and rejects the rest
+    private void leave(LoadGenerator.Session session) throws Exception {
+        String token = employeeTokens.get(session.random().nextInt(employeeTokens.size()));
+        LocalDate start = LocalDate.now().plusDays(7 + session.random().nextInt(300));
+        LeaveType[] types = LeaveType.values();
+        HttpResponse<String> applied = session.call("POST /api/leaves", authorized(generator.request("/api/leaves"),
+                token)
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("startDate", start.toString(),
+                        "endDate", start.plusDays(session.random().nextInt(3)).toString(),
+                        "reason", "Load test", "leaveType", types[session.random().nextInt(types.length)].name()))));
+        if (applied == null) {
+            return;
+        }
+        long id = objectMapper.readTree(applied.body()).path("id").asLong();
+        LeaveStatus decision = session.random().nextInt(5) < 4 ? LeaveStatus.APPROVED : LeaveStatus.REJECTED;
+        session.call("PUT /api/leaves/{id}/status", authorized(generator.request(
+                "/api/leaves/" + id + "/status?status=" + decision.name()), hrToken)
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    // Dashboard polling by HR
+    private void dashboard(LoadGenerator.Session session) {
+        session.call("GET /api/dashboard/stats", authorized(generator.request("/api/dashboard/stats"), hrToken).GET());
+    }
+
+    // The full attendance grid for the current month
+    private void attendance(LoadGenerator.Session session) {
+        YearMonth month = data.currentMonth();
+        session.call("GET /api/attendance", authorized(generator.request("/api/attendance?month="
+                + month.getMonthValue() + "&year=" + month.getYear()), hrToken).GET());
+    }
+
+    // Generates payroll for the next seeded month (while any are left), then pages through a listing
+    private void payroll(LoadGenerator.Session session) {
+        List<YearMonth> months = data.payrollMonths();
+        if (months.isEmpty()) {
+            return;
+        }
+        int index = nextPayrollMonth.getAndIncrement();
+        YearMonth month;
+        if (index < months.size()) {
+            month = months.get(index);
+            session.call("POST /api/payroll/generate", authorized(generator.request("/api/payroll/generate?month="
+                    + month.getMonthValue() + "&year=" + month.getYear()), adminToken)
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+        } else {
+            month = months.get(session.random().nextInt(months.size()));
+        }
+        int pages = Math.max(1, data.employeeEmails().size() / 50);
+        session.call("GET /api/payroll", authorized(generator.request("/api/payroll?month=" + month.getMonthValue()
+                + "&year=" + month.getYear() + "&page=" + session.random().nextInt(pages) + "&size=50"), hrToken)
+                .GET());
+    }
+
+    // A device gateway uploads a batch of badge punches from random seeded employees
+    private void punch(LoadGenerator.Session session) throws Exception {
+        List<Long> ids = data.employeeIds();
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> punches = new ArrayList<>(punchBatch);
+        for (int i = 0; i < punchBatch; i++) {
+            punches.add(Map.of("employeeId", ids.get(session.random().nextInt(ids.size())),
+                    "direction", session.random().nextBoolean() ? "IN" : "OUT",
+                    "punchedAt", now.toString(),
+                    "deviceId", "gate-" + session.random().nextInt(20)));
+        }
+        session.call("POST /api/punches", authorized(generator.request("/api/punches"), hrToken)
+                .header("Content-Type", "application/json")
+                .POST(json(punches)));
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder request, String token) {
+        return request.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws Exception {
+        return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+    }
+}
@@ -7,6 +7,7 @@ import com.ems.backend.model.User;
 import com.ems.backend.repository.LeaveRepository;
 import com.ems.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -18,10 +19,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataSeeder implements CommandLineRunner {
 
+    // Fixed so every fresh database gets the same demo data
+    private static final long SEED = 42L;
+
     private final UserRepository userRepository;
     private final LeaveRepository leaveRepository;
     private final PasswordEncoder passwordEncoder;
@@ -30,11 +35,11 @@ public class DataSeeder implements CommandLineRunner {
     @Transactional
     public void run(String... args) throws Exception {
         if (userRepository.count() > 0) {
-            System.out.println("Data Seeding Skipped: Database not empty.");
+            log.info("Data seeding skipped: database not empty");
             return;
         }
 
-        System.out.println("Starting Data Seeding...");
+        log.info("Starting data seeding");
 
         // 1. Admin
         User admin = User.builder()
@@ -68,7 +73,7 @@ public class DataSeeder implements CommandLineRunner {
 
         // 3. Employees
         String[] depts = { "IT", "Sales", "HR", "Marketing", "Finance", "Operations" };
-        Random random = new Random();
+        Random random = new Random(SEED);
         List<User> employees = new ArrayList<>();
 
         String[] realNames = {
@@ -130,6 +135,6 @@ public class DataSeeder implements CommandLineRunner {
         }
 
         leaveRepository.saveAll(leaveRequests);
-        System.out.println("Data Seeding Completed Successfully.");
+        log.info("Data seeding completed");
     }
 }
@@ -0,0 +1,27 @@
+package com.ems.backend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Meters are scraped from /actuator/prometheus. Tags must stay bounded: only
+// templates, enum values, class/method names and fixed outcomes, never ids,
+// emails, file names or raw paths.
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on Spring beans (tags: class, method, exception)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Backstop for the uri tag of HTTP metrics: past the limit new values are dropped
+    @Bean
+    public MeterFilter httpUriTagLimit(@Value("${metrics.http.max-uri-tags:100}") int maxUriTags) {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", maxUriTags, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,18 @@
+package com.ems.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Per-endpoint override of the default query budget (see QueryBudgetInterceptor).
+// Both limits must be given; a negative value means unlimited. Statements are
+// the ones Hibernate prepares, so JdbcTemplate batches are not counted.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int statements();
+
+    long wallMs();
+}
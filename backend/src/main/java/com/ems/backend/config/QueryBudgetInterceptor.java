@@ -0,0 +1,82 @@
+package com.ems.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Measures every controller call against a statement count and wall-time
+// budget: the default from properties, or @QueryBudget on the handler.
+// Over-budget calls are logged; with query.budget.fail-on-exceed the
+// statement that breaks the budget throws instead (meant for dev and CI).
+// Open-session-in-view is off, so a lazy load during serialization fails
+// rather than quietly adding statements.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED = QueryBudgetInterceptor.class.getName() + ".started";
+
+    private final StatementCounter statementCounter;
+
+    @Value("${query.budget.statements:10}")
+    private int defaultStatements;
+
+    @Value("${query.budget.wall-ms:2000}")
+    private long defaultWallMs;
+
+    @Value("${query.budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(STARTED, System.nanoTime());
+            statementCounter.start(failOnExceed ? statements((HandlerMethod) handler) : -1);
+        }
+        return true;
+    }
+
+    // Streamed responses continue on another thread; their statements are not attributed
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response, @NonNull Object handler) {
+        statementCounter.stop();
+        request.removeAttribute(STARTED);
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler, Exception ex) {
+        Object started = request.getAttribute(STARTED);
+        int statements = statementCounter.stop();
+        if (!(handler instanceof HandlerMethod method) || started == null) {
+            return;
+        }
+        long elapsedMs = (System.nanoTime() - (Long) started) / 1_000_000;
+        int statementBudget = statements(method);
+        long wallBudget = wallMs(method);
+        if ((statementBudget >= 0 && statements > statementBudget) || (wallBudget >= 0 && elapsedMs > wallBudget)) {
+            log.warn("Query budget exceeded by {}.{}: {} statements (budget {}), {} ms (budget {})",
+                    method.getBeanType().getSimpleName(), method.getMethod().getName(),
+                    statements, statementBudget, elapsedMs, wallBudget);
+        }
+    }
+
+    private int statements(HandlerMethod method) {
+        QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+        return budget == null ? defaultStatements : budget.statements();
+    }
+
+    private long wallMs(HandlerMethod method) {
+        QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+        return budget == null ? defaultWallMs : budget.wallMs();
+    }
+}
@@ -0,0 +1,80 @@
+package com.ems.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Read/write split, on with db.replica.enabled=true. Primary and replica get
+// separate Hikari pools (pool="primary" / pool="replica" in the hikaricp.*
+// metrics) and the application's DataSource routes between them per
+// transaction (ReplicaRoutingDataSource). Off, the single auto-configured pool
+// is used as before.
+@Configuration
+@ConditionalOnProperty(name = "db.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("db.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${db.replica.url}") String url,
+                                              @Value("${db.replica.username:}") String username,
+                                              @Value("${db.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        // A write that reaches the replica by mistake fails instead of diverging it
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primary, replica, meterRegistry);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                      @Qualifier("replicaDataSource") DataSource replica,
+                                                      ReplicaLagMonitor replicaLagMonitor,
+                                                      MeterRegistry meterRegistry,
+                                                      @Value("${db.replica.max-lag-ms:1000}") long maxLagMs,
+                                                      @Value("${db.replica.read-your-writes-ms:5000}") long readYourWritesMs) {
+        return new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor, meterRegistry, maxLagMs,
+                readYourWritesMs);
+    }
+
+    // What JPA, JdbcTemplate and the services use. The lazy proxy holds back the
+    // physical connection until the first statement, when the transaction's
+    // read-only flag is already set, so the router can see it.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ems.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+// Measures how far the replica is behind with a heartbeat row: every beat the
+// primary's replica_heartbeat row is stamped with this instance's clock, and the
+// value the replica returns says up to when it has applied the primary's writes.
+// Lag is now minus that value, so it keeps growing if replication (or the
+// monitor) stalls and needs no replication-specific status query.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String CREATE_SQL = "CREATE TABLE IF NOT EXISTS replica_heartbeat "
+            + "(id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+
+    private static final int QUERY_TIMEOUT_SECONDS = 1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+
+    // Epoch millis of the newest beat the replica has applied, -1 until one is seen
+    private volatile long replicaBeatAt = -1;
+    private volatile boolean replicaReadable = true;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        // One slow database must not hold up the shared scheduler thread
+        primary.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        replica.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        Gauge.builder("db.replica.lag", this, monitor -> {
+                    long lag = monitor.lagMs();
+                    return lag == Long.MAX_VALUE ? Double.NaN : lag;
+                })
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${db.replica.heartbeat-interval-ms:250}")
+    public void beat() {
+        try {
+            long now = System.currentTimeMillis();
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException e) {
+            // First beat on a fresh schema (the table replicates like any other DDL),
+            // or the primary is down and the replica's beat simply ages
+            try {
+                primary.execute(CREATE_SQL);
+            } catch (DataAccessException createFailed) {
+                log.debug("Heartbeat write to the primary failed: {}", e.getMessage());
+            }
+        }
+        try {
+            Long seen = replica.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+            replicaBeatAt = seen == null ? -1 : seen;
+            if (!replicaReadable) {
+                replicaReadable = true;
+                log.info("Replica heartbeat readable again, lag {}ms", lagMs());
+            }
+        } catch (DataAccessException e) {
+            if (replicaReadable) {
+                replicaReadable = false;
+                log.warn("Replica heartbeat not readable, lag unknown: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Long.MAX_VALUE until the replica has shown a heartbeat
+    public long lagMs() {
+        long seen = replicaBeatAt;
+        return seen < 0 ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - seen);
+    }
+}
@@ -0,0 +1,127 @@
+package com.ems.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Picks the pool for each new connection. Read-only transactions declared by the
+// application (@Transactional(readOnly = true) on a service) go to the replica,
+// unless it is more than db.replica.max-lag-ms behind or the signed-in user has
+// committed a write in the last db.replica.read-your-writes-ms. Everything else
+// goes to the primary. Sits behind a LazyConnectionDataSourceProxy, so the choice
+// is made at the first statement, once the transaction's flags are known.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    // Spring Data runs its inherited finders (findById, findAll) read-only.
+    // Outside a service transaction those are often the read half of a read-modify-write
+    // (EmployeeService.updateUser), so they stay on the primary.
+    private static final String REPOSITORY_PACKAGE = "org.springframework.data.";
+
+    // Bounds the read-your-writes memory under a burst of distinct writers
+    private static final int MAX_TRACKED_WRITERS = 100_000;
+
+    private enum Route { NO_TRANSACTION, READ_WRITE, REPOSITORY, READ_YOUR_WRITES, STALE, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long maxLagMs;
+    private final long readYourWritesMs;
+    private final Cache<String, Long> recentWriters;
+    private final Map<Route, Counter> counters = new EnumMap<>(Route.class);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    MeterRegistry meterRegistry, long maxLagMs, long readYourWritesMs) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.lagMonitor = lagMonitor;
+        this.maxLagMs = maxLagMs;
+        this.readYourWritesMs = readYourWritesMs;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(readYourWritesMs))
+                .maximumSize(MAX_TRACKED_WRITERS)
+                .build();
+        for (Route route : Route.values()) {
+            counters.put(route, Counter.builder("db.routing")
+                    .tag("target", route == Route.REPLICA ? REPLICA : PRIMARY)
+                    .tag("reason", route.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        counters.get(route).increment();
+        return route == Route.REPLICA ? REPLICA : PRIMARY;
+    }
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.NO_TRANSACTION;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                // Only a commit starts the window; a rolled-back write left nothing to read back
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(user, System.currentTimeMillis());
+                    }
+                });
+            }
+            return Route.READ_WRITE;
+        }
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transaction == null || transaction.startsWith(REPOSITORY_PACKAGE)) {
+            return Route.REPOSITORY;
+        }
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return Route.READ_YOUR_WRITES;
+        }
+        if (maxLagMs >= 0 && lagMonitor.lagMs() > maxLagMs) {
+            return Route.STALE;
+        }
+        return Route.REPLICA;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        long lag = lagMonitor.lagMs();
+        status.put("enabled", true);
+        status.put("lagMs", lag == Long.MAX_VALUE ? null : lag);
+        status.put("maxLagMs", maxLagMs);
+        status.put("replicaUsable", maxLagMs < 0 || lag <= maxLagMs);
+        status.put("readYourWritesMs", readYourWritesMs);
+        status.put("usersReadingYourWrites", recentWriters.estimatedSize());
+        Map<String, Long> routed = new LinkedHashMap<>();
+        counters.forEach((route, counter) -> routed.put(route.name().toLowerCase(Locale.ROOT), (long) counter.count()));
+        status.put("connectionsRouted", routed);
+        return status;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ems.backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers which repository method the current thread is inside, so JDBC
+// statements can be attributed to it (see SqlStatementListener), and adds the
+// call's duration to the request's timing. The outermost repository call wins
+// when repositories call each other.
+@Aspect
+@Component
+public class RepositoryAttributionAspect {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private static final String REPOSITORY_PACKAGE = "com.ems.backend.repository";
+
+    private final Map<Class<?>, String> names = new ConcurrentHashMap<>();
+
+    // Repository method of the current thread, or null outside repositories
+    static String current() {
+        return CURRENT.get();
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object attribute(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (CURRENT.get() != null) {
+            return joinPoint.proceed();
+        }
+        CURRENT.set(repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName());
+        long started = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            CURRENT.remove();
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.addRepository(System.nanoTime() - started);
+            }
+        }
+    }
+
+    // Inherited methods (save, findById, ...) are declared on Spring Data types; name the app interface
+    private String repositoryName(Object proxy) {
+        return names.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> candidate : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                if (candidate.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.ems.backend.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Locale;
+import java.util.Set;
+
+// Where the wall time of the current request went. Created by ServerTimingFilter
+// on the request thread; the JWT filter, SqlStatementListener, repository calls
+// and JSON serialization add to it. Work on other threads is not included.
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedNanos = System.nanoTime();
+    private final Set<String> headerAuthorities;
+    private long authNanos;
+    private long sqlNanos;
+    private int sqlCount;
+    private long repositoryNanos;
+    private long repositorySqlNanos;
+    private long serializationNanos;
+
+    private RequestTiming(Set<String> headerAuthorities) {
+        this.headerAuthorities = headerAuthorities;
+    }
+
+    static RequestTiming start(Set<String> headerAuthorities) {
+        RequestTiming timing = new RequestTiming(headerAuthorities);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // Null outside a timed request
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    // The breakdown is only sent to callers holding one of the header authorities.
+    // Reads the security context, so it is false once Spring Security has cleared it
+    boolean headerVisible() {
+        if (headerAuthorities.isEmpty()) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (headerAuthorities.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Auth time excludes the user lookup's SQL/ORM time, which is reported under those
+    public long authStarted() {
+        return System.nanoTime() - databaseNanos();
+    }
+
+    public void authFinished(long mark) {
+        authNanos += System.nanoTime() - databaseNanos() - mark;
+    }
+
+    private long databaseNanos() {
+        return sqlNanos + ormNanos();
+    }
+
+    void addSql(long nanos, boolean insideRepository) {
+        sqlNanos += nanos;
+        sqlCount++;
+        if (insideRepository) {
+            repositorySqlNanos += nanos;
+        }
+    }
+
+    void addRepository(long nanos) {
+        repositoryNanos += nanos;
+    }
+
+    void addSerialization(long nanos) {
+        serializationNanos += nanos;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startedNanos;
+    }
+
+    long authNanos() {
+        return authNanos;
+    }
+
+    long sqlNanos() {
+        return sqlNanos;
+    }
+
+    int sqlCount() {
+        return sqlCount;
+    }
+
+    // Repository time outside statement execution: connection and transaction
+    // handling, reading result sets, hydration, dirty checking
+    long ormNanos() {
+        return Math.max(0, repositoryNanos - repositorySqlNanos);
+    }
+
+    long serializationNanos() {
+        return serializationNanos;
+    }
+
+    // Whatever is left: controllers, services, filters
+    long appNanos(long totalNanos) {
+        return Math.max(0, totalNanos - authNanos - sqlNanos - ormNanos() - serializationNanos);
+    }
+
+    // Server-Timing header value, e.g. auth;dur=1.2, sql;dur=3.4;desc="5 stmt", ...
+    String header() {
+        long total = elapsedNanos();
+        return metric("auth", authNanos) + ", "
+                + metric("sql", sqlNanos) + ";desc=\"" + sqlCount + " stmt\", "
+                + metric("orm", ormNanos()) + ", "
+                + metric("ser", serializationNanos) + ", "
+                + metric("app", appNanos(total)) + ", "
+                + metric("total", total);
+    }
+
+    private static String metric(String name, long nanos) {
+        return name + ";dur=" + String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
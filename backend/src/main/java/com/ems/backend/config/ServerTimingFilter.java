@@ -0,0 +1,167 @@
+package com.ems.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import net.logstash.logback.argument.StructuredArguments;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Breaks each request's wall time into auth / sql / orm / ser / app. ADMIN and HR
+// callers (server-timing.header-roles) get it as a Server-Timing header, written
+// just before the body starts; everyone else gets no header, since the breakdown
+// exposes backend internals. Slow requests and a sample of the rest are logged
+// with structured fields to the "http.timing" logger whatever the caller.
+@Slf4j(topic = "http.timing")
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final String HEADER = "Server-Timing";
+
+    @Value("${server-timing.enabled:true}")
+    private boolean enabled;
+
+    // Roles that receive the header; empty sends it to nobody
+    @Value("${server-timing.header-roles:ADMIN,HR}")
+    private List<String> headerRoles;
+
+    private Set<String> headerAuthorities = Set.of();
+
+    @Value("${server-timing.log-sample-rate:0.01}")
+    private double logSampleRate;
+
+    @Value("${server-timing.log-slow-ms:1000}")
+    private long logSlowMs;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.start(headerAuthorities);
+        TimingResponse timed = new TimingResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timed);
+        } finally {
+            RequestTiming.clear();
+            timed.addHeader();
+            long totalMs = timing.elapsedNanos() / 1_000_000;
+            if (totalMs >= logSlowMs || ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log(request, response, timing);
+            }
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        headerAuthorities = headerRoles.stream()
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .map(role -> "ROLE_" + role)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+        long total = timing.elapsedNanos();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("method", request.getMethod());
+        entry.put("route", pattern != null ? pattern : request.getRequestURI());
+        entry.put("status", response.getStatus());
+        entry.put("totalMs", millis(total));
+        entry.put("authMs", millis(timing.authNanos()));
+        entry.put("sqlMs", millis(timing.sqlNanos()));
+        entry.put("sqlCount", timing.sqlCount());
+        entry.put("ormMs", millis(timing.ormNanos()));
+        entry.put("serMs", millis(timing.serializationNanos()));
+        entry.put("appMs", millis(timing.appNanos(total)));
+        log.info("{} {} {} {}ms", entry.get("method"), entry.get("route"), entry.get("status"), entry.get("totalMs"),
+                StructuredArguments.entries(entry));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    // Adds the header at the last moment it can still be sent: the first body
+    // access, an error or redirect, or the end of the filter if nothing was written
+    // (by then the security context is gone, so bodiless responses carry no header)
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean headerAdded;
+
+        TimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void addHeader() {
+            if (!headerAdded && !isCommitted()) {
+                headerAdded = true;
+                if (timing.headerVisible()) {
+                    setHeader(HEADER, timing.header());
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.ems.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.logstash.logback.argument.StructuredArguments;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Times every JDBC statement and attributes it to the repository method that
+// issued it, or else to the first application frame on the stack. Statements
+// over the threshold (plus an optional sample of the rest) are logged to the
+// "sql.slow" logger with structured fields, string parameters redacted.
+// Per-caller latency is kept in db.statements timers (p50/p99).
+@Slf4j(topic = "sql.slow")
+@Component
+@RequiredArgsConstructor
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String STARTED = "startedNanos";
+
+    private static final String APP_PACKAGE = "com.ems.backend.";
+
+    // Frames that never identify the caller
+    private static final Set<String> SKIPPED_PACKAGES = Set.of("com.ems.backend.config.",
+            "com.ems.backend.security.");
+
+    private static final int MAX_SQL_CHARS = 2000;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, String> lastSql = new ConcurrentHashMap<>();
+
+    @Value("${db.slow-query.threshold-ms:200}")
+    private long thresholdMs;
+
+    // Fraction of statements under the threshold that are logged anyway
+    @Value("${db.slow-query.sample-rate:0}")
+    private double sampleRate;
+
+    @Value("${db.slow-query.redact-parameters:true}")
+    private boolean redactParameters;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        if (started == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.addSql(elapsedNanos, RepositoryAttributionAspect.current() != null);
+        }
+        String caller = caller();
+        timers.computeIfAbsent(caller, key -> Timer.builder("db.statements")
+                .tag("caller", key)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        String sql = queryInfoList.get(0).getQuery();
+        lastSql.put(caller, abbreviate(sql));
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        boolean slow = elapsedMs >= thresholdMs;
+        if (slow || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            log(execInfo, queryInfoList, caller, elapsedMs, slow);
+        }
+    }
+
+    // Per-caller summaries, most total time first
+    public List<Map<String, Object>> getSummaries() {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        timers.forEach((caller, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("caller", caller);
+            summary.put("count", snapshot.count());
+            summary.put("totalMs", (long) snapshot.total(TimeUnit.MILLISECONDS));
+            summary.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                summary.put("p" + Math.round(value.percentile() * 100) + "Ms", value.value(TimeUnit.MILLISECONDS));
+            }
+            summary.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            summary.put("sql", lastSql.get(caller));
+            summaries.add(summary);
+        });
+        summaries.sort(Comparator.comparingLong((Map<String, Object> s) -> (Long) s.get("totalMs")).reversed());
+        return summaries;
+    }
+
+    private void log(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, String caller, long elapsedMs,
+            boolean slow) {
+        QueryInfo first = queryInfoList.get(0);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("event", slow ? "slow_query" : "sampled_query");
+        entry.put("caller", caller);
+        entry.put("elapsedMs", elapsedMs);
+        entry.put("success", execInfo.isSuccess());
+        entry.put("batch", execInfo.isBatch());
+        if (execInfo.isBatch()) {
+            entry.put("batchSize", execInfo.getBatchSize());
+        }
+        entry.put("statements", queryInfoList.size());
+        entry.put("sql", abbreviate(first.getQuery()));
+        // Only the first parameter set; batches would repeat the same shape
+        if (!first.getParametersList().isEmpty()) {
+            entry.put("params", parameters(first.getParametersList().get(0)));
+        }
+        // Text layouts get the short form; the JSON layout adds every entry as a field
+        log.info("{} {} {}ms", entry.get("event"), caller, elapsedMs, StructuredArguments.entries(entry));
+    }
+
+    private List<Object> parameters(List<ParameterSetOperation> operations) {
+        List<Object> values = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            // setNull(index, sqlType): the second argument is a type code, not a value
+            boolean isNull = args == null || args.length < 2
+                    || ParameterSetOperation.isSetNullParameterOperation(operation);
+            values.add(isNull ? null : redact(args[1]));
+        }
+        return values;
+    }
+
+    // Numbers, booleans and dates are kept (ids, periods); anything textual or binary is masked
+    private Object redact(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Temporal || value instanceof java.util.Date) {
+            return value.toString();
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (!redactParameters) {
+            return value.toString();
+        }
+        if (value instanceof CharSequence text) {
+            return "<" + text.length() + " chars>";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    // Repository method if inside one, else the innermost application frame
+    private static String caller() {
+        String repositoryMethod = RepositoryAttributionAspect.current();
+        if (repositoryMethod != null) {
+            return repositoryMethod;
+        }
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                        && SKIPPED_PACKAGES.stream().noneMatch(frame.getClassName()::startsWith)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName())
+                .orElse("unattributed"));
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int nested = name.indexOf('$');
+        return nested < 0 ? name : name.substring(0, nested);
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SQL_CHARS ? sql : sql.substring(0, MAX_SQL_CHARS) + "...";
+    }
+}
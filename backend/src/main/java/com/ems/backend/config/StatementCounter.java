@@ -0,0 +1,52 @@
+package com.ems.backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a
+// request is being measured. With a limit set, the statement that exceeds it
+// fails instead of running, so an N+1 regression surfaces as an error.
+@Component
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final class Count {
+        private final int limit;
+        private int statements;
+
+        private Count(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    private static final ThreadLocal<Count> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Count count = CURRENT.get();
+        if (count != null && ++count.statements > count.limit && count.limit >= 0) {
+            throw new IllegalStateException("Query budget of " + count.limit + " statements exceeded");
+        }
+        return sql;
+    }
+
+    // limit < 0 only counts
+    public void start(int limit) {
+        CURRENT.set(new Count(limit));
+    }
+
+    // Returns the number of statements since start(), or -1 if not measuring
+    public int stop() {
+        Count count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? -1 : count.statements;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ems.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+// Times JSON serialization (including lazy-loading in getters) for Server-Timing.
+// Callers who don't get the header are streamed straight to the response and the
+// time only reaches the timing log. For callers who do, the body is held back up
+// to MAX_BUFFERED_BYTES so the header can carry the full ser time and the response
+// a Content-Length; a larger body switches to streaming and its header shows the
+// ser time up to that point.
+class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    static final int MAX_BUFFERED_BYTES = 64 * 1024;
+
+    TimedJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object object, Type type, @NonNull HttpOutputMessage outputMessage)
+            throws IOException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        if (!timing.headerVisible()) {
+            long started = System.nanoTime();
+            super.writeInternal(object, type, outputMessage);
+            timing.addSerialization(System.nanoTime() - started);
+            return;
+        }
+        CappedBuffer buffer = new CappedBuffer(outputMessage, timing);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            @NonNull
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            @NonNull
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        buffer.finish();
+    }
+
+    // Collects the body until it passes the cap, then records the ser time so far,
+    // flushes what it holds to the real response (which sends the header) and
+    // passes the rest straight through
+    private static final class CappedBuffer extends OutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        private final HttpOutputMessage target;
+        private final RequestTiming timing;
+        private long started = System.nanoTime();
+        private OutputStream direct;
+
+        CappedBuffer(HttpOutputMessage target, RequestTiming timing) {
+            this.target = target;
+            this.timing = timing;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            if (direct == null && buffer.size() + len > MAX_BUFFERED_BYTES) {
+                recordSerialization();
+                direct = target.getBody();
+                buffer.writeTo(direct);
+                buffer.reset();
+            }
+            if (direct != null) {
+                direct.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (direct != null) {
+                direct.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            recordSerialization();
+            if (direct == null) {
+                target.getHeaders().setContentLength(buffer.size());
+                buffer.writeTo(target.getBody());
+            }
+        }
+
+        private void recordSerialization() {
+            long now = System.nanoTime();
+            timing.addSerialization(now - started);
+            started = now;
+        }
+    }
+}
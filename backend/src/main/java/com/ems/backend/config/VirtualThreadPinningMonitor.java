@@ -0,0 +1,166 @@
+package com.ems.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Reports virtual threads pinned to their carrier thread. JFR emits
+// jdk.VirtualThreadPinned when a virtual thread blocks while it cannot unmount
+// (inside synchronized, e.g. in a driver or PDF library, or under a native
+// frame) for longer than the threshold. Each event is timed per site, the first
+// application frame on the stack, in jvm.threads.virtual.pinned; the first
+// stack seen per site is logged to "threads.pinning".
+@Slf4j(topic = "threads.pinning")
+@Component
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String APP_PACKAGE = "com.ems.backend.";
+
+    // Keeps the site tag bounded; later sites are folded into "other"
+    private static final int MAX_SITES = 100;
+
+    private static final int MAX_STACK_FRAMES = 30;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, String> stacks = new ConcurrentHashMap<>();
+
+    @Value("${threads.pinning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            stream.onEvent(EVENT, this::record);
+            stream.startAsync();
+        } catch (IllegalStateException | SecurityException e) {
+            // JFR disabled in this JVM (-XX:-FlightRecorder) or not permitted
+            log.warn("Virtual thread pinning monitor not started: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String site = site(stackTrace);
+        if (!timers.containsKey(site) && timers.size() >= MAX_SITES) {
+            site = "other";
+        }
+        timers.computeIfAbsent(site, key -> Timer.builder("jvm.threads.virtual.pinned")
+                .tag("site", key)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry))
+                .record(event.getDuration());
+        String stack = stack(stackTrace);
+        if (stacks.putIfAbsent(site, stack) == null) {
+            log.warn("Virtual thread pinned for {}ms at {}\n{}", event.getDuration().toMillis(), site, stack);
+        }
+    }
+
+    // Per-site summaries, most total pinned time first
+    public List<Map<String, Object>> getSummaries() {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        timers.forEach((site, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("site", site);
+            summary.put("count", snapshot.count());
+            summary.put("totalMs", (long) snapshot.total(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                summary.put("p" + Math.round(value.percentile() * 100) + "Ms", value.value(TimeUnit.MILLISECONDS));
+            }
+            summary.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            summary.put("stack", stacks.get(site));
+            summaries.add(summary);
+        });
+        summaries.sort(Comparator.comparingLong((Map<String, Object> s) -> (Long) s.get("totalMs")).reversed());
+        return summaries;
+    }
+
+    // First application frame; else the first frame below the JDK's own parking code
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        String fallback = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APP_PACKAGE)) {
+                return frameName(frame);
+            }
+            if (fallback == null && !type.startsWith("java.") && !type.startsWith("jdk.")
+                    && !type.startsWith("sun.")) {
+                fallback = frameName(frame);
+            }
+        }
+        return fallback != null ? fallback : frameName(stackTrace.getFrames().get(0));
+    }
+
+    private static String stack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder stack = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(frames.size(), MAX_STACK_FRAMES); i++) {
+            RecordedFrame frame = frames.get(i);
+            stack.append("\tat ").append(frameName(frame));
+            if (frame.getLineNumber() > 0) {
+                stack.append(':').append(frame.getLineNumber());
+            }
+            stack.append('\n');
+        }
+        if (frames.size() > MAX_STACK_FRAMES || stackTrace.isTruncated()) {
+            stack.append("\t...\n");
+        }
+        return stack.toString();
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethod().getName();
+    }
+}
@@ -1,24 +1,29 @@
 package com.ems.backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.MultipartConfigElement;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+
     @Value("${FRONTEND_URL:http://localhost:5173}")
     private String frontendUrl;
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serve uploaded files from the 'uploads' directory
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
-    }
-
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -29,4 +34,30 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    // Replaces Boot's default JSON converter; uses the same auto-configured ObjectMapper
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonConverter(objectMapper);
+    }
+
+    // Multipart limits are per servlet, so the bulk screening endpoint gets its own
+    // DispatcherServlet (same context and handlers) with a larger limit while every
+    // other upload keeps spring.servlet.multipart.*
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> batchUploadServlet(WebApplicationContext context,
+            @Value("${ats.batch.max-upload-size:512MB}") DataSize maxUploadSize) {
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(context), "/api/ats/batch");
+        registration.setName("batchUploadServlet");
+        registration.setAsyncSupported(true); // NDJSON results are streamed
+        registration.setMultipartConfig(new MultipartConfigElement("",
+                maxUploadSize.toBytes(), maxUploadSize.toBytes(), 0));
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryBudgetInterceptor).addPathPatterns("/api/**");
+    }
 }
@@ -1,13 +1,18 @@
 package com.ems.backend.controller;
 
+import com.ems.backend.config.QueryBudget;
 import com.ems.backend.model.Attendance;
 import com.ems.backend.model.AttendanceStatus;
+import com.ems.backend.service.AttendanceArchiveService;
+import com.ems.backend.service.AttendanceDayCloseService;
 import com.ems.backend.service.AttendanceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +22,8 @@ import java.util.Map;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final AttendanceArchiveService attendanceArchiveService;
+    private final AttendanceDayCloseService attendanceDayCloseService;
 
     // Get Attendance for Month (Filter by Dept if needed)
     @GetMapping
@@ -31,6 +38,8 @@ public class AttendanceController {
     // Initialize Attendance for Month (Auto-create)
     @PostMapping("/init")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    // One insert per day of the month, plus the archive check
+    @QueryBudget(statements = 35, wallMs = 10000)
     public ResponseEntity<String> initializeMonth(
             @RequestParam int month,
             @RequestParam int year) {
@@ -54,10 +63,35 @@ public class AttendanceController {
     // Finalize Month
     @PostMapping("/finalize")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @QueryBudget(statements = 5, wallMs = 5000)
     public ResponseEntity<String> finalizeMonth(
             @RequestParam int month,
             @RequestParam int year) {
         attendanceService.finalizeMonth(month, year);
         return ResponseEntity.ok("Attendance finalized for " + month + "/" + year);
     }
+
+    // Derive a day's attendance from punches now (again), e.g. after late device uploads
+    @PostMapping("/day-close")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    // The punches and rows themselves go through JdbcTemplate in batches
+    @QueryBudget(statements = 5, wallMs = 30000)
+    public ResponseEntity<Map<String, Object>> closeDay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(attendanceDayCloseService.closeDay(date));
+    }
+
+    // Admin: archive finalized, paid months now instead of waiting for the
+    // nightly run; the move continues in the background
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> archive() {
+        return ResponseEntity.accepted().body(attendanceArchiveService.start());
+    }
+
+    @GetMapping("/archive")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    public ResponseEntity<Map<String, Object>> getArchiveStatus() {
+        return ResponseEntity.ok(attendanceArchiveService.getStatus());
+    }
 }
@@ -1,12 +1,15 @@
 package com.ems.backend.controller;
 
-import com.ems.backend.model.Attendance;
+import com.ems.backend.config.QueryBudget;
 import com.ems.backend.model.AttendanceStatus;
 import com.ems.backend.model.User;
-import com.ems.backend.repository.AttendanceRepository;
 import com.ems.backend.repository.UserRepository;
+import com.ems.backend.service.AttendanceArchiveService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,76 +17,99 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.sql.Date;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Random;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/seed")
 @RequiredArgsConstructor
 public class DataSeederController {
 
-    private final AttendanceRepository attendanceRepository;
+    private static final String UPDATE_SQL = "UPDATE attendance SET status = ?, remarks = ? WHERE id = ?";
+    private static final String INSERT_SQL = "INSERT INTO attendance (employee_id, date, status, remarks, finalized) "
+            + "VALUES (?, ?, ?, ?, false)";
+
+    private final JdbcTemplate jdbcTemplate;
     private final UserRepository userRepository;
+    private final AttendanceArchiveService attendanceArchiveService;
     private final Random random = new Random();
 
     @PostMapping("/attendance")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
     @Transactional
+    @QueryBudget(statements = 5, wallMs = 10000)
     public ResponseEntity<String> seedAttendance(@RequestParam int month, @RequestParam int year) {
+        if (attendanceArchiveService.locate(YearMonth.of(year, month)) != AttendanceArchiveService.Location.LIVE) {
+            return ResponseEntity.badRequest().body("Attendance for " + month + "/" + year + " is archived");
+        }
         try {
             List<User> users = userRepository.findAll();
             YearMonth yearMonth = YearMonth.of(year, month);
             int daysInMonth = yearMonth.lengthOfMonth();
 
+            // Existing rows of the month in one read, keyed by employee and day; the id,
+            // or null when the row is finalized and must be left alone
+            Map<Long, Map<LocalDate, Long>> existing = new HashMap<>();
+            jdbcTemplate.query("SELECT id, employee_id, date, finalized FROM attendance WHERE date BETWEEN ? AND ?",
+                    (RowCallbackHandler) row -> existing.computeIfAbsent(row.getLong(2), id -> new HashMap<>())
+                            .put(row.getDate(3).toLocalDate(), row.getBoolean(4) ? null : row.getLong(1)),
+                    Date.valueOf(yearMonth.atDay(1)), Date.valueOf(yearMonth.atEndOfMonth()));
+
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
             for (User user : users) {
                 // Skip inactive users if needed
                 if (!user.isActive())
                     continue;
 
+                Map<LocalDate, Long> rows = existing.getOrDefault(user.getId(), Map.of());
                 for (int day = 1; day <= daysInMonth; day++) {
                     LocalDate date = LocalDate.of(year, month, day);
-
-                    // Check if record exists
-                    Optional<Attendance> existing = attendanceRepository.findByEmployeeAndDate(user, date);
-
-                    if (existing.isPresent() && existing.get().isFinalized()) {
+                    if (rows.containsKey(date) && rows.get(date) == null) {
                         continue; // Skip finalized records
                     }
 
-                    Attendance attendance = existing
-                            .orElse(Attendance.builder().employee(user).date(date).finalized(false).build());
-
+                    AttendanceStatus status;
+                    String remarks;
                     DayOfWeek dayOfWeek = date.getDayOfWeek();
                     if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
-                        attendance.setStatus(AttendanceStatus.PRESENT);
-                        attendance.setRemarks("Weekend");
+                        status = AttendanceStatus.PRESENT;
+                        remarks = "Weekend";
                     } else {
                         int chance = random.nextInt(100);
-                        if (chance < 80) {
-                            attendance.setStatus(AttendanceStatus.PRESENT);
-                            attendance.setRemarks(null);
+                        if (chance < 80 || chance >= 95) {
+                            status = AttendanceStatus.PRESENT;
+                            remarks = null;
                         } else if (chance < 85) {
-                            attendance.setStatus(AttendanceStatus.HALF_DAY);
-                            attendance.setRemarks("Half Day");
-                        } else if (chance < 95) {
-                            attendance.setStatus(AttendanceStatus.ABSENT);
-                            attendance.setRemarks("Uninformed Absence");
+                            status = AttendanceStatus.HALF_DAY;
+                            remarks = "Half Day";
                         } else {
-                            attendance.setStatus(AttendanceStatus.PRESENT);
+                            status = AttendanceStatus.ABSENT;
+                            remarks = "Uninformed Absence";
                         }
                     }
 
-                    attendanceRepository.save(attendance);
+                    if (rows.containsKey(date)) {
+                        updates.add(new Object[] { status.name(), remarks, rows.get(date) });
+                    } else {
+                        inserts.add(new Object[] { user.getId(), Date.valueOf(date), status.name(), remarks });
+                    }
                 }
             }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
             return ResponseEntity.ok("Seeded attendance for " + users.size() + " users for " + month + "/" + year);
 
         } catch (Exception e) {
-            e.printStackTrace(); // Log to server console
+            log.error("Seeding attendance for {}/{} failed", month, year, e);
             return ResponseEntity.internalServerError().body("Error seeding data: " + e.getMessage());
         }
     }
@@ -0,0 +1,35 @@
+package com.ems.backend.controller;
+
+import com.ems.backend.config.ReplicaRoutingDataSource;
+import com.ems.backend.config.SqlStatementListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/db")
+@RequiredArgsConstructor
+public class DatabaseStatsController {
+
+    private final SqlStatementListener sqlStatementListener;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    // Statement latency per repository method (secured to ADMIN by the /api/admin/** rule)
+    @GetMapping("/queries")
+    public ResponseEntity<List<Map<String, Object>>> getQueryStats() {
+        return ResponseEntity.ok(sqlStatementListener.getSummaries());
+    }
+
+    // Replica lag and where connections went (db.replica.enabled)
+    @GetMapping("/replica")
+    public ResponseEntity<Map<String, Object>> getReplicaStatus() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        return ResponseEntity.ok(routing == null ? Map.of("enabled", false) : routing.getStatus());
+    }
+}
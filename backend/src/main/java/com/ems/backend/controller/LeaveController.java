@@ -1,15 +1,20 @@
 package com.ems.backend.controller;
 
+import com.ems.backend.config.QueryBudget;
+import com.ems.backend.model.LeaveAccrualRun;
 import com.ems.backend.model.LeaveRequest;
 import com.ems.backend.model.LeaveStatus;
 import com.ems.backend.model.User;
+import com.ems.backend.service.LeaveAccrualService;
 import com.ems.backend.service.LeaveService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -18,6 +23,7 @@ import java.util.List;
 public class LeaveController {
 
     private final LeaveService leaveService;
+    private final LeaveAccrualService leaveAccrualService;
     private final com.ems.backend.repository.UserRepository userRepository; // Direct repo access to get ID from
                                                                             // UserDetails
 
@@ -50,4 +56,13 @@ public class LeaveController {
     public ResponseEntity<LeaveRequest> updateStatus(@PathVariable Long id, @RequestParam LeaveStatus status) {
         return ResponseEntity.ok(leaveService.updateLeaveStatus(id, status));
     }
+
+    // Admin: Run (or resume) monthly accrual manually; periods after the current month get 400
+    @PostMapping("/accrual")
+    @PreAuthorize("hasRole('ADMIN')")
+    // Three statements per chunk of leave.accrual.chunk-size users: 30 chunks fit
+    @QueryBudget(statements = 100, wallMs = 60000)
+    public ResponseEntity<LeaveAccrualRun> runAccrual(@RequestParam int month, @RequestParam int year) {
+        return ResponseEntity.ok(leaveAccrualService.runAccrual(YearMonth.of(year, month)));
+    }
 }
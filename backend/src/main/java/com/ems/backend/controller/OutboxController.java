@@ -0,0 +1,27 @@
+package com.ems.backend.controller;
+
+import com.ems.backend.service.OutboxDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/outbox")
+@RequiredArgsConstructor
+public class OutboxController {
+
+    private final OutboxDispatcher outboxDispatcher;
+
+    // Dispatch lag for monitoring (secured to ADMIN by the /api/admin/** rule)
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getStats() {
+        return ResponseEntity.ok(Map.of(
+                "pending", outboxDispatcher.getPendingCount(),
+                "dead", outboxDispatcher.getDeadCount(),
+                "lagSeconds", outboxDispatcher.getLag().toSeconds()));
+    }
+}
@@ -1,8 +1,13 @@
 package com.ems.backend.controller;
 
+import com.ems.backend.config.QueryBudget;
+import com.ems.backend.dto.PayrollSummaryDTO;
 import com.ems.backend.model.Payroll;
+import com.ems.backend.model.PayrollStatus;
 import com.ems.backend.service.PayrollService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -10,7 +15,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/payroll")
 @RequiredArgsConstructor
@@ -18,13 +25,25 @@ public class PayrollController {
 
     private final PayrollService payrollService;
 
-    // Get Payroll for Month (Admin/HR)
+    // Get Payroll for Month (Admin/HR), paged and optionally filtered by status
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
-    public ResponseEntity<List<Payroll>> getPayroll(
+    public ResponseEntity<Page<PayrollSummaryDTO>> getPayroll(
+            @RequestParam int month,
+            @RequestParam int year,
+            @RequestParam(required = false) PayrollStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(payrollService.getPayroll(month, year, status, page, size));
+    }
+
+    // Whether the month has any payroll and any unpaid rows, independent of the listing filter
+    @GetMapping("/state")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    public ResponseEntity<Map<String, Boolean>> getPayrollState(
             @RequestParam int month,
             @RequestParam int year) {
-        return ResponseEntity.ok(payrollService.getPayroll(month, year));
+        return ResponseEntity.ok(payrollService.getPayrollState(month, year));
     }
 
     // Get My Payroll (Employee)
@@ -38,6 +57,8 @@ public class PayrollController {
     // Generate Payroll
     @PostMapping("/generate")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    // Checks, employees and one read of the month; the rows are written as one batch
+    @QueryBudget(statements = 10, wallMs = 10000)
     public ResponseEntity<String> generatePayroll(
             @RequestParam int month,
             @RequestParam int year) {
@@ -54,6 +75,8 @@ public class PayrollController {
     // Process Payroll (Simulate Bank Transfer)
     @PostMapping("/process")
     @PreAuthorize("hasRole('HR')")
+    // Includes the simulated two-second bank call
+    @QueryBudget(statements = 5, wallMs = 5000)
     public ResponseEntity<String> processPayroll(
             @RequestParam int month,
             @RequestParam int year) {
@@ -72,7 +95,7 @@ public class PayrollController {
                     .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
                     .body(pdfBytes);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Payslip generation failed for payroll {}", id, e);
             return ResponseEntity.status(500).build();
         }
     }
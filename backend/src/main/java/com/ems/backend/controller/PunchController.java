@@ -0,0 +1,39 @@
+package com.ems.backend.controller;
+
+import com.ems.backend.dto.PunchDTO;
+import com.ems.backend.service.PunchIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/punches")
+@RequiredArgsConstructor
+public class PunchController {
+
+    private final PunchIngestionService punchIngestionService;
+
+    // Device gateways post punches in batches. 202 once buffered (not yet written,
+    // see PunchIngestionService); 503 with Retry-After when the buffer is full, and
+    // the caller resends from index "accepted"
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    public ResponseEntity<Map<String, Object>> ingest(@RequestBody List<PunchDTO> punches) {
+        Map<String, Object> result = punchIngestionService.ingest(punches);
+        if ((int) result.get("rejected") > 0) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(result);
+        }
+        return ResponseEntity.accepted().body(result);
+    }
+
+    @GetMapping("/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(punchIngestionService.getStatus());
+    }
+}
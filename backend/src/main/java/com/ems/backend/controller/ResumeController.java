@@ -1,13 +1,25 @@
 package com.ems.backend.controller;
 
+import com.ems.backend.config.QueryBudget;
 import com.ems.backend.dto.AnalysisResultDTO;
+import com.ems.backend.dto.AtsJobDTO;
+import com.ems.backend.dto.CandidateDTO;
+import com.ems.backend.service.AtsJobService;
+import com.ems.backend.service.BatchScreeningService;
+import com.ems.backend.service.CandidateIndexService;
 import com.ems.backend.service.ResumeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ats")
@@ -15,11 +27,89 @@ import java.io.IOException;
 public class ResumeController {
 
     private final ResumeService resumeService;
+    private final AtsJobService atsJobService;
+    private final BatchScreeningService batchScreeningService;
+    private final CandidateIndexService candidateIndexService;
 
     @PostMapping(value = "/analyze", consumes = "multipart/form-data")
+    // The wall budget covers the LLM deadline
+    @QueryBudget(statements = 10, wallMs = 50000)
     public ResponseEntity<AnalysisResultDTO> analyzeResume(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "role", defaultValue = "Software Engineer") String role) throws IOException {
         return ResponseEntity.ok(resumeService.analyzeResume(file, role));
     }
+
+    // Async: returns a job id immediately, poll GET /jobs/{id} for the result.
+    // 503 + Retry-After while the job queue is full
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @PostMapping(value = "/jobs", consumes = "multipart/form-data")
+    public ResponseEntity<AtsJobDTO> submitAnalysis(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "role", defaultValue = "Software Engineer") String role) throws IOException {
+        return atsJobService.submit(file, role)
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", "5")
+                        .build());
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<AtsJobDTO> getJob(@PathVariable String id) {
+        return atsJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Bulk screening: PDFs and/or ZIPs of PDFs, results streamed as NDJSON.
+    // The X-Batch-Id header can be used with DELETE /batch/{id} to cancel.
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @PostMapping(value = "/batch", consumes = "multipart/form-data")
+    public ResponseEntity<StreamingResponseBody> screenBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "role", defaultValue = "Software Engineer") String role) throws IOException {
+        BatchScreeningService.Batch batch = batchScreeningService.prepare(files, role);
+        return ResponseEntity.ok()
+                .header("X-Batch-Id", batch.getId())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> batchScreeningService.stream(batch, out));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @DeleteMapping("/batch/{id}")
+    public ResponseEntity<Void> cancelBatch(@PathVariable String id) {
+        return batchScreeningService.cancel(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(resumeService.getCacheStats());
+    }
+
+    // Search analyzed candidates, e.g. ?q=kafka spring boot -php&mode=all&minScore=60
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @GetMapping("/candidates")
+    public ResponseEntity<List<CandidateDTO>> searchCandidates(
+            @RequestParam("q") String query,
+            @RequestParam(value = "mode", defaultValue = "all") String mode,
+            @RequestParam(value = "role", required = false) String role,
+            @RequestParam(value = "minScore", required = false) Integer minScore,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and 100");
+        }
+        return ResponseEntity.ok(candidateIndexService.search(query, !"any".equalsIgnoreCase(mode), role,
+                minScore, page, size));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR')")
+    @GetMapping("/llm/stats")
+    public ResponseEntity<Map<String, Object>> getLlmStats() {
+        return ResponseEntity.ok(resumeService.getLlmStats());
+    }
 }
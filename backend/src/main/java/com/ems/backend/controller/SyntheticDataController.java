@@ -0,0 +1,42 @@
+package com.ems.backend.controller;
+
+import com.ems.backend.service.SyntheticDataGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Only registered with generator.enabled=true, like the generator itself
+@RestController
+@RequestMapping("/api/seed/synthetic")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "generator.enabled", havingValue = "true")
+public class SyntheticDataController {
+
+    private final SyntheticDataGenerator syntheticDataGenerator;
+
+    // Admin: bulk synthetic employees with leaves, attendance and payroll for
+    // performance testing. Runs in the background; poll GET for progress.
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> generateSynthetic(
+            @RequestParam int employees,
+            @RequestParam(defaultValue = "3") int years,
+            @RequestParam(defaultValue = "42") long seed) {
+        return ResponseEntity.accepted()
+                .body(syntheticDataGenerator.start(new SyntheticDataGenerator.Spec(employees, years, seed)));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSyntheticStatus() {
+        return ResponseEntity.ok(syntheticDataGenerator.getStatus());
+    }
+}
@@ -0,0 +1,25 @@
+package com.ems.backend.controller;
+
+import com.ems.backend.config.VirtualThreadPinningMonitor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/threads")
+@RequiredArgsConstructor
+public class ThreadStatsController {
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    // Carrier-thread pinning per site (secured to ADMIN by the /api/admin/** rule)
+    @GetMapping("/pinning")
+    public ResponseEntity<List<Map<String, Object>>> getPinning() {
+        return ResponseEntity.ok(pinningMonitor.getSummaries());
+    }
+}
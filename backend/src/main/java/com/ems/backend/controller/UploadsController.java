@@ -0,0 +1,29 @@
+package com.ems.backend.controller;
+
+import com.ems.backend.service.UploadServingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Public (see SecurityConfig): <img> tags cannot send the JWT, and every stored name is unguessable
+@Controller
+@RequiredArgsConstructor
+public class UploadsController {
+
+    private static final String PREFIX = "/uploads/";
+
+    private final UploadServingService uploadServingService;
+
+    // GET mappings also answer HEAD
+    @GetMapping(PREFIX + "**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length() + PREFIX.length());
+        uploadServingService.serve(UriUtils.decode(path, StandardCharsets.UTF_8), request, response);
+    }
+}
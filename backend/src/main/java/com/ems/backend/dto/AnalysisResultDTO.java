@@ -1,15 +1,23 @@
 package com.ems.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class AnalysisResultDTO {
     private int score;
     private List<String> missingKeywords;
     private String summary;
     private String candidateName; // Extracted potentially
     private String recommendation; // Hire, Interview, Reject
+
+    @JsonIgnore
+    private boolean degraded; // Local fallback or partial text, never cached
 }
@@ -0,0 +1,26 @@
+package com.ems.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+public class AtsJobDTO {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private Status status;
+    private String role;
+    private AnalysisResultDTO result; // Set once COMPLETED
+    private String error; // Set once FAILED
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
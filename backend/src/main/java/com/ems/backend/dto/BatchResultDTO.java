@@ -0,0 +1,26 @@
+package com.ems.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One NDJSON line of a bulk screening response
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchResultDTO {
+    private String fileName;
+    private int rank; // Position among resumes scored so far
+    private int completed;
+    private int total;
+    private AnalysisResultDTO result;
+    private String error;
+
+    @JsonIgnore
+    public int getScoreOrZero() {
+        return result == null ? 0 : result.getScore();
+    }
+}
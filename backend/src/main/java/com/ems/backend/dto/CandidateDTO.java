@@ -0,0 +1,26 @@
+package com.ems.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CandidateDTO {
+    private Long id;
+    private String fileName;
+    private String candidateName;
+    private String role;
+    private int score;
+    private String recommendation;
+    private String summary;
+    private LocalDateTime analyzedAt;
+    private double relevance; // BM25 relevance to the search query
+    private List<String> matchedTerms;
+}
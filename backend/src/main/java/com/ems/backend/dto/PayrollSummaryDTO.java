@@ -0,0 +1,32 @@
+package com.ems.backend.dto;
+
+import com.ems.backend.model.PayrollStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Row of the payroll listing: exactly the columns the Payroll page shows,
+// built by a JPQL constructor expression (see PayrollRepository.findSummaries)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollSummaryDTO {
+    private Long id;
+    private Long employeeId;
+    private String employeeName;
+    private String department;
+    private Integer month;
+    private Integer year;
+    private BigDecimal baseSalary;
+    private Integer payableDays;
+    private BigDecimal deductionAmount;
+    private BigDecimal netSalary;
+    private PayrollStatus status;
+    private LocalDateTime generatedAt;
+    private LocalDateTime paymentDate;
+}
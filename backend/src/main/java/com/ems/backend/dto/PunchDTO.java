@@ -0,0 +1,19 @@
+package com.ems.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PunchDTO {
+    private Long employeeId;
+    private String direction; // IN or OUT
+    private LocalDateTime punchedAt; // Device clock
+    private String deviceId;
+}
@@ -3,8 +3,10 @@ package com.ems.backend.exception;
 import com.ems.backend.dto.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -22,4 +24,19 @@ public class GlobalExceptionHandler {
                 new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage()),
                 HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex) {
+        return new ResponseEntity<>(
+                new ErrorResponse(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Upload too large"),
+                HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    // @PreAuthorize failures surface here before Spring Security can answer them
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDeniedException(AccessDeniedException ex) {
+        return new ResponseEntity<>(
+                new ErrorResponse(HttpStatus.FORBIDDEN.value(), "Access denied"),
+                HttpStatus.FORBIDDEN);
+    }
 }
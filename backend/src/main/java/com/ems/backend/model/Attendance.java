@@ -10,6 +10,8 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "attendance", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "employee_id", "date" })
+}, indexes = {
+        @Index(name = "idx_attendance_date", columnList = "date")
 })
 @Data
 @Builder
@@ -21,8 +23,9 @@ public class Attendance {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
+    @com.fasterxml.jackson.annotation.JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
     private User employee;
 
     @Column(nullable = false)
@@ -32,8 +35,9 @@ public class Attendance {
     @Column(nullable = false)
     private AttendanceStatus status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "leave_request_id")
+    @com.fasterxml.jackson.annotation.JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
     private LeaveRequest leaveRequest;
 
     private String remarks;
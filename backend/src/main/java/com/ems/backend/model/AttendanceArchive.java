@@ -0,0 +1,57 @@
+package com.ems.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Attendance of archived months (see AttendanceArchiveService). Rows keep the id
+// they had in attendance and drop the finalized flag: only finalized, paid
+// months are moved here and nothing updates them afterwards.
+@Entity
+@Table(name = "attendance_archive", indexes = {
+        @Index(name = "idx_attendance_archive_date", columnList = "date"),
+        @Index(name = "idx_attendance_archive_employee_date", columnList = "employee_id, date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceArchive {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private User employee;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AttendanceStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "leave_request_id")
+    private LeaveRequest leaveRequest;
+
+    private String remarks;
+
+    // Same shape as a live row, so callers and the API see no difference
+    public Attendance toAttendance() {
+        return Attendance.builder()
+                .id(id)
+                .employee(employee)
+                .date(date)
+                .status(status)
+                .leaveRequest(leaveRequest)
+                .remarks(remarks)
+                .finalized(true)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ems.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// One row per archived month. While completed is false the month's rows are
+// being moved and live in both tables; once true they are all in
+// attendance_archive. Reads of the month are routed on this row.
+@Entity
+@Table(name = "attendance_archive_runs", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "period" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceArchiveRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String period; // yyyy-MM
+
+    @Builder.Default
+    @Column(name = "rows_moved", nullable = false)
+    private Long rowsMoved = 0L;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @CreationTimestamp
+    @Column(name = "started_at", updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,37 @@
+package com.ems.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Persisted tier of the ATS analysis cache, keyed by file hash and normalized role
+@Entity
+@Table(name = "resume_analysis_cache", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "file_hash", "role" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedAnalysis {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    @Column(nullable = false)
+    private String role;
+
+    @Column(name = "result_json", nullable = false, columnDefinition = "TEXT")
+    private String resultJson;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,56 @@
+package com.ems.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// An analyzed resume, one row per (file, normalized role); searchable through candidate_terms
+@Entity
+@Table(name = "candidates", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "file_hash", "role" })
+}, indexes = {
+        @Index(name = "idx_candidates_role_score", columnList = "role, score")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Candidate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "candidate_name")
+    private String candidateName;
+
+    @Column(nullable = false)
+    private String role;
+
+    private int score;
+
+    private String recommendation;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "resume_text", columnDefinition = "MEDIUMTEXT")
+    private String resumeText;
+
+    // Word count, used for BM25 length normalization at query time
+    @Column(name = "doc_length", nullable = false)
+    private int docLength;
+
+    @Column(name = "analyzed_at", nullable = false)
+    private LocalDateTime analyzedAt;
+}
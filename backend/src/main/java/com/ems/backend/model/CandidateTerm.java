@@ -0,0 +1,42 @@
+package com.ems.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Inverted index posting: the primary key (term, candidate_id) keeps each term's
+// postings contiguous, so a lookup is a single index range scan.
+// Rows are written in JDBC batches by CandidateIndexService.
+@Entity
+@Table(name = "candidate_terms", indexes = {
+        @Index(name = "idx_candidate_terms_candidate", columnList = "candidate_id")
+})
+@IdClass(CandidateTerm.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateTerm {
+
+    @Id
+    @Column(length = 64)
+    private String term;
+
+    @Id
+    @Column(name = "candidate_id")
+    private Long candidateId;
+
+    // Term frequency in the resume
+    @Column(nullable = false)
+    private int tf;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String term;
+        private Long candidateId;
+    }
+}
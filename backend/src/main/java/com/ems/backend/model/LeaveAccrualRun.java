@@ -0,0 +1,51 @@
+package com.ems.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Checkpoint for a monthly accrual run. lastUserId advances with every credited
+// chunk, so a crashed run resumes after the last committed user.
+@Entity
+@Table(name = "leave_accrual_runs", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "period" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveAccrualRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String period; // yyyy-MM
+
+    @Column(name = "credit_days", nullable = false)
+    private Integer creditDays;
+
+    @Builder.Default
+    @Column(name = "last_user_id", nullable = false)
+    private Long lastUserId = 0L;
+
+    @Builder.Default
+    @Column(name = "users_credited", nullable = false)
+    private Long usersCredited = 0L;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @CreationTimestamp
+    @Column(name = "started_at", updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,5 @@
+package com.ems.backend.model;
+
+public enum OutboxEventType {
+    LEAVE_DECIDED
+}
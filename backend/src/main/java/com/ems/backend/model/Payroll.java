@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "payroll", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "employee_id", "month", "year" })
+}, indexes = {
+        @Index(name = "idx_payroll_period_status", columnList = "year, month, status")
 })
 @Data
 @Builder
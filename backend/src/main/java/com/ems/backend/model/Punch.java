@@ -0,0 +1,46 @@
+package com.ems.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A raw clock-in / clock-out from a badge or biometric device. Rows are only
+// ever inserted, in bulk by PunchIngestionService; AttendanceDayCloseService
+// turns a day of them into attendance. employee_id is a plain column so a
+// batch insert never waits on a foreign-key lookup.
+@Entity
+@Table(name = "punches", indexes = {
+        @Index(name = "idx_punches_punched_at", columnList = "punched_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Punch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    // Device clock
+    @Column(name = "punched_at", nullable = false)
+    private LocalDateTime punchedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 3)
+    private PunchDirection direction;
+
+    @Column(name = "device_id", length = 64)
+    private String deviceId;
+
+    // Server clock, when the punch entered the buffer
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+}
@@ -0,0 +1,6 @@
+package com.ems.backend.model;
+
+public enum PunchDirection {
+    IN,
+    OUT
+}
@@ -33,8 +33,9 @@ public class User {
     @Column(unique = true)
     private String email;
 
+    // Accepted on create/update, never serialized
     @NotBlank(message = "Password is required")
-    @com.fasterxml.jackson.annotation.JsonIgnore
+    @com.fasterxml.jackson.annotation.JsonProperty(access = com.fasterxml.jackson.annotation.JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     private String department;
@@ -0,0 +1,32 @@
+package com.ems.backend.repository;
+
+import com.ems.backend.model.AttendanceArchive;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AttendanceArchiveRepository extends JpaRepository<AttendanceArchive, Long> {
+
+    // Same fetch plans as the AttendanceRepository reads they stand in for
+    @EntityGraph(attributePaths = { "employee", "leaveRequest", "leaveRequest.user" })
+    @Query("SELECT a FROM AttendanceArchive a WHERE a.date BETWEEN :startDate AND :endDate")
+    List<AttendanceArchive> findByDateRange(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Same sums as AttendanceRepository.sumPayableDays
+    @Query("SELECT a.employee.id, SUM(CASE "
+            + "WHEN a.status = com.ems.backend.model.AttendanceStatus.PRESENT THEN 1.0 "
+            + "WHEN a.status = com.ems.backend.model.AttendanceStatus.HALF_DAY THEN 0.5 "
+            + "WHEN a.status = com.ems.backend.model.AttendanceStatus.LEAVE "
+            + "AND (l.leaveType IS NULL OR l.leaveType <> com.ems.backend.model.LeaveType.UNPAID_LEAVE) THEN 1.0 "
+            + "ELSE 0.0 END) "
+            + "FROM AttendanceArchive a LEFT JOIN a.leaveRequest l "
+            + "WHERE a.date BETWEEN :startDate AND :endDate AND a.employee.id BETWEEN :fromId AND :toId "
+            + "GROUP BY a.employee.id")
+    List<Object[]> sumPayableDays(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+            @Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,30 @@
+package com.ems.backend.repository;
+
+import com.ems.backend.model.AttendanceArchiveRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AttendanceArchiveRunRepository extends JpaRepository<AttendanceArchiveRun, Long> {
+
+    Optional<AttendanceArchiveRun> findByPeriod(String period);
+
+    List<AttendanceArchiveRun> findByPeriodIn(Collection<String> periods);
+
+    List<AttendanceArchiveRun> findAllByOrderByPeriodDesc();
+
+    List<AttendanceArchiveRun> findByCompletedFalseOrderByPeriod();
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AttendanceArchiveRun r SET r.rowsMoved = r.rowsMoved + :count WHERE r.id = :id")
+    int addRowsMoved(@Param("id") Long id, @Param("count") long count);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AttendanceArchiveRun r SET r.completed = true, r.completedAt = CURRENT_TIMESTAMP WHERE r.id = :id")
+    int markCompleted(@Param("id") Long id);
+}
@@ -1,8 +1,10 @@
 package com.ems.backend.repository;
 
 import com.ems.backend.model.Attendance;
-import com.ems.backend.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,7 +14,10 @@ import java.util.Optional;
 
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
-    Optional<Attendance> findByEmployeeAndDate(User employee, LocalDate date);
+    // Responses serialize the employee and the linked leave (with its user)
+    @Override
+    @EntityGraph(attributePaths = { "employee", "leaveRequest", "leaveRequest.user" })
+    Optional<Attendance> findById(Long id);
 
     @Query("SELECT a FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate ORDER BY a.date ASC")
     List<Attendance> findAllByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
@@ -21,10 +26,82 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     List<Attendance> findByEmployeeAndDateRange(@Param("employeeId") Long employeeId,
             @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT a FROM Attendance a WHERE YEAR(a.date) = :year AND MONTH(a.date) = :month")
-    List<Attendance> findByMonthAndYear(@Param("month") int month, @Param("year") int year);
+    // Month reads are date ranges so they can use idx_attendance_date
+    @EntityGraph(attributePaths = { "employee", "leaveRequest", "leaveRequest.user" })
+    @Query("SELECT a FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate")
+    List<Attendance> findWithDetailsByDateRange(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
 
     // Check if finalized for month
-    @Query("SELECT COUNT(a) > 0 FROM Attendance a WHERE YEAR(a.date) = :year AND MONTH(a.date) = :month AND a.finalized = true")
-    boolean isMonthFinalized(@Param("month") int month, @Param("year") int year);
+    // Payable days per employee for a range of employee ids: present 1, half day
+    // 0.5, leave 1 unless unpaid, absent 0. Rows are [employeeId, days].
+    @Query("SELECT a.employee.id, SUM(CASE "
+            + "WHEN a.status = com.ems.backend.model.AttendanceStatus.PRESENT THEN 1.0 "
+            + "WHEN a.status = com.ems.backend.model.AttendanceStatus.HALF_DAY THEN 0.5 "
+            + "WHEN a.status = com.ems.backend.model.AttendanceStatus.LEAVE "
+            + "AND (l.leaveType IS NULL OR l.leaveType <> com.ems.backend.model.LeaveType.UNPAID_LEAVE) THEN 1.0 "
+            + "ELSE 0.0 END) "
+            + "FROM Attendance a LEFT JOIN a.leaveRequest l "
+            + "WHERE a.date BETWEEN :startDate AND :endDate AND a.employee.id BETWEEN :fromId AND :toId "
+            + "GROUP BY a.employee.id")
+    List<Object[]> sumPayableDays(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+            @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // The same sums while a month is being archived, over both tables in one
+    // statement so a row moved in between is neither missed nor counted twice
+    // (UNION drops the second copy: ids and values survive the move)
+    @Query(value = "SELECT a.employee_id, SUM(CASE "
+            + "WHEN a.status = 'PRESENT' THEN 1.0 "
+            + "WHEN a.status = 'HALF_DAY' THEN 0.5 "
+            + "WHEN a.status = 'LEAVE' AND (l.leave_type IS NULL OR l.leave_type <> 'UNPAID_LEAVE') THEN 1.0 "
+            + "ELSE 0.0 END) "
+            + "FROM (SELECT id, employee_id, status, leave_request_id FROM attendance "
+            + "WHERE date BETWEEN :startDate AND :endDate AND employee_id BETWEEN :fromId AND :toId "
+            + "UNION SELECT id, employee_id, status, leave_request_id FROM attendance_archive "
+            + "WHERE date BETWEEN :startDate AND :endDate AND employee_id BETWEEN :fromId AND :toId) a "
+            + "LEFT JOIN leave_requests l ON l.id = a.leave_request_id "
+            + "GROUP BY a.employee_id", nativeQuery = true)
+    List<Object[]> sumPayableDaysWithArchive(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate, @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT COUNT(a) > 0 FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate AND a.finalized = true")
+    boolean existsFinalizedByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COUNT(a) > 0 FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate AND a.finalized = false")
+    boolean existsUnfinalizedByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Month initialisation: one statement per day creates the missing rows of every employee
+    @Modifying
+    @Query(value = "INSERT INTO attendance (employee_id, date, status, remarks, finalized) "
+            + "SELECT u.id, :date, 'ABSENT', 'Auto-generated', false FROM users u WHERE u.role = 'EMPLOYEE' "
+            + "AND NOT EXISTS (SELECT 1 FROM attendance a WHERE a.employee_id = u.id AND a.date = :date)",
+            nativeQuery = true)
+    int insertMissingForDate(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query("UPDATE Attendance a SET a.finalized = true WHERE a.date BETWEEN :startDate AND :endDate "
+            + "AND a.finalized = false")
+    int finalizeByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT MIN(a.date) FROM Attendance a")
+    Optional<LocalDate> findEarliestDate();
+
+    // Archival (AttendanceArchiveService): the next chunk of a month, then the
+    // chunk copied and deleted by id bound in one transaction
+    @Query("SELECT a.id FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate ORDER BY a.id")
+    List<Long> findIdsByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+            Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance_archive (id, employee_id, date, status, leave_request_id, remarks) "
+            + "SELECT id, employee_id, date, status, leave_request_id, remarks FROM attendance "
+            + "WHERE date BETWEEN :startDate AND :endDate AND id <= :lastId", nativeQuery = true)
+    int copyToArchive(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+            @Param("lastId") Long lastId);
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance WHERE date BETWEEN :startDate AND :endDate AND id <= :lastId",
+            nativeQuery = true)
+    int deleteArchived(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+            @Param("lastId") Long lastId);
 }
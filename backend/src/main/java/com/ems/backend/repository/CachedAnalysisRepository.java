@@ -0,0 +1,11 @@
+package com.ems.backend.repository;
+
+import com.ems.backend.model.CachedAnalysis;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface CachedAnalysisRepository extends JpaRepository<CachedAnalysis, Long> {
+
+    Optional<CachedAnalysis> findByFileHashAndRole(String fileHash, String role);
+}
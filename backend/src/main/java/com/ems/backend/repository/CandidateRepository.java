@@ -0,0 +1,11 @@
+package com.ems.backend.repository;
+
+import com.ems.backend.model.Candidate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface CandidateRepository extends JpaRepository<Candidate, Long> {
+
+    Optional<Candidate> findByFileHashAndRole(String fileHash, String role);
+}
@@ -0,0 +1,29 @@
+package com.ems.backend.repository;
+
+import com.ems.backend.model.LeaveAccrualRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LeaveAccrualRunRepository extends JpaRepository<LeaveAccrualRun, Long> {
+
+    Optional<LeaveAccrualRun> findByPeriod(String period);
+
+    List<LeaveAccrualRun> findByCompletedFalseOrderByPeriod();
+
+    // Checkpoint only moves forward from the position the chunk was read at; a
+    // concurrent run for the same period gets 0 and rolls its credit back
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE LeaveAccrualRun r SET r.lastUserId = :lastUserId, r.usersCredited = r.usersCredited + :count "
+            + "WHERE r.id = :id AND r.lastUserId = :expected AND r.completed = false")
+    int advanceCheckpoint(@Param("id") Long id, @Param("expected") Long expected,
+            @Param("lastUserId") Long lastUserId, @Param("count") long count);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE LeaveAccrualRun r SET r.completed = true, r.completedAt = CURRENT_TIMESTAMP WHERE r.id = :id")
+    int markCompleted(@Param("id") Long id);
+}
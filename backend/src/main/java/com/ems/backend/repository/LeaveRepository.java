@@ -2,23 +2,44 @@ package com.ems.backend.repository;
 
 import com.ems.backend.model.LeaveRequest;
 import com.ems.backend.model.LeaveStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LeaveRepository extends JpaRepository<LeaveRequest, Long> {
 
+    // Listings serialize the user, so it is fetched in the same statement
+    @EntityGraph(attributePaths = "user")
     List<LeaveRequest> findByUserIdOrderByStartDateDesc(Long userId);
 
+    @EntityGraph(attributePaths = "user")
     List<LeaveRequest> findByStatusOrderByStartDateDesc(LeaveStatus status);
 
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT l FROM LeaveRequest l")
+    List<LeaveRequest> findAllWithUser(Sort sort);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT l FROM LeaveRequest l WHERE l.id = :id")
+    Optional<LeaveRequest> findWithUserById(@Param("id") Long id);
+
     long countByStatus(LeaveStatus status);
 
+    // Compare-and-set on status so the same request cannot be decided twice
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LeaveRequest l SET l.status = :status WHERE l.id = :id AND l.status = :expected")
+    int transitionStatus(@Param("id") Long id, @Param("expected") LeaveStatus expected,
+            @Param("status") LeaveStatus status);
+
     @Query("SELECT COUNT(l) FROM LeaveRequest l WHERE l.status = 'APPROVED' AND :today BETWEEN l.startDate AND l.endDate")
     long countApprovedLeavesForDate(@Param("today") LocalDate today);
 
@@ -0,0 +1,27 @@
+package com.ems.backend.repository;
+
+import com.ems.backend.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Retryable events that are due: a failed event waits out its backoff first
+    @Query("SELECT e FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.attempts < :maxAttempts "
+            + "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.id ASC")
+    List<OutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    // Pending and lag cover retryable events only; dead letters (out of attempts) are counted apart
+    long countByProcessedAtIsNullAndAttemptsLessThan(int maxAttempts);
+
+    long countByProcessedAtIsNullAndAttemptsGreaterThanEqual(int maxAttempts);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.attempts < :maxAttempts")
+    LocalDateTime findOldestPendingCreatedAt(@Param("maxAttempts") int maxAttempts);
+}
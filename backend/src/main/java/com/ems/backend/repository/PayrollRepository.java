@@ -1,8 +1,17 @@
 package com.ems.backend.repository;
 
+import com.ems.backend.dto.PayrollSummaryDTO;
 import com.ems.backend.model.Payroll;
+import com.ems.backend.model.PayrollStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +21,31 @@ public interface PayrollRepository extends JpaRepository<Payroll, Long> {
 
     List<Payroll> findByMonthAndYear(int month, int year);
 
+    // Payslips and the mark-paid response read the employee outside the transaction
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT p FROM Payroll p WHERE p.id = :id")
+    Optional<Payroll> findWithEmployeeById(@Param("id") Long id);
+
     boolean existsByMonthAndYear(int month, int year);
+
+    boolean existsByMonthAndYearAndStatusNot(int month, int year, PayrollStatus status);
+
+    // Disbursement marks the whole month in one statement; rows already paid keep their date
+    @Modifying
+    @Query("UPDATE Payroll p SET p.status = :status, p.paymentDate = :paidAt "
+            + "WHERE p.month = :month AND p.year = :year AND p.status <> :status")
+    int markPaid(@Param("month") int month, @Param("year") int year, @Param("status") PayrollStatus status,
+            @Param("paidAt") LocalDateTime paidAt);
+
+    // One statement per page: the employee is joined and only the listed columns are
+    // selected. The count query is skipped when the first page is not full.
+    @Query(value = "SELECT new com.ems.backend.dto.PayrollSummaryDTO(p.id, e.id, e.name, e.department, p.month, "
+            + "p.year, p.baseSalary, p.payableDays, p.deductionAmount, p.netSalary, p.status, p.generatedAt, "
+            + "p.paymentDate) FROM Payroll p JOIN p.employee e "
+            + "WHERE p.month = :month AND p.year = :year AND (:status IS NULL OR p.status = :status) "
+            + "ORDER BY e.name, p.id",
+            countQuery = "SELECT COUNT(p) FROM Payroll p "
+                    + "WHERE p.month = :month AND p.year = :year AND (:status IS NULL OR p.status = :status)")
+    Page<PayrollSummaryDTO> findSummaries(@Param("month") int month, @Param("year") int year,
+            @Param("status") PayrollStatus status, Pageable pageable);
 }
@@ -1,9 +1,13 @@
 package com.ems.backend.repository;
 
 import com.ems.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,4 +31,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u.department, COUNT(u) FROM User u WHERE u.isActive = true GROUP BY u.department")
     List<Object[]> countUsersByDepartment();
+
+    // Atomic conditional debit: returns 0 when the balance is insufficient, so
+    // concurrent approvals can never overspend without taking a row lock up front
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.leaveBalance = u.leaveBalance - :days WHERE u.id = :id AND u.leaveBalance >= :days")
+    int debitLeaveBalance(@Param("id") Long id, @Param("days") int days);
+
+    // Keyset pagination over active users for batch jobs (ids only, constant memory)
+    @Query("SELECT u.id FROM User u WHERE u.isActive = true AND u.id > :afterId ORDER BY u.id ASC")
+    List<Long> findActiveIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset pagination over all users for payroll: rows are [id, salary]
+    @Query("SELECT u.id, u.salary FROM User u WHERE u.id > :afterId ORDER BY u.id ASC")
+    List<Object[]> findSalariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Set-based monthly accrual for one chunk; balances already above the cap are left alone
+    @Modifying
+    @Query("UPDATE User u SET u.leaveBalance = CASE "
+            + "WHEN COALESCE(u.leaveBalance, 0) + :days <= :cap THEN COALESCE(u.leaveBalance, 0) + :days "
+            + "WHEN COALESCE(u.leaveBalance, 0) < :cap THEN :cap "
+            + "ELSE u.leaveBalance END "
+            + "WHERE u.id IN :ids")
+    int accrueLeaveBalance(@Param("ids") List<Long> ids, @Param("days") int days, @Param("cap") int cap);
+
+    // Thumbnail swap: only if the user still shows the image the thumbnails were made from
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.profileImage = :thumbnail WHERE u.id = :id AND u.profileImage = :original")
+    int replaceProfileImage(@Param("id") Long id, @Param("original") String original,
+            @Param("thumbnail") String thumbnail);
 }
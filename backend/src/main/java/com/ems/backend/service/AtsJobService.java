@@ -0,0 +1,143 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import com.ems.backend.dto.AtsJobDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Runs resume analysis off the request thread. Each job gets its own virtual
+// thread, but only ats.jobs.max-active jobs can be pending or running at once:
+// past that submit refuses the job. In-flight LLM calls are bounded by
+// LlmClient and PDF extraction by ResumeTextExtractor.
+@Service
+@RequiredArgsConstructor
+public class AtsJobService {
+
+    private final ResumeService resumeService;
+
+    private final Map<String, AtsJobDTO> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Finished jobs are kept this long for polling clients
+    @Value("${ats.jobs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    // Pending + running jobs, each holding a temp copy of its upload
+    @Value("${ats.jobs.max-active:100}")
+    private int maxActive;
+
+    // Finished jobs kept for polling; the oldest go first past this
+    @Value("${ats.jobs.max-retained:1000}")
+    private int maxRetained;
+
+    private Semaphore activeSlots;
+
+    @PostConstruct
+    void init() {
+        activeSlots = new Semaphore(maxActive);
+    }
+
+    // Empty when max-active jobs are already queued or running
+    public Optional<AtsJobDTO> submit(MultipartFile file, String role) throws IOException {
+        resumeService.checkSize(file);
+        if (!activeSlots.tryAcquire()) {
+            return Optional.empty();
+        }
+        // The multipart temp file is deleted when the request ends, so the job
+        // takes its own copy
+        Path pdf;
+        try {
+            pdf = Files.createTempFile("ats-", ".pdf");
+            file.transferTo(pdf);
+        } catch (IOException | RuntimeException e) {
+            activeSlots.release();
+            throw e;
+        }
+
+        AtsJobDTO job = AtsJobDTO.builder()
+                .id(UUID.randomUUID().toString())
+                .status(AtsJobDTO.Status.PENDING)
+                .role(role)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        jobs.put(job.getId(), job);
+        executor.submit(() -> run(job.getId(), pdf, file.getOriginalFilename(), role));
+        return Optional.of(job);
+    }
+
+    public int getActiveCount() {
+        return maxActive - activeSlots.availablePermits();
+    }
+
+    public Optional<AtsJobDTO> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(String id, Path pdf, String fileName, String role) {
+        jobs.computeIfPresent(id, (k, job) -> job.toBuilder().status(AtsJobDTO.Status.RUNNING).build());
+        try {
+            AnalysisResultDTO result = resumeService.analyzeResume(pdf, fileName, role);
+            jobs.computeIfPresent(id, (k, job) -> job.toBuilder()
+                    .status(AtsJobDTO.Status.COMPLETED)
+                    .result(result)
+                    .completedAt(LocalDateTime.now())
+                    .build());
+        } catch (Exception e) {
+            jobs.computeIfPresent(id, (k, job) -> job.toBuilder()
+                    .status(AtsJobDTO.Status.FAILED)
+                    .error(e.getMessage())
+                    .completedAt(LocalDateTime.now())
+                    .build());
+        } finally {
+            try {
+                Files.deleteIfExists(pdf);
+            } catch (IOException ignored) {
+                // Temp directory is cleaned by the OS eventually
+            }
+            activeSlots.release();
+            trimFinishedJobs();
+        }
+    }
+
+    private void trimFinishedJobs() {
+        int excess = jobs.size() - maxActive - maxRetained;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.getCompletedAt() != null)
+                .sorted(Comparator.comparing(AtsJobDTO::getCompletedAt))
+                .limit(excess)
+                .toList()
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.getCompletedAt() != null && job.getCompletedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
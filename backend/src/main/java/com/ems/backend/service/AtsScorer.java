@@ -0,0 +1,261 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// In-process ATS scorer. Each role profile is compiled once into a
+// KeywordAutomaton; scoring is a single pass over the resume text followed by a
+// saturating, length-normalised term frequency per skill. That is BM25's TF
+// component only: a single resume has no corpus, so there is no IDF term and the
+// skill weights play that part.
+@Component
+public class AtsScorer {
+
+    private record Skill(String name, double weight, List<String> aliases) {
+    }
+
+    private record CompiledProfile(List<Skill> skills, int[] aliasToSkill, KeywordAutomaton automaton) {
+    }
+
+    // Saturation parameters (BM25's k1 and b); the average length is a typical
+    // one-to-two page resume
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double AVG_WORDS = 600;
+    // Mentions that earn full credit for a skill in an average-length resume
+    private static final int FULL_CREDIT_MENTIONS = 3;
+    // Free-text roles that match no profile are compiled on demand
+    private static final int MAX_ADHOC_PROFILES = 256;
+
+    private static final List<Skill> COMMON = List.of(
+            skill("Communication", 0.5, "communication", "communicated", "presented"),
+            skill("Teamwork", 0.5, "team", "collaborated", "cross-functional"),
+            skill("Problem Solving", 0.5, "problem solving", "troubleshooting", "debugging"));
+
+    private static final Map<String, List<Skill>> PROFILES = Map.of(
+            "java developer", List.of(
+                    skill("Java", 3, "java", "java 8", "java 11", "java 17", "java 21"),
+                    skill("Spring Boot", 3, "spring boot", "spring", "spring mvc"),
+                    skill("Hibernate/JPA", 2, "hibernate", "jpa", "spring data"),
+                    skill("REST APIs", 2, "restful", "rest api", "rest apis", "microservices"),
+                    skill("SQL", 2, "sql", "mysql", "postgresql", "oracle"),
+                    skill("Maven/Gradle", 1, "maven", "gradle"),
+                    skill("Testing", 1.5, "junit", "mockito", "unit testing", "tdd"),
+                    skill("Git", 1, "git", "github", "gitlab"),
+                    skill("Docker", 1, "docker", "kubernetes"),
+                    skill("Kafka", 1, "kafka", "rabbitmq", "jms")),
+            "frontend developer", List.of(
+                    skill("JavaScript", 3, "javascript", "es6", "typescript"),
+                    skill("React", 3, "react", "react.js", "reactjs", "redux"),
+                    skill("HTML/CSS", 2, "html", "html5", "css", "css3", "sass", "tailwind"),
+                    skill("Build Tools", 1, "webpack", "vite", "babel", "npm"),
+                    skill("Testing", 1.5, "jest", "cypress", "testing library"),
+                    skill("REST APIs", 1, "restful", "rest api", "graphql", "axios"),
+                    skill("Git", 1, "git", "github")),
+            "data scientist", List.of(
+                    skill("Python", 3, "python", "pandas", "numpy"),
+                    skill("Machine Learning", 3, "machine learning", "scikit-learn", "sklearn", "xgboost"),
+                    skill("Deep Learning", 2, "deep learning", "tensorflow", "pytorch", "keras"),
+                    skill("Statistics", 2, "statistics", "statistical", "hypothesis testing", "regression"),
+                    skill("SQL", 2, "sql", "bigquery", "snowflake"),
+                    skill("Visualization", 1, "tableau", "power bi", "matplotlib", "seaborn")),
+            "devops engineer", List.of(
+                    skill("Cloud", 3, "aws", "azure", "gcp", "google cloud"),
+                    skill("Containers", 3, "docker", "kubernetes", "k8s", "helm"),
+                    skill("CI/CD", 2, "ci/cd", "jenkins", "github actions", "gitlab ci"),
+                    skill("Infrastructure as Code", 2, "terraform", "ansible", "cloudformation"),
+                    skill("Linux", 2, "linux", "bash", "shell scripting"),
+                    skill("Monitoring", 1, "prometheus", "grafana", "elk", "datadog")),
+            "hr manager", List.of(
+                    skill("Recruitment", 3, "recruitment", "recruiting", "talent acquisition", "hiring"),
+                    skill("Employee Relations", 2, "employee relations", "grievance", "engagement"),
+                    skill("Payroll", 2, "payroll", "compensation", "benefits"),
+                    skill("Compliance", 2, "compliance", "labour law", "labor law", "policy"),
+                    skill("HRIS", 1, "hris", "workday", "sap hr", "successfactors"),
+                    skill("Performance Management", 1, "performance management", "appraisal", "okr")),
+            "software engineer", List.of(
+                    skill("Programming Languages", 3, "java", "python", "c++", "c#", "golang", "javascript",
+                            "typescript", "kotlin"),
+                    skill("Data Structures & Algorithms", 2, "data structures", "algorithms"),
+                    skill("System Design", 2, "system design", "distributed systems", "microservices",
+                            "scalability"),
+                    skill("Databases", 2, "sql", "mysql", "postgresql", "mongodb", "redis"),
+                    skill("Testing", 1.5, "unit testing", "junit", "pytest", "tdd", "integration testing"),
+                    skill("Cloud", 1, "aws", "azure", "gcp", "docker", "kubernetes"),
+                    skill("Git", 1, "git", "github", "gitlab"),
+                    skill("Agile", 1, "agile", "scrum", "kanban")));
+
+    // Role aliases resolve free-text roles to a profile
+    private static final Map<String, String> ROLE_ALIASES = Map.ofEntries(
+            Map.entry("java", "java developer"),
+            Map.entry("backend", "java developer"),
+            Map.entry("spring", "java developer"),
+            Map.entry("frontend", "frontend developer"),
+            Map.entry("react", "frontend developer"),
+            Map.entry("ui", "frontend developer"),
+            Map.entry("data", "data scientist"),
+            Map.entry("ml", "data scientist"),
+            Map.entry("devops", "devops engineer"),
+            Map.entry("sre", "devops engineer"),
+            Map.entry("cloud", "devops engineer"),
+            Map.entry("hr", "hr manager"),
+            Map.entry("recruiter", "hr manager"));
+
+    private static final Set<String> ROLE_STOPWORDS = Set.of("senior", "junior", "lead", "staff", "principal",
+            "engineer", "developer", "manager", "specialist", "associate", "intern", "sr", "jr", "and", "of");
+
+    // Known profiles are compiled up front; any role that resolves to one shares it
+    private final Map<String, CompiledProfile> known = PROFILES.entrySet().stream()
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> compile(entry.getValue())));
+    private final Cache<String, CompiledProfile> adhoc = Caffeine.newBuilder()
+            .maximumSize(MAX_ADHOC_PROFILES)
+            .build();
+
+    public AnalysisResultDTO score(String text, String targetRole) {
+        CompiledProfile profile = profileFor(ResumeAnalysisCache.normalizeRole(targetRole));
+
+        int[] counts = profile.automaton().count(text);
+        int words = Math.max(counts[counts.length - 1], 1);
+        double lengthNorm = 1 - B + B * (words / AVG_WORDS);
+
+        int[] termFrequency = new int[profile.skills().size()];
+        for (int alias = 0; alias < profile.aliasToSkill().length; alias++) {
+            termFrequency[profile.aliasToSkill()[alias]] += counts[alias];
+        }
+
+        double achieved = 0;
+        double possible = 0;
+        List<String> matched = new ArrayList<>();
+        List<Skill> missing = new ArrayList<>();
+        for (int i = 0; i < termFrequency.length; i++) {
+            Skill skill = profile.skills().get(i);
+            int tf = termFrequency[i];
+            // Graded: one mention in an average resume earns ~64%, two ~88%
+            achieved += skill.weight() * Math.min(1.0, saturation(tf, lengthNorm)
+                    / saturation(FULL_CREDIT_MENTIONS, lengthNorm));
+            possible += skill.weight();
+            if (tf > 0) {
+                matched.add(skill.name());
+            } else {
+                missing.add(skill);
+            }
+        }
+
+        int score = (int) Math.round(100 * achieved / possible);
+        List<String> missingKeywords = missing.stream()
+                .sorted(Comparator.comparingDouble(Skill::weight).reversed())
+                .limit(10)
+                .map(Skill::name)
+                .toList();
+
+        return AnalysisResultDTO.builder()
+                .score(score)
+                .missingKeywords(missingKeywords)
+                .summary("Matched " + matched.size() + " of " + profile.skills().size() + " key skills for "
+                        + targetRole + (matched.isEmpty() ? "." : ": " + String.join(", ", matched) + "."))
+                .recommendation(score >= 75 ? "Interview" : score >= 50 ? "Shortlist" : "Reject")
+                .candidateName(guessCandidateName(text))
+                .build();
+    }
+
+    // Every skill alias across all profiles, e.g. to index multi-word skills as phrases
+    static Set<String> skillVocabulary() {
+        Set<String> vocabulary = new TreeSet<>();
+        COMMON.forEach(skill -> vocabulary.addAll(skill.aliases()));
+        PROFILES.values().forEach(skills -> skills.forEach(skill -> vocabulary.addAll(skill.aliases())));
+        return vocabulary;
+    }
+
+    long adhocProfileCount() {
+        adhoc.cleanUp();
+        return adhoc.estimatedSize();
+    }
+
+    private static double saturation(int tf, double lengthNorm) {
+        return tf * (K1 + 1) / (tf + K1 * lengthNorm);
+    }
+
+    private CompiledProfile profileFor(String role) {
+        String profile = resolveKnownProfile(role);
+        if (profile != null) {
+            return known.get(profile);
+        }
+        return adhoc.get(role, key -> compile(genericProfile(key)));
+    }
+
+    private static CompiledProfile compile(List<Skill> profile) {
+        List<Skill> skills = new ArrayList<>(profile);
+        skills.addAll(COMMON);
+
+        List<String> aliases = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int i = 0; i < skills.size(); i++) {
+            for (String alias : skills.get(i).aliases()) {
+                aliases.add(alias);
+                owners.add(i);
+            }
+        }
+        return new CompiledProfile(skills, owners.stream().mapToInt(Integer::intValue).toArray(),
+                new KeywordAutomaton(aliases));
+    }
+
+    private static String resolveKnownProfile(String role) {
+        if (PROFILES.containsKey(role)) {
+            return role;
+        }
+        for (String token : roleTokens(role)) {
+            if (ROLE_ALIASES.containsKey(token)) {
+                return ROLE_ALIASES.get(token);
+            }
+        }
+        return null;
+    }
+
+    private static List<String> roleTokens(String role) {
+        return Arrays.stream(role.split("[^a-z0-9+#.]+"))
+                .filter(token -> !token.isBlank())
+                .toList();
+    }
+
+    // Unknown role: its own significant words become the skills
+    private static List<Skill> genericProfile(String role) {
+        List<Skill> generic = roleTokens(role).stream()
+                .filter(token -> !ROLE_STOPWORDS.contains(token) && token.chars().allMatch(c -> c < 128))
+                .distinct()
+                .map(token -> skill(token.substring(0, 1).toUpperCase(Locale.ROOT) + token.substring(1), 2, token))
+                .collect(Collectors.toCollection(ArrayList::new));
+        generic.add(skill("Experience", 1, "experience", "worked", "developed", "managed"));
+        return generic;
+    }
+
+    // First line of a resume is usually the name, often followed by a headline
+    private static String guessCandidateName(String text) {
+        for (String line : text.split("\\R", 5)) {
+            String trimmed = line.split("\\s[-|\u2013]\\s|,|\\|", 2)[0].trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.length() <= 40 && trimmed.matches("[\\p{L} .'-]+") && trimmed.split("\\s+").length <= 4) {
+                return trimmed;
+            }
+            break;
+        }
+        return "Candidate";
+    }
+
+    private static Skill skill(String name, double weight, String... aliases) {
+        return new Skill(name, weight, List.of(aliases));
+    }
+}
@@ -0,0 +1,298 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.Attendance;
+import com.ems.backend.model.AttendanceArchive;
+import com.ems.backend.model.AttendanceArchiveRun;
+import com.ems.backend.model.PayrollStatus;
+import com.ems.backend.repository.AttendanceArchiveRepository;
+import com.ems.backend.repository.AttendanceArchiveRunRepository;
+import com.ems.backend.repository.AttendanceRepository;
+import com.ems.backend.repository.PayrollRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the attendance table to recent months. A throttled background job moves
+// months that are finalized, fully paid and older than
+// attendance.archive.min-age-months into attendance_archive, a chunk per
+// transaction, and records each month in attendance_archive_runs. Monthly reads
+// from AttendanceService and PayrollService come through here and are sent to
+// whichever table holds the month.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceArchiveService {
+
+    // LIVE: only in attendance. MOVING: a run is in progress, rows are in both
+    // tables. ARCHIVED: only in attendance_archive.
+    public enum Location { LIVE, MOVING, ARCHIVED }
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceArchiveRepository archiveRepository;
+    private final AttendanceArchiveRunRepository runRepository;
+    private final PayrollRepository payrollRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.archive.min-age-months:3}")
+    private int minAgeMonths;
+
+    @Value("${attendance.archive.chunk-size:2000}")
+    private int chunkSize;
+
+    // Pause after every chunk so the move never saturates the primary
+    @Value("${attendance.archive.pause-ms:250}")
+    private long pauseMs;
+
+    @Value("${attendance.archive.max-months-per-run:12}")
+    private int maxMonthsPerRun;
+
+    // Archived is final, so it is remembered; the other states are looked up
+    private final Set<YearMonth> archivedMonths = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopping;
+    private Counter rowsMoved;
+
+    @PostConstruct
+    void registerMetrics() {
+        rowsMoved = meterRegistry.counter("attendance.archive.rows.moved");
+    }
+
+    @PreDestroy
+    void stop() {
+        stopping = true;
+    }
+
+    // Nightly; the move runs on its own thread, not the shared scheduler thread
+    @Scheduled(cron = "${attendance.archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        start();
+    }
+
+    // Starts a run unless one is already going; either way returns the status
+    public Map<String, Object> start() {
+        if (running.compareAndSet(false, true)) {
+            Thread.ofPlatform().name("attendance-archive").start(() -> {
+                try {
+                    archiveEligibleMonths();
+                } catch (Exception e) {
+                    log.error("Attendance archival failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("runs", runRepository.findAllByOrderByPeriodDesc());
+        return status;
+    }
+
+    private void archiveEligibleMonths() {
+        // Interrupted runs first: their months are already closed to writers and may
+        // no longer look eligible (all rows moved, or none finalized left in the live
+        // table), so the eligibility scan below would never finish them
+        for (AttendanceArchiveRun run : runRepository.findByCompletedFalseOrderByPeriod()) {
+            if (stopping) {
+                return;
+            }
+            archiveMonth(YearMonth.parse(run.getPeriod()));
+        }
+
+        Optional<LocalDate> earliest = attendanceRepository.findEarliestDate();
+        if (earliest.isEmpty()) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(minAgeMonths);
+        int archived = 0;
+        for (YearMonth month = YearMonth.from(earliest.get());
+             month.isBefore(cutoff) && archived < maxMonthsPerRun && !stopping;
+             month = month.plusMonths(1)) {
+            if (isEligible(month)) {
+                archiveMonth(month);
+                archived++;
+            }
+        }
+    }
+
+    private boolean isEligible(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        return attendanceRepository.existsFinalizedByDateRange(start, end)
+                && !attendanceRepository.existsUnfinalizedByDateRange(start, end)
+                && payrollRepository.existsByMonthAndYear(month.getMonthValue(), month.getYear())
+                && !payrollRepository.existsByMonthAndYearAndStatusNot(month.getMonthValue(), month.getYear(),
+                PayrollStatus.PAID);
+    }
+
+    private void archiveMonth(YearMonth month) {
+        AttendanceArchiveRun run = findOrStartRun(month);
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        long moved = 0;
+        while (!stopping) {
+            List<Long> ids = attendanceRepository.findIdsByDateRange(start, end, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            // Copy and delete commit together, so every row is in exactly one table
+            Long lastId = ids.get(ids.size() - 1);
+            Integer count = transactionTemplate.execute(status -> {
+                int copied = attendanceRepository.copyToArchive(start, end, lastId);
+                int deleted = attendanceRepository.deleteArchived(start, end, lastId);
+                if (copied != deleted) {
+                    throw new IllegalStateException("Archiving " + month + " copied " + copied
+                            + " rows but deleted " + deleted);
+                }
+                runRepository.addRowsMoved(run.getId(), copied);
+                return copied;
+            });
+            moved += count;
+            rowsMoved.increment(count);
+            pause();
+        }
+        if (stopping) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> runRepository.markCompleted(run.getId()));
+        archivedMonths.add(month);
+        log.info("Archived attendance for {}: {} rows moved", month, moved);
+    }
+
+    private AttendanceArchiveRun findOrStartRun(YearMonth month) {
+        String key = month.toString();
+        return runRepository.findByPeriod(key).orElseGet(() -> {
+            try {
+                return runRepository.save(AttendanceArchiveRun.builder()
+                        .period(key)
+                        .completed(false)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Another node started the same month first
+                return runRepository.findByPeriod(key).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopping = true;
+        }
+    }
+
+    public Location locate(YearMonth month) {
+        if (archivedMonths.contains(month)) {
+            return Location.ARCHIVED;
+        }
+        Optional<AttendanceArchiveRun> run = runRepository.findByPeriod(month.toString());
+        if (run.isEmpty()) {
+            return Location.LIVE;
+        }
+        if (run.get().isCompleted()) {
+            archivedMonths.add(month);
+            return Location.ARCHIVED;
+        }
+        return Location.MOVING;
+    }
+
+    // All rows of a month, with employee and leave loaded
+    public List<Attendance> findMonth(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        return switch (locate(month)) {
+            case LIVE -> attendanceRepository.findWithDetailsByDateRange(start, end);
+            case ARCHIVED -> fromArchive(archiveRepository.findByDateRange(start, end));
+            case MOVING -> merge(attendanceRepository.findWithDetailsByDateRange(start, end),
+                    archiveRepository.findByDateRange(start, end));
+        };
+    }
+
+    // Payable days of the month per employee, for employee ids fromId..toId,
+    // summed by the database. Employees without rows are absent from the map.
+    public Map<Long, Double> sumPayableDays(Location location, YearMonth month, Long fromId, Long toId) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        List<Object[]> rows = switch (location) {
+            case LIVE -> attendanceRepository.sumPayableDays(start, end, fromId, toId);
+            case ARCHIVED -> archiveRepository.sumPayableDays(start, end, fromId, toId);
+            case MOVING -> attendanceRepository.sumPayableDaysWithArchive(start, end, fromId, toId);
+        };
+        Map<Long, Double> days = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            days.put(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+        }
+        return days;
+    }
+
+    // Only finalized months are ever archived
+    public boolean isFinalized(Location location, YearMonth month) {
+        return location != Location.LIVE
+                || attendanceRepository.existsFinalizedByDateRange(month.atDay(1), month.atEndOfMonth());
+    }
+
+    // Months of the range that are archived or being archived; writers treat
+    // them like finalized rows and leave them alone
+    public Set<YearMonth> closedMonths(LocalDate start, LocalDate end) {
+        Set<String> periods = new LinkedHashSet<>();
+        for (YearMonth month = YearMonth.from(start); !month.isAfter(YearMonth.from(end)); month = month.plusMonths(1)) {
+            periods.add(month.toString());
+        }
+        Set<YearMonth> closed = new LinkedHashSet<>();
+        for (AttendanceArchiveRun run : runRepository.findByPeriodIn(periods)) {
+            closed.add(YearMonth.parse(run.getPeriod()));
+        }
+        return closed;
+    }
+
+    private static List<Attendance> fromArchive(List<AttendanceArchive> rows) {
+        List<Attendance> attendance = new ArrayList<>(rows.size());
+        for (AttendanceArchive row : rows) {
+            attendance.add(row.toAttendance());
+        }
+        return attendance;
+    }
+
+    // Live rows are read first: a row moved in between is then found in the
+    // archive and deduplicated by id (ids survive the move), never missed
+    private static List<Attendance> merge(List<Attendance> live, List<AttendanceArchive> archived) {
+        Map<Long, Attendance> byId = new LinkedHashMap<>();
+        for (Attendance row : live) {
+            byId.put(row.getId(), row);
+        }
+        for (AttendanceArchive row : archived) {
+            byId.putIfAbsent(row.getId(), row.toAttendance());
+        }
+        List<Attendance> merged = new ArrayList<>(byId.values());
+        merged.sort((a, b) -> a.getDate().compareTo(b.getDate()));
+        return merged;
+    }
+}
@@ -0,0 +1,215 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.AttendanceStatus;
+import com.ems.backend.model.PunchDirection;
+import com.ems.backend.model.Role;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Turns a day of raw punches into attendance. Each IN on the day is paired with
+// the employee's next OUT (up to max-shift-hours later, so overnight shifts count
+// for the day they started) and the worked time decides PRESENT, HALF_DAY or
+// ABSENT for every active employee. Finalized and LEAVE rows are left as they
+// are; everything else is (re)derived, so closing a day again is safe.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceDayCloseService {
+
+    private static final String PUNCHES_SQL = "SELECT employee_id, punched_at, direction FROM punches "
+            + "WHERE punched_at >= ? AND punched_at < ? ORDER BY employee_id, punched_at, id";
+    // Re-checks finalized and LEAVE: a row can be finalized or a leave approved
+    // between the read and the write
+    private static final String UPDATE_SQL = "UPDATE attendance SET status = ?, remarks = ? "
+            + "WHERE id = ? AND finalized = false AND status <> 'LEAVE'";
+    private static final String INSERT_SQL = "INSERT INTO attendance (employee_id, date, status, remarks, finalized) "
+            + "VALUES (?, ?, ?, ?, false)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendanceArchiveService attendanceArchiveService;
+
+    @Value("${attendance.day-close.present-hours:7}")
+    private double presentHours;
+
+    @Value("${attendance.day-close.half-day-hours:4}")
+    private double halfDayHours;
+
+    @Value("${attendance.day-close.max-shift-hours:12}")
+    private long maxShiftHours;
+
+    private record Existing(long id, AttendanceStatus status, boolean finalized) {
+    }
+
+    // Closes the latest day whose overnight shifts have all ended
+    @Scheduled(cron = "${attendance.day-close.cron:0 15 12 * * *}")
+    public void scheduledClose() {
+        closeDay(LocalDateTime.now().minusHours(maxShiftHours).toLocalDate().minusDays(1));
+    }
+
+    @Timed("attendance.day-close")
+    public Map<String, Object> closeDay(LocalDate date) {
+        if (!date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Only past days can be closed");
+        }
+        if (attendanceArchiveService.locate(YearMonth.from(date)) != AttendanceArchiveService.Location.LIVE) {
+            throw new IllegalArgumentException("Attendance for " + YearMonth.from(date) + " is archived");
+        }
+        long started = System.nanoTime();
+        ShiftPairing pairing = new ShiftPairing(date, Duration.ofHours(maxShiftHours));
+        LocalDateTime from = date.atStartOfDay();
+        jdbcTemplate.query(PUNCHES_SQL, pairing, Timestamp.valueOf(from),
+                Timestamp.valueOf(from.plusDays(1).plusHours(maxShiftHours)));
+        pairing.finish();
+
+        List<Long> employees = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE role = ? AND is_active = true", Long.class, Role.EMPLOYEE.name());
+        boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+
+        Map<AttendanceStatus, Integer> derived = new EnumMap<>(AttendanceStatus.class);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Existing> existing = new HashMap<>();
+            jdbcTemplate.query("SELECT id, employee_id, status, finalized FROM attendance WHERE date = ?",
+                    (RowCallbackHandler) row -> existing.put(row.getLong(2), new Existing(row.getLong(1),
+                            AttendanceStatus.valueOf(row.getString(3)), row.getBoolean(4))),
+                    Date.valueOf(date));
+
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            int finalized = 0;
+            int onLeave = 0;
+            int noPunches = 0;
+            for (Long employeeId : employees) {
+                Long minutes = pairing.workedMinutes.get(employeeId);
+                if (minutes == null && weekend) {
+                    noPunches++; // Not a working day for them
+                    continue;
+                }
+                Existing row = existing.get(employeeId);
+                if (row != null && row.finalized()) {
+                    finalized++;
+                    continue;
+                }
+                if (row != null && row.status() == AttendanceStatus.LEAVE) {
+                    onLeave++;
+                    continue;
+                }
+                AttendanceStatus result = statusFor(minutes == null ? 0 : minutes);
+                String remarks = minutes == null ? "Day close: no punches"
+                        : String.format(Locale.ROOT, "Day close: %.2fh worked", minutes / 60.0);
+                if (row == null) {
+                    inserts.add(new Object[] { employeeId, Date.valueOf(date), result.name(), remarks });
+                } else {
+                    updates.add(new Object[] { result.name(), remarks, row.id() });
+                }
+                derived.merge(result, 1, Integer::sum);
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+
+            summary.put("date", date);
+            summary.put("punches", pairing.punches);
+            summary.put("employeesWithPunches", pairing.workedMinutes.size());
+            summary.put("derived", derived);
+            summary.put("inserted", inserts.size());
+            summary.put("updated", updates.size());
+            summary.put("skippedFinalized", finalized);
+            summary.put("skippedLeave", onLeave);
+            summary.put("skippedWeekendNoPunches", noPunches);
+        });
+        summary.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+        log.info("Closed attendance for {}: {}", date, summary);
+        return summary;
+    }
+
+    private AttendanceStatus statusFor(long minutes) {
+        if (minutes >= presentHours * 60) {
+            return AttendanceStatus.PRESENT;
+        }
+        if (minutes >= halfDayHours * 60) {
+            return AttendanceStatus.HALF_DAY;
+        }
+        return AttendanceStatus.ABSENT;
+    }
+
+    // Streams punches ordered by employee and time. An IN opens a shift (a repeated
+    // IN keeps the first), the next OUT closes it and adds at most maxShift; OUTs
+    // without an open shift and a shift never closed add nothing. Only shifts
+    // opened on the day count, the rows after midnight are there to close them.
+    // An IN on the next day means the open shift's OUT was missed: it closes the
+    // shift without credit, so the next day's OUT is not paired with it.
+    private static final class ShiftPairing implements RowCallbackHandler {
+
+        private final LocalDate date;
+        private final Duration maxShift;
+        private final Map<Long, Long> workedMinutes = new HashMap<>();
+        private long punches;
+        private long employeeId = -1;
+        private LocalDateTime openedAt;
+        private long minutes;
+        private boolean clockedIn;
+
+        ShiftPairing(LocalDate date, Duration maxShift) {
+            this.date = date;
+            this.maxShift = maxShift;
+        }
+
+        @Override
+        public void processRow(ResultSet row) throws SQLException {
+            long employee = row.getLong(1);
+            if (employee != employeeId) {
+                finish();
+                employeeId = employee;
+            }
+            punches++;
+            LocalDateTime at = row.getTimestamp(2).toLocalDateTime();
+            if (PunchDirection.valueOf(row.getString(3)) == PunchDirection.IN) {
+                if (at.toLocalDate().isAfter(date)) {
+                    openedAt = null;
+                } else if (openedAt == null) {
+                    openedAt = at;
+                    clockedIn = true;
+                }
+            } else if (openedAt != null) {
+                Duration shift = Duration.between(openedAt, at);
+                minutes += (shift.compareTo(maxShift) > 0 ? maxShift : shift).toMinutes();
+                openedAt = null;
+            }
+        }
+
+        // Records the employee being read, if they clocked in on the day
+        void finish() {
+            if (clockedIn) {
+                workedMinutes.put(employeeId, minutes);
+            }
+            openedAt = null;
+            minutes = 0;
+            clockedIn = false;
+        }
+    }
+}
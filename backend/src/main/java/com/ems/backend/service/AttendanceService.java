@@ -2,59 +2,46 @@ package com.ems.backend.service;
 
 import com.ems.backend.model.*;
 import com.ems.backend.repository.AttendanceRepository;
-import com.ems.backend.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AttendanceService {
 
     private final AttendanceRepository attendanceRepository;
-    private final UserRepository userRepository;
+    private final AttendanceArchiveService attendanceArchiveService;
 
+    @Timed("attendance.initialize")
     @Transactional
     public void initializeMonth(int year, int month) {
         YearMonth yearMonth = YearMonth.of(year, month);
-        int daysInMonth = yearMonth.lengthOfMonth();
-        List<User> employees = userRepository.findAll(); // In real app, filter active only
-
-        for (int day = 1; day <= daysInMonth; day++) {
-            LocalDate date = LocalDate.of(year, month, day);
-
-            // Skip weekends if needed, but requirements say "all working days".
-            // For now, let's create for all days, admin can mark weekends as off or we
-            // assume M-F.
-            // Keeping it simple as per "realistic & interview-ready": Create for all days.
-
-            for (User employee : employees) {
-                if (employee.getRole() == Role.EMPLOYEE) {
-                    if (attendanceRepository.findByEmployeeAndDate(employee, date).isEmpty()) {
-                        Attendance attendance = Attendance.builder()
-                                .employee(employee)
-                                .date(date)
-                                // Default to Present only for weekdays? Or ABSENT? Prompt said "default =
-                                // ABSENT"
-                                .status(AttendanceStatus.ABSENT)
-                                .finalized(false)
-                                .remarks("Auto-generated")
-                                .build();
-                        attendanceRepository.save(attendance);
-                    }
-                }
-            }
+        if (attendanceArchiveService.locate(yearMonth) != AttendanceArchiveService.Location.LIVE) {
+            throw new IllegalArgumentException("Attendance for " + yearMonth + " is archived");
+        }
+        // Every employee gets an ABSENT row for each day they have none; existing rows are kept
+        for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+            attendanceRepository.insertMissingForDate(yearMonth.atDay(day));
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Attendance> getAttendance(int month, int year, Long departmentId) {
         // Simple implementation: Ignoring dept filter for now for speed, or filter in
         // stream
-        List<Attendance> all = attendanceRepository.findByMonthAndYear(month, year);
+        // Archived months are read from attendance_archive
+        List<Attendance> all = attendanceArchiveService.findMonth(YearMonth.of(year, month));
         if (departmentId != null) {
             // Assuming User has department field? Currently User entity might not have Dept
             // relation or string.
@@ -65,6 +52,7 @@ public class AttendanceService {
         return all;
     }
 
+    @Transactional
     public Attendance updateAttendance(Long id, AttendanceStatus status, String remarks) {
         Attendance attendance = attendanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Attendance record not found"));
@@ -80,37 +68,39 @@ public class AttendanceService {
 
     @Transactional
     public void finalizeMonth(int month, int year) {
-        List<Attendance> records = attendanceRepository.findByMonthAndYear(month, year);
-        for (Attendance record : records) {
-            record.setFinalized(true);
-        }
-        attendanceRepository.saveAll(records);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        attendanceRepository.finalizeByDateRange(yearMonth.atDay(1), yearMonth.atEndOfMonth());
     }
 
+    // Idempotent: replaying the same approval rewrites the same LEAVE rows.
+    // Existing rows for the range are loaded in one query and written as a batch.
     @Transactional
     public void handleLeaveApproval(LeaveRequest leave) {
-        // Iterate through leave dates and update attendance
         LocalDate start = leave.getStartDate();
         LocalDate end = leave.getEndDate();
         User employee = leave.getUser();
+        Set<YearMonth> archived = attendanceArchiveService.closedMonths(start, end);
 
-        start.datesUntil(end.plusDays(1)).forEach(date -> {
-            Attendance attendance = attendanceRepository.findByEmployeeAndDate(employee, date)
-                    .orElseGet(() -> {
-                        // If record doesn't exist, create it
-                        return Attendance.builder()
-                                .employee(employee)
-                                .date(date)
-                                .finalized(false)
-                                .build();
-                    });
+        Map<LocalDate, Attendance> existing = attendanceRepository
+                .findByEmployeeAndDateRange(employee.getId(), start, end).stream()
+                .collect(Collectors.toMap(Attendance::getDate, Function.identity()));
 
-            if (!attendance.isFinalized()) {
+        List<Attendance> changed = new ArrayList<>();
+        start.datesUntil(end.plusDays(1)).forEach(date -> {
+            // If record doesn't exist, create it
+            Attendance attendance = existing.getOrDefault(date, Attendance.builder()
+                    .employee(employee)
+                    .date(date)
+                    .finalized(false)
+                    .build());
+
+            if (!attendance.isFinalized() && !archived.contains(YearMonth.from(date))) {
                 attendance.setStatus(AttendanceStatus.LEAVE);
                 attendance.setLeaveRequest(leave);
                 attendance.setRemarks("Leave Approved: " + leave.getLeaveType());
-                attendanceRepository.save(attendance);
+                changed.add(attendance);
             }
         });
+        attendanceRepository.saveAll(changed);
     }
 }
@@ -0,0 +1,252 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import com.ems.backend.dto.BatchResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Bulk resume screening: uploads (PDFs or ZIPs of PDFs) are staged to a bounded
+// temp directory, scored in parallel on a CPU-sized pool with the local scorer,
+// and streamed back as NDJSON in completion order with a running rank.
+@Service
+@RequiredArgsConstructor
+public class BatchScreeningService {
+
+    private final ResumeService resumeService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ats.batch.max-files:5000}")
+    private int maxFiles;
+
+    @Value("${ats.max-file-bytes:5242880}")
+    private long maxFileBytes;
+
+    @Value("${ats.batch.max-total-bytes:536870912}")
+    private long maxTotalBytes;
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    private final Map<String, Batch> activeBatches = new ConcurrentHashMap<>();
+    private final ExecutorService pool = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "ats-batch-" + THREAD_IDS.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Getter
+    public static class Batch {
+        private final String id = UUID.randomUUID().toString();
+        private final String role;
+        private final Path directory;
+        private final Map<Path, String> files = new LinkedHashMap<>(); // staged path -> original name
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final List<Future<BatchResultDTO>> futures = Collections.synchronizedList(new ArrayList<>());
+        private long stagedBytes;
+
+        Batch(String role, Path directory) {
+            this.role = role;
+            this.directory = directory;
+        }
+    }
+
+    public Batch prepare(List<MultipartFile> uploads, String role) throws IOException {
+        Batch batch = new Batch(role, Files.createTempDirectory("ats-batch-"));
+        try {
+            for (MultipartFile upload : uploads) {
+                String name = String.valueOf(upload.getOriginalFilename());
+                try (InputStream in = upload.getInputStream()) {
+                    if (name.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                        stageZip(batch, in);
+                    } else {
+                        stage(batch, name, in);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            FileSystemUtils.deleteRecursively(batch.getDirectory());
+            throw e;
+        }
+        if (batch.getFiles().isEmpty()) {
+            FileSystemUtils.deleteRecursively(batch.getDirectory());
+            throw new IllegalArgumentException("No PDF resumes found in upload");
+        }
+        activeBatches.put(batch.getId(), batch);
+        return batch;
+    }
+
+    public boolean cancel(String batchId) {
+        Batch batch = activeBatches.get(batchId);
+        if (batch == null) {
+            return false;
+        }
+        batch.getCancelled().set(true);
+        synchronized (batch.getFutures()) {
+            batch.getFutures().forEach(future -> future.cancel(true));
+        }
+        return true;
+    }
+
+    public void stream(Batch batch, OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        ExecutorCompletionService<BatchResultDTO> completion = new ExecutorCompletionService<>(pool);
+        int total = batch.getFiles().size();
+        // The completion queue hands back the submitted futures, so a failed one can still be named
+        Map<Future<BatchResultDTO>, String> names = new HashMap<>(total * 2);
+        batch.getFiles().forEach((path, name) -> {
+            Future<BatchResultDTO> future = completion.submit(() -> score(path, name, batch.getRole()));
+            names.put(future, name);
+            batch.getFutures().add(future);
+        });
+
+        // Scores seen so far, kept sorted descending for the running rank
+        List<BatchResultDTO> ranking = new ArrayList<>(total);
+        Comparator<BatchResultDTO> byScore = Comparator.comparingInt(BatchResultDTO::getScoreOrZero).reversed();
+        try {
+            while (ranking.size() < total && !batch.getCancelled().get()) {
+                Future<BatchResultDTO> done = completion.poll(250, TimeUnit.MILLISECONDS);
+                // Tasks cancelled by DELETE /batch/{id} still come through the completion queue
+                if (done == null || done.isCancelled()) {
+                    continue;
+                }
+                BatchResultDTO row;
+                try {
+                    row = done.get();
+                } catch (ExecutionException e) {
+                    // score() only catches Exception; an Error such as a StackOverflowError from
+                    // PDFBox on a malformed file lands here and must still count towards total
+                    row = BatchResultDTO.builder().fileName(names.get(done))
+                            .error(String.valueOf(e.getCause())).build();
+                }
+                int position = Collections.binarySearch(ranking, row, byScore);
+                int rank = position < 0 ? -position - 1 : position;
+                ranking.add(rank, row);
+                row.setRank(rank + 1);
+                row.setCompleted(ranking.size());
+                row.setTotal(total);
+                writeLine(out, row);
+            }
+
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("batchId", batch.getId());
+            summary.put("cancelled", batch.getCancelled().get());
+            summary.put("completed", ranking.size());
+            summary.put("total", total);
+            summary.put("resumesPerSecond", seconds > 0 ? ranking.size() / seconds : ranking.size());
+            summary.put("ranking", ranking.stream()
+                    .map(r -> Map.of("fileName", r.getFileName(), "score", r.getScoreOrZero()))
+                    .toList());
+            writeLine(out, summary);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client went away: stop the remaining work
+            batch.getCancelled().set(true);
+            throw e;
+        } finally {
+            cancel(batch.getId());
+            activeBatches.remove(batch.getId());
+            FileSystemUtils.deleteRecursively(batch.getDirectory());
+        }
+    }
+
+    private BatchResultDTO score(Path path, String name, String role) {
+        try {
+            AnalysisResultDTO result = resumeService.analyzeResumeLocally(path, name, role);
+            return BatchResultDTO.builder().fileName(name).result(result).build();
+        } catch (Exception e) {
+            return BatchResultDTO.builder().fileName(name).error(e.getMessage()).build();
+        } finally {
+            try {
+                Files.deleteIfExists(path); // Free temp space as soon as a file is scored
+            } catch (IOException ignored) {
+                // Removed with the batch directory
+            }
+        }
+    }
+
+    private void stageZip(Batch batch, InputStream in) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(in)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = Paths.get(entry.getName()).getFileName().toString();
+                if (entry.isDirectory() || entry.getName().startsWith("__MACOSX")
+                        || !name.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                    continue;
+                }
+                stage(batch, name, zip);
+            }
+        }
+    }
+
+    // Entry names are never used as paths, so archive contents cannot escape the
+    // batch directory
+    private void stage(Batch batch, String name, InputStream in) throws IOException {
+        if (batch.getFiles().size() >= maxFiles) {
+            throw new IllegalArgumentException("Batch exceeds " + maxFiles + " files");
+        }
+        Path target = batch.getDirectory().resolve(batch.getFiles().size() + ".pdf");
+        long written = 0;
+        byte[] buffer = new byte[8192];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                written += read;
+                if (written > maxFileBytes) {
+                    throw new IllegalArgumentException("File too large: " + name);
+                }
+                if (batch.stagedBytes + written > maxTotalBytes) {
+                    throw new IllegalArgumentException("Batch exceeds " + maxTotalBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        batch.stagedBytes += written;
+        batch.getFiles().put(target, name);
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+        out.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,325 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import com.ems.backend.dto.CandidateDTO;
+import com.ems.backend.model.Candidate;
+import com.ems.backend.repository.CandidateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Persists analyzed resumes and maintains an inverted index over their normalized
+// terms (candidate_terms). Known multi-word skills ("spring boot", "ci/cd") are
+// indexed as single phrase terms. Queries read only the postings of the query
+// terms and rank candidates with BM25.
+@Service
+@RequiredArgsConstructor
+public class CandidateIndexService {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MAX_QUERY_TERMS = 32;
+    private static final int MAX_PHRASE_WORDS = 3;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}+#.]+");
+
+    private static final Set<String> STOPWORDS = Set.of("a", "an", "and", "or", "not", "the", "of", "in", "on",
+            "at", "to", "for", "with", "by", "from", "as", "is", "was", "be", "i", "my", "we", "our");
+
+    private static final Set<String> SINGLE_LETTER_TERMS = Set.of("c", "r");
+
+    private static final Map<String, String> SYNONYMS = Map.of(
+            "k8s", "kubernetes",
+            "postgres", "postgresql",
+            "js", "javascript",
+            "ts", "typescript",
+            "reactjs", "react",
+            "react.js", "react",
+            "nodejs", "node.js",
+            "golang", "go",
+            "sklearn", "scikit-learn");
+
+    private static final String UPSERT_SQL = "INSERT INTO candidates (file_hash, file_name, candidate_name, role, "
+            + "score, recommendation, summary, resume_text, doc_length, analyzed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE file_name = COALESCE(VALUES(file_name), file_name), "
+            + "candidate_name = VALUES(candidate_name), score = VALUES(score), "
+            + "recommendation = VALUES(recommendation), summary = VALUES(summary), "
+            + "resume_text = VALUES(resume_text), doc_length = VALUES(doc_length), "
+            + "analyzed_at = VALUES(analyzed_at)";
+
+    private final CandidateRepository candidateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final List<String> phrases = AtsScorer.skillVocabulary().stream()
+            .filter(alias -> !List.of(alias).equals(tokenize(alias)))
+            .toList();
+    private final Set<String> phraseSet = new HashSet<>(phrases);
+    private final KeywordAutomaton phraseAutomaton = new KeywordAutomaton(phrases);
+
+    // Re-analysing a file with the same outcome leaves its postings untouched
+    @Transactional
+    public void index(String fileHash, String fileName, String targetRole, AnalysisResultDTO result,
+            ResumeAnalysisCache.Loader<String> textLoader) throws IOException {
+        String role = ResumeAnalysisCache.normalizeRole(targetRole);
+        Candidate candidate = candidateRepository.findByFileHashAndRole(fileHash, role).orElse(null);
+        if (candidate != null && candidate.getScore() == result.getScore()
+                && Objects.equals(candidate.getRecommendation(), result.getRecommendation())) {
+            return;
+        }
+
+        String text = textLoader.load();
+        Map<String, Integer> frequencies = new HashMap<>();
+        int words = termFrequencies(text, frequencies);
+
+        // Upsert on (file_hash, role): two requests indexing the same new file both
+        // land on one row instead of the second failing on the unique key
+        jdbcTemplate.update(UPSERT_SQL, fileHash, fileName, result.getCandidateName(), role, result.getScore(),
+                result.getRecommendation(), result.getSummary(), text, words, Timestamp.valueOf(LocalDateTime.now()));
+        Long candidateId = jdbcTemplate.queryForObject(
+                "SELECT id FROM candidates WHERE file_hash = ? AND role = ?", Long.class, fileHash, role);
+
+        jdbcTemplate.update("DELETE FROM candidate_terms WHERE candidate_id = ?", candidateId);
+        jdbcTemplate.batchUpdate("INSERT INTO candidate_terms (term, candidate_id, tf) VALUES (?, ?, ?)",
+                new ArrayList<>(frequencies.entrySet()), 500, (ps, posting) -> {
+                    ps.setString(1, posting.getKey());
+                    ps.setLong(2, candidateId);
+                    ps.setInt(3, posting.getValue());
+                });
+    }
+
+    // Terms are ANDed (matchAll) or ORed; a leading '-' excludes a term, quotes force a phrase
+    @Transactional(readOnly = true)
+    public List<CandidateDTO> search(String query, boolean matchAll, String role, Integer minScore,
+            int page, int size) {
+        List<String> included = new ArrayList<>();
+        Set<String> excluded = new LinkedHashSet<>();
+        parseQuery(query, included, excluded);
+        if (included.isEmpty()) {
+            throw new IllegalArgumentException("Query has no searchable terms");
+        }
+        if (included.size() > MAX_QUERY_TERMS) {
+            throw new IllegalArgumentException("Query has more than " + MAX_QUERY_TERMS + " terms");
+        }
+
+        // 1. Postings of the query terms, already narrowed by the role/score filters
+        MapSqlParameterSource params = new MapSqlParameterSource("terms", included);
+        StringBuilder filter = new StringBuilder();
+        if (role != null && !role.isBlank()) {
+            filter.append(" AND c.role = :role");
+            params.addValue("role", ResumeAnalysisCache.normalizeRole(role));
+        }
+        if (minScore != null) {
+            filter.append(" AND c.score >= :minScore");
+            params.addValue("minScore", minScore);
+        }
+        String sql = "SELECT t.candidate_id, t.term, t.tf, c.doc_length "
+                + "FROM candidate_terms t JOIN candidates c ON c.id = t.candidate_id WHERE t.term IN (:terms)"
+                + filter;
+        List<long[]> postings = new ArrayList<>(); // candidateId, term index, tf, docLength
+        int[] documentFrequency = new int[included.size()];
+        namedJdbcTemplate.query(sql, params, rs -> {
+            int term = included.indexOf(rs.getString(2));
+            documentFrequency[term]++;
+            postings.add(new long[] { rs.getLong(1), term, rs.getInt(3), rs.getInt(4) });
+        });
+
+        Set<Long> excludedIds = excluded.isEmpty() ? Set.of()
+                : new HashSet<>(namedJdbcTemplate.queryForList(
+                        "SELECT DISTINCT candidate_id FROM candidate_terms WHERE term IN (:terms)",
+                        new MapSqlParameterSource("terms", excluded), Long.class));
+
+        // 2. BM25 over the postings; the bit mask tracks which terms each candidate matched.
+        // N and the average length cover the same filtered candidates as the document
+        // frequencies, otherwise a narrow filter inflates every IDF
+        Map<String, Object> corpus = namedJdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS n, COALESCE(AVG(c.doc_length), 0) AS avg_length FROM candidates c WHERE 1 = 1"
+                        + filter, params);
+        long n = ((Number) corpus.get("n")).longValue();
+        double avgLength = Math.max(((Number) corpus.get("avg_length")).doubleValue(), 1);
+        double[] idf = new double[included.size()];
+        for (int i = 0; i < idf.length; i++) {
+            idf[i] = Math.log(1 + (n - documentFrequency[i] + 0.5) / (documentFrequency[i] + 0.5));
+        }
+
+        Map<Long, double[]> hits = new HashMap<>(); // candidateId -> {relevance, mask}
+        for (long[] posting : postings) {
+            if (excludedIds.contains(posting[0])) {
+                continue;
+            }
+            double tf = posting[2];
+            double lengthNorm = 1 - B + B * (posting[3] / avgLength);
+            double[] hit = hits.computeIfAbsent(posting[0], id -> new double[2]);
+            hit[0] += idf[(int) posting[1]] * tf * (K1 + 1) / (tf + K1 * lengthNorm);
+            hit[1] = (long) hit[1] | (1L << posting[1]);
+        }
+
+        // 3. Top page via a bounded heap instead of sorting every match
+        long allTerms = (1L << included.size()) - 1;
+        int wanted = (page + 1) * size;
+        Comparator<Map.Entry<Long, double[]>> byRelevance = Comparator.comparingDouble(e -> e.getValue()[0]);
+        PriorityQueue<Map.Entry<Long, double[]>> top = new PriorityQueue<>(byRelevance);
+        for (Map.Entry<Long, double[]> hit : hits.entrySet()) {
+            if (matchAll && (long) hit.getValue()[1] != allTerms) {
+                continue;
+            }
+            top.add(hit);
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<Long, double[]>> ranked = new ArrayList<>(top);
+        ranked.sort(byRelevance.reversed());
+        if (ranked.size() <= page * size) {
+            return List.of();
+        }
+        ranked = ranked.subList(page * size, ranked.size());
+
+        // 4. Candidate details for the page only (the resume text stays in the database)
+        Map<Long, CandidateDTO> details = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, file_name, candidate_name, role, score, recommendation, summary, "
+                + "analyzed_at FROM candidates WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ranked.stream().map(Map.Entry::getKey).toList()),
+                rs -> {
+                    details.put(rs.getLong("id"), CandidateDTO.builder()
+                            .id(rs.getLong("id"))
+                            .fileName(rs.getString("file_name"))
+                            .candidateName(rs.getString("candidate_name"))
+                            .role(rs.getString("role"))
+                            .score(rs.getInt("score"))
+                            .recommendation(rs.getString("recommendation"))
+                            .summary(rs.getString("summary"))
+                            .analyzedAt(rs.getTimestamp("analyzed_at").toLocalDateTime())
+                            .build());
+                });
+
+        List<CandidateDTO> results = new ArrayList<>();
+        for (Map.Entry<Long, double[]> hit : ranked) {
+            CandidateDTO dto = details.get(hit.getKey());
+            if (dto == null) {
+                continue; // Deleted between the two queries
+            }
+            long mask = (long) hit.getValue()[1];
+            List<String> matched = new ArrayList<>();
+            for (int i = 0; i < included.size(); i++) {
+                if ((mask & (1L << i)) != 0) {
+                    matched.add(included.get(i));
+                }
+            }
+            dto.setRelevance(Math.round(hit.getValue()[0] * 1000) / 1000.0);
+            dto.setMatchedTerms(matched);
+            results.add(dto);
+        }
+        return results;
+    }
+
+    // Unigram terms plus known skill phrases; returns the word count
+    private int termFrequencies(String text, Map<String, Integer> frequencies) {
+        List<String> tokens = tokenize(text);
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+        int[] counts = phraseAutomaton.count(text);
+        for (int i = 0; i < phrases.size(); i++) {
+            if (counts[i] > 0) {
+                frequencies.merge(phrases.get(i), counts[i], Integer::sum);
+            }
+        }
+        return tokens.size();
+    }
+
+    private void parseQuery(String query, List<String> included, Set<String> excluded) {
+        // Quoted text stays together as one phrase chunk, marked by its leading quote
+        List<String> chunks = new ArrayList<>();
+        String[] parts = query.toLowerCase(Locale.ROOT).split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            if (i % 2 == 1) {
+                chunks.add("\"" + parts[i].trim());
+            } else {
+                for (String word : parts[i].trim().split("[\\s,]+")) {
+                    if (!word.isEmpty()) {
+                        chunks.add(word);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i);
+            boolean exclude = chunk.startsWith("-") && chunk.length() > 1;
+            if (exclude) {
+                chunk = chunk.substring(1);
+            }
+            List<String> terms;
+            if (chunk.startsWith("\"")) {
+                String phrase = chunk.substring(1);
+                terms = phraseSet.contains(phrase) ? List.of(phrase) : tokenize(phrase);
+            } else {
+                // Greedily join adjacent words into a known skill phrase (spring boot -> "spring boot")
+                String phrase = null;
+                for (int length = Math.min(MAX_PHRASE_WORDS, chunks.size() - i); length > 1; length--) {
+                    String candidate = String.join(" ", chunks.subList(i, i + length));
+                    if (phraseSet.contains(candidate)) {
+                        phrase = candidate;
+                        i += length - 1;
+                        break;
+                    }
+                }
+                terms = phrase != null ? List.of(phrase) : tokenize(chunk);
+            }
+            for (String term : terms) {
+                if (exclude) {
+                    excluded.add(term);
+                } else if (!included.contains(term)) {
+                    included.add(term);
+                }
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String raw : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            String token = stripDots(raw);
+            token = SYNONYMS.getOrDefault(token, token);
+            if (token.isEmpty() || token.length() > MAX_TERM_LENGTH || STOPWORDS.contains(token)
+                    || (token.length() == 1 && !SINGLE_LETTER_TERMS.contains(token))
+                    || token.chars().allMatch(c -> Character.isDigit(c) || c == '.')) {
+                continue;
+            }
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static String stripDots(String token) {
+        int start = 0;
+        int end = token.length();
+        while (start < end && token.charAt(start) == '.') {
+            start++;
+        }
+        while (end > start && token.charAt(end - 1) == '.') {
+            end--;
+        }
+        return token.substring(start, end);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ems.backend.service;
+
+// Count-based circuit breaker: trips when the failure rate over the last
+// `window` calls reaches the threshold, fails fast while open, then lets a
+// single probe through and closes again only if that probe succeeds.
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] outcomes;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private long probeStartedAt;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int window, int minCalls, double failureRate, long openMillis) {
+        this.outcomes = new boolean[window];
+        this.minCalls = Math.min(minCalls, window);
+        this.failureRate = failureRate;
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            // A probe that never reported back must not wedge the breaker
+            if (probeInFlight && now - probeStartedAt < openNanos) {
+                return false;
+            }
+            probeInFlight = true;
+            probeStartedAt = now;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            trip();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= minCalls && failures >= calls * failureRate) {
+                trip();
+            }
+        }
+    }
+
+    // Outcome says nothing about upstream health (e.g. a 400): just free the probe slot
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void trip() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        probeInFlight = false;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        next = 0;
+        calls = 0;
+        failures = 0;
+        probeInFlight = false;
+        java.util.Arrays.fill(outcomes, false);
+    }
+}
@@ -6,6 +6,7 @@ import com.ems.backend.repository.LeaveRepository;
 import com.ems.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -20,6 +21,8 @@ public class DashboardService {
     private final UserRepository userRepository;
     private final LeaveRepository leaveRepository;
 
+    // Read-only transactions are served by the read replica when one is configured
+    @Transactional(readOnly = true)
     public DashboardStatsDTO getStats() {
         // 1. Total Staff
         long totalStaff = userRepository.countActiveUsers();
@@ -4,6 +4,7 @@ import com.ems.backend.model.User;
 import com.ems.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -15,6 +16,9 @@ public class EmployeeService {
 
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
+    private final ProfileImageService profileImageService;
+
+    @Transactional(readOnly = true)
     public List<User> searchEmployees(String query) {
         if (query == null || query.isBlank()) {
             return userRepository.findAll().stream()
@@ -53,20 +57,14 @@ public class EmployeeService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
         try {
-            // Ensure directory exists
-            java.nio.file.Path uploadDir = java.nio.file.Paths.get("uploads");
-            if (!java.nio.file.Files.exists(uploadDir)) {
-                java.nio.file.Files.createDirectories(uploadDir);
-            }
-
-            String fileName = java.util.UUID.randomUUID() + "_" + file.getOriginalFilename();
-            java.nio.file.Path filePath = uploadDir.resolve(fileName);
-            java.nio.file.Files.write(filePath, file.getBytes());
-
-            // Return full URL (assuming backend is regular localhost:8081 for now)
-            String imageUrl = "http://localhost:8081/uploads/" + fileName;
+            ProfileImageService.StoredImage image = profileImageService.store(file);
+            // Until the thumbnails exist the user shows the original; the thumbnailer swaps the URL
+            String imageUrl = image.thumbnailsReady() ? image.thumbnailUrl() : image.originalUrl();
             user.setProfileImage(imageUrl);
             userRepository.save(user);
+            if (!image.thumbnailsReady()) {
+                profileImageService.generateThumbnailsAsync(image, id);
+            }
             return imageUrl;
         } catch (java.io.IOException e) {
             throw new RuntimeException("Failed to upload image", e);
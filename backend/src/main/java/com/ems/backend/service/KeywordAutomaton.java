@@ -0,0 +1,114 @@
+package com.ems.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+// Aho-Corasick automaton over lower-cased ASCII keywords, compiled into a dense
+// transition table so matching is one array lookup per input character.
+// Matches are only counted on word boundaries ("java" does not hit "javascript").
+final class KeywordAutomaton {
+
+    private final int[][] transitions; // [state][symbol]
+    private final int[][] outputs; // keyword ids ending at each state
+    private final int[] lengths; // keyword lengths by id
+    private final byte[] symbols = new byte[128]; // ASCII char -> symbol, 0 = not in any keyword
+
+    KeywordAutomaton(List<String> keywords) {
+        int alphabet = 1;
+        for (String keyword : keywords) {
+            for (char c : keyword.toLowerCase(Locale.ROOT).toCharArray()) {
+                if (c >= 128) {
+                    throw new IllegalArgumentException("Keywords must be ASCII: " + keyword);
+                }
+                if (symbols[c] == 0) {
+                    symbols[c] = (byte) alphabet++;
+                }
+            }
+        }
+
+        // 1. Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        trie.add(new int[alphabet]);
+        out.add(new ArrayList<>());
+        lengths = new int[keywords.size()];
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id).toLowerCase(Locale.ROOT);
+            lengths[id] = keyword.length();
+            int state = 0;
+            for (char c : keyword.toCharArray()) {
+                int symbol = symbols[c];
+                if (trie.get(state)[symbol] == 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(new int[alphabet]);
+                    out.add(new ArrayList<>());
+                }
+                state = trie.get(state)[symbol];
+            }
+            out.get(state).add(id);
+        }
+
+        // 2. Failure links folded into the transition table (BFS order)
+        transitions = trie.toArray(new int[0][]);
+        int[] fail = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 1; symbol < alphabet; symbol++) {
+            if (transitions[0][symbol] != 0) {
+                queue.add(transitions[0][symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            out.get(state).addAll(out.get(fail[state]));
+            for (int symbol = 1; symbol < alphabet; symbol++) {
+                int next = transitions[state][symbol];
+                if (next != 0) {
+                    fail[next] = transitions[fail[state]][symbol];
+                    queue.add(next);
+                } else {
+                    transitions[state][symbol] = transitions[fail[state]][symbol];
+                }
+            }
+        }
+
+        outputs = new int[transitions.length][];
+        for (int state = 0; state < transitions.length; state++) {
+            outputs[state] = out.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    // Single pass over the text: per-keyword hit counts plus the word count in
+    // the last slot (used for length normalization)
+    int[] count(CharSequence text) {
+        int[] counts = new int[lengths.length + 1];
+        int words = 0;
+        boolean inWord = false;
+        int state = 0;
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            boolean wordChar = Character.isLetterOrDigit(c);
+            if (wordChar && !inWord) {
+                words++;
+            }
+            inWord = wordChar;
+
+            char lower = (c >= 'A' && c <= 'Z') ? (char) (c + 32) : c;
+            int symbol = lower < 128 ? symbols[lower] : 0;
+            state = symbol == 0 ? 0 : transitions[state][symbol];
+            for (int id : outputs[state]) {
+                int start = i - lengths[id] + 1;
+                boolean leftOk = start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1));
+                boolean rightOk = i + 1 == n || !Character.isLetterOrDigit(text.charAt(i + 1));
+                if (leftOk && rightOk) {
+                    counts[id]++;
+                }
+            }
+        }
+        counts[lengths.length] = words;
+        return counts;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.LeaveAccrualRun;
+import com.ems.backend.model.LeaveType;
+import com.ems.backend.repository.LeaveAccrualRunRepository;
+import com.ems.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaveAccrualService {
+
+    private final UserRepository userRepository;
+    private final LeaveAccrualRunRepository runRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Monthly credit per leave type; the balance on User is shared, so the
+    // policy is summed into a single credit
+    @Value("${leave.accrual.casual-days:1}")
+    private int casualDays;
+
+    @Value("${leave.accrual.sick-days:0}")
+    private int sickDays;
+
+    @Value("${leave.accrual.earned-days:1}")
+    private int earnedDays;
+
+    @Value("${leave.accrual.max-balance:45}")
+    private int maxBalance;
+
+    @Value("${leave.accrual.chunk-size:1000}")
+    private int chunkSize;
+
+    // Runs on the 1st of every month
+    @Scheduled(cron = "${leave.accrual.cron:0 0 1 1 * *}")
+    public void scheduledAccrual() {
+        resumeIncomplete();
+        runAccrual(YearMonth.now());
+    }
+
+    // A run that failed part-way (crash, lost database) is finished by the next
+    // tick instead of waiting for the next month or a manual call
+    @Scheduled(cron = "${leave.accrual.resume-cron:0 15 * * * *}")
+    public void resumeIncomplete() {
+        for (LeaveAccrualRun run : runRepository.findByCompletedFalseOrderByPeriod()) {
+            try {
+                runAccrual(YearMonth.parse(run.getPeriod()));
+            } catch (Exception e) {
+                log.warn("Resuming accrual for {} failed, will retry", run.getPeriod(), e);
+            }
+        }
+    }
+
+    public Map<LeaveType, Integer> getPolicy() {
+        Map<LeaveType, Integer> policy = new EnumMap<>(LeaveType.class);
+        policy.put(LeaveType.CASUAL_LEAVE, casualDays);
+        policy.put(LeaveType.SICK_LEAVE, sickDays);
+        policy.put(LeaveType.EARNED_LEAVE, earnedDays);
+        policy.put(LeaveType.UNPAID_LEAVE, 0);
+        return policy;
+    }
+
+    public LeaveAccrualRun runAccrual(YearMonth period) {
+        // A month is credited once it has started, never ahead of time
+        if (period.isAfter(YearMonth.now())) {
+            throw new IllegalArgumentException("Cannot accrue leave for future period " + period);
+        }
+        LeaveAccrualRun run = findOrStartRun(period);
+        if (run.isCompleted()) {
+            return run;
+        }
+
+        // Resume from the checkpoint: each chunk credits users and advances
+        // lastUserId in one transaction, so a crash never double-credits
+        int credit = run.getCreditDays();
+        Long lastUserId = run.getLastUserId();
+        while (true) {
+            List<Long> ids = userRepository.findActiveIdsAfter(lastUserId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Long expected = lastUserId;
+            Long chunkEnd = ids.get(ids.size() - 1);
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.accrueLeaveBalance(ids, credit, maxBalance);
+                if (runRepository.advanceCheckpoint(run.getId(), expected, chunkEnd, ids.size()) == 0) {
+                    throw new IllegalStateException("Accrual for " + run.getPeriod() + " is running elsewhere");
+                }
+            });
+            lastUserId = chunkEnd;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> runRepository.markCompleted(run.getId()));
+        return runRepository.findById(run.getId()).orElseThrow();
+    }
+
+    private LeaveAccrualRun findOrStartRun(YearMonth period) {
+        String key = period.toString();
+        return runRepository.findByPeriod(key).orElseGet(() -> {
+            int credit = getPolicy().values().stream().mapToInt(Integer::intValue).sum();
+            try {
+                return runRepository.save(LeaveAccrualRun.builder()
+                        .period(key)
+                        .creditDays(credit)
+                        .completed(false)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Another node started the same period first
+                return runRepository.findByPeriod(key).orElseThrow(() -> e);
+            }
+        });
+    }
+}
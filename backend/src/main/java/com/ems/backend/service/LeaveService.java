@@ -2,11 +2,16 @@ package com.ems.backend.service;
 
 import com.ems.backend.model.LeaveRequest;
 import com.ems.backend.model.LeaveStatus;
+import com.ems.backend.model.OutboxEvent;
+import com.ems.backend.model.OutboxEventType;
 import com.ems.backend.model.User;
 import com.ems.backend.repository.LeaveRepository;
+import com.ems.backend.repository.OutboxEventRepository;
 import com.ems.backend.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -17,9 +22,10 @@ public class LeaveService {
 
     private final LeaveRepository leaveRepository;
     private final UserRepository userRepository;
-    private final AttendanceService attendanceService;
+    private final OutboxEventRepository outboxEventRepository;
 
     // Apply for Leave
+    @Timed("leave.apply")
     public LeaveRequest applyLeave(Long userId, LeaveRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -44,22 +50,29 @@ public class LeaveService {
     }
 
     // Get My Leaves
+    @Transactional(readOnly = true)
     public List<LeaveRequest> getMyLeaves(Long userId) {
         return leaveRepository.findByUserIdOrderByStartDateDesc(userId);
     }
 
     // Get Pending Leaves (HR)
+    @Transactional(readOnly = true)
     public List<LeaveRequest> getPendingLeaves() {
         return leaveRepository.findByStatusOrderByStartDateDesc(LeaveStatus.PENDING);
     }
 
     // Get All Leaves (HR)
+    @Transactional(readOnly = true)
     public List<LeaveRequest> getAllLeaves() {
-        return leaveRepository.findAll(org.springframework.data.domain.Sort
+        return leaveRepository.findAllWithUser(org.springframework.data.domain.Sort
                 .by(org.springframework.data.domain.Sort.Direction.DESC, "startDate"));
     }
 
     // Approve/Reject Leave
+    // Balance and status changes are conditional UPDATEs rather than
+    // read-check-write, so parallel approvals cannot overspend or double-decide.
+    @Timed("leave.decide")
+    @Transactional
     public LeaveRequest updateLeaveStatus(Long leaveId, LeaveStatus status) {
         LeaveRequest leave = leaveRepository.findById(leaveId)
                 .orElseThrow(() -> new IllegalArgumentException("Leave request not found"));
@@ -68,27 +81,31 @@ public class LeaveService {
             throw new IllegalStateException("Leave request is already processed");
         }
 
-        if (status == LeaveStatus.APPROVED) {
-            User user = leave.getUser();
-            long days = ChronoUnit.DAYS.between(leave.getStartDate(), leave.getEndDate()) + 1;
+        Long userId = leave.getUser().getId();
+        int days = (int) (ChronoUnit.DAYS.between(leave.getStartDate(), leave.getEndDate()) + 1);
+
+        if (leaveRepository.transitionStatus(leaveId, LeaveStatus.PENDING, status) == 0) {
+            throw new IllegalStateException("Leave request is already processed");
+        }
 
-            if (user.getLeaveBalance() < days) {
+        if (status == LeaveStatus.APPROVED) {
+            if (userRepository.debitLeaveBalance(userId, days) == 0) {
+                // Rolls back the status transition as well
                 throw new IllegalArgumentException("User no longer has sufficient balance");
             }
+        }
 
-            user.setLeaveBalance((int) (user.getLeaveBalance() - days));
-            userRepository.save(user);
+        // Bulk updates clear the persistence context; reload the fresh state
+        leave = leaveRepository.findWithUserById(leaveId).orElseThrow();
 
-            // Update Attendance
-            try {
-                attendanceService.handleLeaveApproval(leave);
-            } catch (Exception e) {
-                // Log and ignore? Or fail transaction? Fail transaction is safer.
-                throw new RuntimeException("Failed to update attendance records: " + e.getMessage());
-            }
-        }
+        // Attendance is projected asynchronously by OutboxDispatcher; the event
+        // commits or rolls back together with the decision
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEventType.LEAVE_DECIDED)
+                .aggregateId(leaveId)
+                .payload(status.name())
+                .build());
 
-        leave.setStatus(status);
-        return leaveRepository.save(leave);
+        return leave;
     }
 }
@@ -0,0 +1,350 @@
+package com.ems.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gemini client shared by every caller. One HTTP/2-capable client keeps
+// connections alive; each call gets an overall deadline, jittered retries on
+// 429/5xx, an optional hedged request for slow attempts, and a circuit breaker
+// so a failing upstream is skipped instead of waited on.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LlmClient {
+
+    enum Outcome { SUCCESS, RETRYABLE_ERROR, ERROR, TIMEOUT, REJECTED }
+
+    public static class LlmUnavailableException extends RuntimeException {
+        public LlmUnavailableException(String reason) {
+            super(reason);
+        }
+    }
+
+    // UPDATE: As of Jan 2026, 'gemini-1.5' is deprecated.
+    // We must use 'gemini-2.5-flash' which is the current free tier standard.
+    private static final String MODEL_NAME = "gemini-2.5-flash";
+
+    @Value("${gemini.api.key:}")
+    private String apiKey;
+
+    // Gemini 2.5 models require the 'v1beta' endpoint (overridable to point at a stub)
+    @Value("${gemini.api.endpoint:https://generativelanguage.googleapis.com/v1beta/models/}")
+    private String apiEndpoint;
+
+    @Value("${gemini.api.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    // Per attempt; the whole call including retries is bounded by the deadline
+    @Value("${gemini.api.request-timeout-ms:30000}")
+    private long requestTimeoutMs;
+
+    @Value("${gemini.api.deadline-ms:45000}")
+    private long deadlineMs;
+
+    // Upper bound on concurrent upstream calls, shared by every caller
+    @Value("${gemini.api.max-concurrent-calls:8}")
+    private int maxConcurrentCalls;
+
+    @Value("${gemini.api.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${gemini.api.retry-base-ms:200}")
+    private long retryBaseMs;
+
+    @Value("${gemini.api.retry-max-ms:2000}")
+    private long retryMaxMs;
+
+    // 0 disables hedging; otherwise a second request is raced after this delay
+    @Value("${gemini.api.hedge-after-ms:0}")
+    private long hedgeAfterMs;
+
+    @Value("${gemini.api.breaker.window:20}")
+    private int breakerWindow;
+
+    @Value("${gemini.api.breaker.min-calls:10}")
+    private int breakerMinCalls;
+
+    @Value("${gemini.api.breaker.failure-rate:0.5}")
+    private double breakerFailureRate;
+
+    @Value("${gemini.api.breaker.open-ms:30000}")
+    private long breakerOpenMs;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Outcome, Timer> latency = new EnumMap<>(Outcome.class);
+    private Counter retries;
+    private Counter hedges;
+    private HttpClient httpClient;
+    private Semaphore permits;
+    private CircuitBreaker breaker;
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        permits = new Semaphore(maxConcurrentCalls);
+        breaker = new CircuitBreaker(breakerWindow, breakerMinCalls, breakerFailureRate, breakerOpenMs);
+        // Attempt latency by outcome; percentiles cover the last couple of minutes
+        for (Outcome outcome : Outcome.values()) {
+            latency.put(outcome, Timer.builder("llm.requests")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+        retries = meterRegistry.counter("llm.retries");
+        hedges = meterRegistry.counter("llm.hedges");
+        Gauge.builder("llm.permits.available", permits, Semaphore::availablePermits).register(meterRegistry);
+        // 0 = closed, 1 = open, 2 = half-open
+        Gauge.builder("llm.breaker.state", breaker, b -> b.getState().ordinal()).register(meterRegistry);
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank() && !apiKey.contains("YOUR_API_KEY");
+    }
+
+    // Returns the text of the first candidate, or throws with a short reason
+    public String generateContent(String prompt) throws InterruptedException {
+        if (!breaker.tryAcquire()) {
+            latency.get(Outcome.REJECTED).record(0, TimeUnit.MILLISECONDS);
+            throw new LlmUnavailableException("AI Circuit Open");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        if (!permits.tryAcquire(Math.min(requestTimeoutMs, deadlineMs), TimeUnit.MILLISECONDS)) {
+            breaker.onIgnored();
+            latency.get(Outcome.REJECTED).record(0, TimeUnit.MILLISECONDS);
+            throw new LlmUnavailableException("AI Service Busy");
+        }
+        try {
+            String body = post(prompt, deadline);
+            JsonNode root = objectMapper.readTree(body);
+            if (!root.path("candidates").has(0)) {
+                throw new LlmUnavailableException("AI returned no content");
+            }
+            return root.path("candidates").get(0).path("content").path("parts").path(0).path("text").asText();
+        } catch (IOException e) {
+            throw new LlmUnavailableException("AI returned invalid JSON");
+        } finally {
+            permits.release();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("breakerState", breaker.getState());
+        stats.put("availablePermits", permits.availablePermits());
+        stats.put("retries", (long) retries.count());
+        stats.put("hedges", (long) hedges.count());
+        Map<String, Object> byOutcome = new LinkedHashMap<>();
+        latency.forEach((outcome, timer) -> byOutcome.put(outcome.name(), describe(timer.takeSnapshot())));
+        stats.put("latency", byOutcome);
+        return stats;
+    }
+
+    private String post(String prompt, long deadline) throws IOException, InterruptedException {
+        URI uri = URI.create(apiEndpoint + MODEL_NAME + ":generateContent?key=" + apiKey.trim());
+        String payload = objectMapper.writeValueAsString(Map.of(
+                "contents", List.of(Map.of(
+                        "parts", List.of(Map.of("text", prompt))))));
+
+        for (int attempt = 0; ; attempt++) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                breaker.onFailure();
+                throw new LlmUnavailableException("AI Timeout");
+            }
+            long started = System.nanoTime();
+            String reason;
+            long retryAfterMs = 0;
+            try {
+                HttpResponse<String> response = send(uri, payload, Math.min(requestTimeoutMs, remainingMs));
+                int status = response.statusCode();
+                if (status == 200) {
+                    record(Outcome.SUCCESS, started);
+                    breaker.onSuccess();
+                    return response.body();
+                }
+                reason = "API Error " + status;
+                if (status != 429 && status < 500) {
+                    // The request itself is wrong; retrying or tripping the breaker will not help
+                    record(Outcome.ERROR, started);
+                    breaker.onIgnored();
+                    log.warn("Gemini rejected the request with {}: {}", status, abbreviate(response.body()));
+                    throw new LlmUnavailableException(reason);
+                }
+                record(Outcome.RETRYABLE_ERROR, started);
+                retryAfterMs = retryAfterMs(response.headers().firstValue("Retry-After").orElse(null));
+            } catch (HttpTimeoutException e) {
+                record(Outcome.TIMEOUT, started);
+                reason = "AI Timeout";
+            } catch (IOException e) {
+                record(Outcome.RETRYABLE_ERROR, started);
+                reason = "AI Connection Error";
+            }
+
+            log.warn("Gemini attempt {} failed: {}", attempt + 1, reason);
+            // Full jitter, but never sooner than the server asked and never past the deadline
+            long backoffMs = Math.max(retryAfterMs,
+                    ThreadLocalRandom.current().nextLong(Math.min(retryMaxMs, retryBaseMs << attempt) + 1));
+            if (attempt >= maxRetries
+                    || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs) >= deadline) {
+                breaker.onFailure();
+                throw new LlmUnavailableException(reason);
+            }
+            retries.increment();
+            Thread.sleep(backoffMs);
+        }
+    }
+
+    // Retry-After is either delay-seconds or an HTTP-date; anything else is no hint
+    static long retryAfterMs(String header) {
+        if (header == null || header.isBlank()) {
+            return 0;
+        }
+        String value = header.trim();
+        try {
+            return value.chars().allMatch(Character::isDigit)
+                    ? TimeUnit.SECONDS.toMillis(Long.parseLong(value))
+                    : Math.max(0, ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+                            .toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private HttpResponse<String> send(URI uri, String payload, long timeoutMs)
+            throws IOException, InterruptedException {
+        if (hedgeAfterMs <= 0 || hedgeAfterMs >= timeoutMs) {
+            return httpClient.send(request(uri, payload, timeoutMs), HttpResponse.BodyHandlers.ofString());
+        }
+        CompletableFuture<HttpResponse<String>> primary =
+                httpClient.sendAsync(request(uri, payload, timeoutMs), HttpResponse.BodyHandlers.ofString());
+        try {
+            return primary.get(hedgeAfterMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            // Hedge only with a spare permit so hedging cannot exceed the concurrency cap
+            if (!permits.tryAcquire()) {
+                return await(primary);
+            }
+            hedges.increment();
+            CompletableFuture<HttpResponse<String>> hedge = httpClient.sendAsync(
+                    request(uri, payload, timeoutMs - hedgeAfterMs), HttpResponse.BodyHandlers.ofString());
+            hedge.whenComplete((response, error) -> permits.release());
+            try {
+                return await(firstSuccessful(primary, hedge));
+            } finally {
+                primary.cancel(true);
+                hedge.cancel(true);
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            throw e;
+        }
+    }
+
+    // Completes with the first 200, or with the last outcome if neither succeeds
+    private static CompletableFuture<HttpResponse<String>> firstSuccessful(
+            CompletableFuture<HttpResponse<String>> first, CompletableFuture<HttpResponse<String>> second) {
+        CompletableFuture<HttpResponse<String>> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (CompletableFuture<HttpResponse<String>> future : List.of(first, second)) {
+            future.whenComplete((response, error) -> {
+                if (error == null && response.statusCode() == 200) {
+                    winner.complete(response);
+                } else if (pending.decrementAndGet() == 0) {
+                    if (error == null) {
+                        winner.complete(response);
+                    } else {
+                        winner.completeExceptionally(error);
+                    }
+                }
+            });
+        }
+        return winner;
+    }
+
+    private static HttpResponse<String> await(CompletableFuture<HttpResponse<String>> future)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof java.util.concurrent.CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof IOException io ? io : new IOException(cause);
+    }
+
+    private static HttpRequest request(URI uri, String payload, long timeoutMs) {
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMillis(timeoutMs))
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+    }
+
+    private void record(Outcome outcome, long startedNanos) {
+        latency.get(outcome).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Map<String, Object> describe(HistogramSnapshot snapshot) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", snapshot.count());
+        stats.put("meanMs", (long) snapshot.mean(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            stats.put("p" + Math.round(value.percentile() * 100) + "Ms", (long) value.value(TimeUnit.MILLISECONDS));
+        }
+        stats.put("maxMs", (long) snapshot.max(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() <= 200 ? body : body.substring(0, 200) + "...";
+    }
+}
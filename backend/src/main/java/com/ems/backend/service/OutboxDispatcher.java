@@ -0,0 +1,128 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.LeaveRequest;
+import com.ems.backend.model.LeaveStatus;
+import com.ems.backend.model.OutboxEvent;
+import com.ems.backend.repository.LeaveRepository;
+import com.ems.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Drains outbox_events in id order. Every event is applied and marked processed in
+// one transaction, and all handlers are idempotent, so a crash at any point is
+// recovered by simply replaying what is still pending. A failed event backs off
+// exponentially before its next attempt, so a short outage does not burn through
+// its attempts and turn it into a dead letter.
+@Service
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final LeaveRepository leaveRepository;
+    private final AttendanceService attendanceService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.dispatch.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    // Delay after the first failure, doubled after each further one
+    @Value("${outbox.dispatch.retry-base-ms:10000}")
+    private long retryBaseMs;
+
+    @Value("${outbox.dispatch.retry-max-ms:600000}")
+    private long retryMaxMs;
+
+    // Read on scrape; both are single indexed queries
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("outbox.pending", this, OutboxDispatcher::getPendingCount).register(meterRegistry);
+        Gauge.builder("outbox.dead", this, OutboxDispatcher::getDeadCount).register(meterRegistry);
+        Gauge.builder("outbox.lag", this, dispatcher -> dispatcher.getLag().toMillis() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch.interval-ms:1000}")
+    public void dispatchPending() {
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findPending(maxAttempts, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (OutboxEvent event : batch) {
+                dispatch(event.getId());
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    void dispatch(Long eventId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OutboxEvent event = outboxEventRepository.findById(eventId).orElseThrow();
+                if (event.getProcessedAt() != null) {
+                    return; // Already applied by an earlier run
+                }
+                switch (event.getEventType()) {
+                    case LEAVE_DECIDED -> applyLeaveDecided(event);
+                }
+                event.setProcessedAt(LocalDateTime.now());
+                outboxEventRepository.save(event);
+            });
+        } catch (Exception e) {
+            // Failed events stay pending and are retried, after a backoff, until maxAttempts
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(eventId)
+                    .ifPresent(event -> {
+                        event.setAttempts(event.getAttempts() + 1);
+                        event.setNextAttemptAt(LocalDateTime.now().plus(backoff(event.getAttempts())));
+                        String message = String.valueOf(e.getMessage());
+                        event.setLastError(message.substring(0, Math.min(message.length(), 1000)));
+                        outboxEventRepository.save(event);
+                    }));
+        }
+    }
+
+    // retryBaseMs, 2x, 4x, ... up to retryMaxMs
+    Duration backoff(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(delay <= 0 ? retryMaxMs : Math.min(delay, retryMaxMs));
+    }
+
+    private void applyLeaveDecided(OutboxEvent event) {
+        LeaveRequest leave = leaveRepository.findById(event.getAggregateId())
+                .orElseThrow(() -> new IllegalStateException("Leave request not found: " + event.getAggregateId()));
+
+        if (leave.getStatus() == LeaveStatus.APPROVED) {
+            attendanceService.handleLeaveApproval(leave);
+        }
+        // REJECTED has no side effects yet
+    }
+
+    // Number of events not yet applied that will still be retried
+    public long getPendingCount() {
+        return outboxEventRepository.countByProcessedAtIsNullAndAttemptsLessThan(maxAttempts);
+    }
+
+    // Events that ran out of attempts; they need a fix and a manual replay
+    public long getDeadCount() {
+        return outboxEventRepository.countByProcessedAtIsNullAndAttemptsGreaterThanEqual(maxAttempts);
+    }
+
+    // Age of the oldest retryable event, zero when the outbox is drained
+    public Duration getLag() {
+        LocalDateTime oldest = outboxEventRepository.findOldestPendingCreatedAt(maxAttempts);
+        return oldest == null ? Duration.ZERO : Duration.between(oldest, LocalDateTime.now());
+    }
+}
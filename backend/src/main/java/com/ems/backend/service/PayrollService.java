@@ -1,17 +1,30 @@
 package com.ems.backend.service;
 
+import com.ems.backend.dto.PayrollSummaryDTO;
 import com.ems.backend.model.*;
-import com.ems.backend.repository.AttendanceRepository;
 import com.ems.backend.repository.PayrollRepository;
 import com.ems.backend.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Timestamp;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.time.LocalDateTime;
 
 import com.lowagie.text.*;
@@ -24,14 +37,43 @@ import java.io.ByteArrayOutputStream;
 @RequiredArgsConstructor
 public class PayrollService {
 
+    private static final String INSERT_SQL = "INSERT INTO payroll (employee_id, month, year, base_salary, "
+            + "payable_days, deduction_amount, net_salary, status, generated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final PayrollRepository payrollRepository;
-    private final AttendanceRepository attendanceRepository;
     private final UserRepository userRepository;
+    private final AttendanceArchiveService attendanceArchiveService;
+    private final MeterRegistry meterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${payroll.generate.chunk-size:1000}")
+    private int chunkSize;
+
+    // Size of the most recent generation run, plus running totals
+    private final AtomicLong lastRunEmployees = new AtomicLong();
+    private final AtomicLong lastRunRows = new AtomicLong();
+    private Counter employeesProcessed;
+    private Counter rowsWritten;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("payroll.run.employees", lastRunEmployees, AtomicLong::get)
+                .description("Employees considered by the last payroll run")
+                .register(meterRegistry);
+        Gauge.builder("payroll.run.rows", lastRunRows, AtomicLong::get)
+                .description("Payroll rows written by the last payroll run")
+                .register(meterRegistry);
+        employeesProcessed = meterRegistry.counter("payroll.employees.processed");
+        rowsWritten = meterRegistry.counter("payroll.rows.written");
+    }
 
+    @Timed("payroll.generate")
     @Transactional
     public void generatePayroll(int month, int year) {
-        // 1. Check if Attendance is Finalized
-        if (!attendanceRepository.isMonthFinalized(month, year)) {
+        // 1. Check if Attendance is Finalized (archived months are read from attendance_archive)
+        YearMonth yearMonth = YearMonth.of(year, month);
+        AttendanceArchiveService.Location location = attendanceArchiveService.locate(yearMonth);
+        if (!attendanceArchiveService.isFinalized(location, yearMonth)) {
             throw new IllegalStateException("Cannot generate payroll. Attendance for this month is not finalized.");
         }
 
@@ -40,86 +82,95 @@ public class PayrollService {
             throw new IllegalStateException("Payroll for this month has already been generated.");
         }
 
-        List<User> employees = userRepository.findAll(); // Should filter active
-        int totalDaysInMonth = YearMonth.of(year, month).lengthOfMonth();
-
-        for (User employee : employees) {
-            // Skip admins or those with 0 salary if needed
-            if (employee.getSalary() == null || employee.getSalary().compareTo(BigDecimal.ZERO) <= 0)
-                continue;
-
+        int totalDaysInMonth = yearMonth.lengthOfMonth();
+        Timestamp generatedAt = Timestamp.valueOf(LocalDateTime.now());
+        long employees = 0;
+        long written = 0;
+
+        // Employees are read a chunk at a time by id (id and salary only) and their
+        // payable days summed by the database, so memory stays flat whatever the headcount
+        Long afterId = 0L;
+        List<Object[]> chunk;
+        do {
+            chunk = userRepository.findSalariesAfter(afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Long fromId = (Long) chunk.get(0)[0];
+            afterId = (Long) chunk.get(chunk.size() - 1)[0];
             // 3. Calculate Payable Days
-            List<Attendance> attendanceRecords = attendanceRepository.findByEmployeeAndDateRange(
-                    employee.getId(),
-                    java.time.LocalDate.of(year, month, 1),
-                    java.time.LocalDate.of(year, month, totalDaysInMonth));
-
-            double payableDays = 0;
             // If no attendance records found (e.g. joined mid-month or error), assumes 0
             // payable.
             // In the init logic, we create records for all days. So this should be fine.
-
-            for (Attendance record : attendanceRecords) {
-                if (record.getStatus() == AttendanceStatus.PRESENT) {
-                    payableDays += 1.0;
-                } else if (record.getStatus() == AttendanceStatus.HALF_DAY) {
-                    payableDays += 0.5;
-                } else if (record.getStatus() == AttendanceStatus.LEAVE) {
-                    // Check Leave Type. If Unpaid => 0, else 1
-                    if (record.getLeaveRequest() != null
-                            && record.getLeaveRequest().getLeaveType() == LeaveType.UNPAID_LEAVE) {
-                        payableDays += 0;
-                    } else {
-                        payableDays += 1.0; // Paid Leave
-                    }
-                }
-                // ABSENT => 0
+            Map<Long, Double> payableDaysByEmployee = attendanceArchiveService.sumPayableDays(location, yearMonth,
+                    fromId, afterId);
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+
+            for (Object[] employee : chunk) {
+                Long employeeId = (Long) employee[0];
+                BigDecimal baseSalary = (BigDecimal) employee[1];
+                // Skip admins or those with 0 salary if needed
+                if (baseSalary == null || baseSalary.compareTo(BigDecimal.ZERO) <= 0)
+                    continue;
+
+                double payableDays = payableDaysByEmployee.getOrDefault(employeeId, 0.0);
+
+                // 4. Calculate Salary
+                BigDecimal perDaySalary = baseSalary.divide(BigDecimal.valueOf(totalDaysInMonth), 2,
+                        RoundingMode.HALF_UP);
+
+                // Calculation: Net = PerDay * PayableDays
+                BigDecimal netSalary = perDaySalary.multiply(BigDecimal.valueOf(payableDays)).setScale(2,
+                        RoundingMode.HALF_UP);
+
+                BigDecimal deduction = baseSalary.subtract(netSalary);
+                if (deduction.compareTo(BigDecimal.ZERO) < 0)
+                    deduction = BigDecimal.ZERO;
+
+                // 5. Create Payroll Record
+                rows.add(new Object[] { employeeId, month, year, baseSalary, (int) Math.ceil(payableDays),
+                        deduction, netSalary, PayrollStatus.GENERATED.name(), generatedAt });
             }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            employees += chunk.size();
+            written += rows.size();
+        } while (chunk.size() == chunkSize);
+
+        lastRunEmployees.set(employees);
+        lastRunRows.set(written);
+        employeesProcessed.increment(employees);
+        rowsWritten.increment(written);
+    }
 
-            // 4. Calculate Salary
-            BigDecimal baseSalary = employee.getSalary();
-            BigDecimal perDaySalary = baseSalary.divide(BigDecimal.valueOf(totalDaysInMonth), 2, RoundingMode.HALF_UP);
-
-            // Calculation: Net = PerDay * PayableDays
-            BigDecimal netSalary = perDaySalary.multiply(BigDecimal.valueOf(payableDays)).setScale(2,
-                    RoundingMode.HALF_UP);
-
-            BigDecimal deduction = baseSalary.subtract(netSalary);
-            if (deduction.compareTo(BigDecimal.ZERO) < 0)
-                deduction = BigDecimal.ZERO;
-
-            // 5. Create Payroll Record
-            Payroll payroll = Payroll.builder()
-                    .employee(employee)
-                    .month(month)
-                    .year(year)
-                    .baseSalary(baseSalary)
-                    .payableDays((int) Math.ceil(payableDays)) // Store as Int as per Entity definition
-                    .deductionAmount(deduction)
-                    .netSalary(netSalary)
-                    .status(PayrollStatus.GENERATED)
-                    .build();
-
-            payrollRepository.save(payroll);
+    @Transactional(readOnly = true)
+    public Page<PayrollSummaryDTO> getPayroll(int month, int year, PayrollStatus status, int page, int size) {
+        if (page < 0 || size < 1 || size > 200) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and 200");
         }
+        return payrollRepository.findSummaries(month, year, status, PageRequest.of(page, size));
     }
 
-    public List<Payroll> getPayroll(int month, int year) {
-        return payrollRepository.findByMonthAndYear(month, year);
+    // Whole month, regardless of any listing filter: drives the Generate/Disburse buttons
+    @Transactional(readOnly = true)
+    public Map<String, Boolean> getPayrollState(int month, int year) {
+        return Map.of(
+                "generated", payrollRepository.existsByMonthAndYear(month, year),
+                "unpaid", payrollRepository.existsByMonthAndYearAndStatusNot(month, year, PayrollStatus.PAID));
     }
 
+    @Transactional
     public Payroll markAsPaid(Long id) {
-        Payroll payroll = payrollRepository.findById(id)
+        Payroll payroll = payrollRepository.findWithEmployeeById(id)
                 .orElseThrow(() -> new RuntimeException("Payroll not found"));
         payroll.setStatus(PayrollStatus.PAID);
         payroll.setPaymentDate(LocalDateTime.now());
         return payrollRepository.save(payroll);
     }
 
+    @Timed("payroll.process")
     @Transactional
     public void processPayroll(int month, int year) {
-        List<Payroll> payrolls = payrollRepository.findByMonthAndYear(month, year);
-        if (payrolls.isEmpty()) {
+        if (!payrollRepository.existsByMonthAndYear(month, year)) {
             throw new RuntimeException("No payroll records found for this month to process.");
         }
 
@@ -130,17 +181,13 @@ public class PayrollService {
             Thread.currentThread().interrupt();
         }
 
-        for (Payroll p : payrolls) {
-            if (p.getStatus() != PayrollStatus.PAID) {
-                p.setStatus(PayrollStatus.PAID);
-                p.setPaymentDate(LocalDateTime.now());
-                payrollRepository.save(p);
-            }
-        }
+        payrollRepository.markPaid(month, year, PayrollStatus.PAID, LocalDateTime.now());
     }
 
+    @Timed("payroll.payslip")
+    @Transactional(readOnly = true)
     public byte[] generatePayslipPdf(Long payrollId) throws Exception {
-        Payroll payroll = payrollRepository.findById(payrollId)
+        Payroll payroll = payrollRepository.findWithEmployeeById(payrollId)
                 .orElseThrow(() -> new RuntimeException("Payroll not found"));
 
         ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -0,0 +1,257 @@
+package com.ems.backend.service;
+
+import com.ems.backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Profile images are streamed to disk and stored once per content hash under
+// uploads/avatars/<sha256>/: the original plus square JPEG thumbnails in fixed
+// sizes, generated off the request thread. Users point at a thumbnail URL; the
+// frontend swaps the size suffix for the size it renders.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProfileImageService {
+
+    public record StoredImage(String hash, String originalUrl, String thumbnailUrl, boolean thumbnailsReady) {
+    }
+
+    // Served by UploadsController under /uploads/
+    private static final Path AVATAR_DIR = Paths.get("uploads", "avatars");
+
+    private static final Map<String, String> EXTENSIONS = Map.of("jpeg", "jpg", "png", "png", "gif", "gif",
+            "bmp", "bmp");
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    private final UserRepository userRepository;
+
+    @Value("${profile.image.max-bytes:5242880}")
+    private long maxImageBytes;
+
+    // Guards against decompression bombs: a small file can declare a huge canvas
+    @Value("${profile.image.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${profile.image.sizes:64,128,256}")
+    private int[] sizes;
+
+    @Value("${profile.image.default-size:128}")
+    private int defaultSize;
+
+    @Value("${profile.image.base-url:http://localhost:8081/uploads/}")
+    private String baseUrl;
+
+    private final ExecutorService thumbnailer = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "avatar-thumbnail-" + THREAD_IDS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StoredImage store(MultipartFile file) throws IOException {
+        if (file.getSize() > maxImageBytes) {
+            throw new IllegalArgumentException("Image exceeds " + maxImageBytes + " bytes");
+        }
+        Files.createDirectories(AVATAR_DIR);
+        Path staged = Files.createTempFile(AVATAR_DIR, "upload-", ".tmp");
+        try {
+            file.transferTo(staged);
+            String extension = EXTENSIONS.get(probeFormat(staged));
+            String hash = sha256(staged);
+
+            // Same bytes uploaded before (by anyone): reuse the stored copy
+            Path directory = AVATAR_DIR.resolve(hash);
+            Path original = directory.resolve("original." + extension);
+            if (!Files.exists(original)) {
+                Files.createDirectories(directory);
+                Files.move(staged, original, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredImage(hash, url(hash, original.getFileName().toString()),
+                    url(hash, defaultSize + ".jpg"), thumbnailsReady(directory));
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    // Generates the thumbnails, then swaps the user's URL over unless they uploaded again meanwhile
+    public void generateThumbnailsAsync(StoredImage image, Long userId) {
+        thumbnailer.execute(() -> {
+            try {
+                Path directory = AVATAR_DIR.resolve(image.hash());
+                generateThumbnails(directory);
+                userRepository.replaceProfileImage(userId, image.originalUrl(), image.thumbnailUrl());
+            } catch (Exception e) {
+                log.warn("Could not generate thumbnails for image {}", image.hash(), e);
+            }
+        });
+    }
+
+    private void generateThumbnails(Path directory) throws IOException {
+        Path original;
+        try (var files = Files.list(directory)) {
+            original = files.filter(path -> path.getFileName().toString().startsWith("original."))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Original image missing in " + directory));
+        }
+        int largest = 0;
+        for (int size : sizes) {
+            largest = Math.max(largest, size);
+        }
+        BufferedImage source = readSquare(original, largest);
+        for (int size : sizes) {
+            Path target = directory.resolve(size + ".jpg");
+            if (Files.exists(target)) {
+                continue;
+            }
+            Path partial = Files.createTempFile(directory, size + "-", ".tmp");
+            try {
+                writeJpeg(scale(source, size), partial);
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
+    // Centre square crop, decoded with subsampling so a 24 MP photo never becomes a 96 MB raster
+    private BufferedImage readSquare(Path original, int largest) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = firstReader(in);
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int side = Math.min(width, height);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                int step = Math.max(1, side / (largest * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int size) {
+        // RGB canvas: JPEG has no alpha, transparent pixels become white
+        BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.85f);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // Validates from the header only: must be a readable image of sane dimensions
+    private String probeFormat(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            ImageReader reader = firstReader(in);
+            try {
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                if (!EXTENSIONS.containsKey(format)) {
+                    throw new IllegalArgumentException("Unsupported image format: " + format);
+                }
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    throw new IllegalArgumentException("Image exceeds " + maxPixels + " pixels");
+                }
+                return format;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader firstReader(ImageInputStream in) {
+        Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+        if (readers == null || !readers.hasNext()) {
+            throw new IllegalArgumentException("File is not a supported image");
+        }
+        return readers.next();
+    }
+
+    private boolean thumbnailsReady(Path directory) {
+        for (int size : sizes) {
+            if (!Files.exists(directory.resolve(size + ".jpg"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String url(String hash, String fileName) {
+        return baseUrl + "avatars/" + hash + "/" + fileName;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thumbnailer.shutdownNow();
+    }
+}
@@ -0,0 +1,244 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.PunchDTO;
+import com.ems.backend.model.Punch;
+import com.ems.backend.model.PunchDirection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Takes clock-in / clock-out punches from device gateways at shift-change rates.
+// Requests only validate and enqueue into a bounded in-memory ring buffer; one
+// writer thread drains it and inserts the punches with JDBC batches of up to
+// punch.writer.batch-size rows. When the database falls behind (or is down) the
+// writer keeps retrying its batch, the buffer fills and further punches are
+// refused with 503, so the gateway resends them instead of them being dropped.
+// Accepted (202) means buffered, not written: delivery is at-most-once until the
+// writer commits, and punches still in memory are lost if the process dies, or
+// if shutdown cannot reach the database. Gateways that must not lose punches
+// keep them until GET /api/punches/status shows pending back at zero.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PunchIngestionService {
+
+    private static final String INSERT_SQL = "INSERT INTO punches (employee_id, punched_at, direction, device_id, "
+            + "received_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final int MAX_DEVICE_ID_LENGTH = 64;
+    private static final long MAX_RETRY_BACKOFF_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Rounded up to a power of two
+    @Value("${punch.buffer.capacity:65536}")
+    private int capacity;
+
+    @Value("${punch.writer.batch-size:1000}")
+    private int batchSize;
+
+    // A partial batch is written once its oldest punch has waited this long
+    @Value("${punch.writer.max-delay-ms:200}")
+    private long maxDelayMs;
+
+    // Device clocks ahead of the server by more than this are refused
+    @Value("${punch.max-clock-skew-seconds:300}")
+    private long maxClockSkewSeconds;
+
+    // Older punches would land on days that are already closed
+    @Value("${punch.max-age-hours:48}")
+    private long maxAgeHours;
+
+    @Value("${punch.max-request-size:5000}")
+    private int maxRequestSize;
+
+    private RingBuffer<Punch> buffer;
+    private Thread writer;
+    private volatile boolean stopping;
+    private volatile String lastError;
+    private Counter accepted;
+    private Counter rejected;
+    private Counter written;
+    private Counter writeFailures;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void start() {
+        buffer = new RingBuffer<>(Integer.highestOneBit(Math.max(2, capacity - 1)) << 1);
+        accepted = meterRegistry.counter("punch.accepted");
+        rejected = meterRegistry.counter("punch.rejected");
+        written = meterRegistry.counter("punch.written");
+        writeFailures = meterRegistry.counter("punch.write.failures");
+        batchTimer = meterRegistry.timer("punch.write.batch");
+        Gauge.builder("punch.buffer.depth", this, service -> service.buffer.size()).register(meterRegistry);
+        writer = Thread.ofPlatform().name("punch-writer").start(this::writeLoop);
+    }
+
+    // Flushes what is buffered before the datasource goes away
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopping = true;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (buffer.size() > 0) {
+            log.warn("Shutting down with {} punches not written", buffer.size());
+        }
+    }
+
+    // Enqueues in order and stops at the first punch that does not fit, so the
+    // caller resends exactly punches[accepted..]
+    public Map<String, Object> ingest(List<PunchDTO> punches) {
+        if (punches == null || punches.isEmpty()) {
+            throw new IllegalArgumentException("No punches");
+        }
+        if (punches.size() > maxRequestSize) {
+            throw new IllegalArgumentException("At most " + maxRequestSize + " punches per request");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Punch> valid = new ArrayList<>(punches.size());
+        for (int i = 0; i < punches.size(); i++) {
+            valid.add(toPunch(i, punches.get(i), now));
+        }
+        int count = 0;
+        if (!stopping) {
+            while (count < valid.size() && buffer.offer(valid.get(count))) {
+                count++;
+            }
+        }
+        accepted.increment(count);
+        rejected.increment(valid.size() - count);
+        LockSupport.unpark(writer);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("accepted", count);
+        result.put("rejected", valid.size() - count);
+        return result;
+    }
+
+    private Punch toPunch(int index, PunchDTO punch, LocalDateTime now) {
+        if (punch == null || punch.getEmployeeId() == null || punch.getEmployeeId() <= 0) {
+            throw new IllegalArgumentException("Punch " + index + ": employeeId is required");
+        }
+        if (punch.getDirection() == null) {
+            throw new IllegalArgumentException("Punch " + index + ": direction must be IN or OUT");
+        }
+        PunchDirection direction = PunchDirection.valueOf(punch.getDirection());
+        LocalDateTime punchedAt = punch.getPunchedAt();
+        if (punchedAt == null || punchedAt.isAfter(now.plusSeconds(maxClockSkewSeconds))
+                || punchedAt.isBefore(now.minusHours(maxAgeHours))) {
+            throw new IllegalArgumentException("Punch " + index + ": punchedAt must be within the last "
+                    + maxAgeHours + " hours");
+        }
+        if (punch.getDeviceId() != null && punch.getDeviceId().length() > MAX_DEVICE_ID_LENGTH) {
+            throw new IllegalArgumentException("Punch " + index + ": deviceId is longer than "
+                    + MAX_DEVICE_ID_LENGTH + " characters");
+        }
+        return Punch.builder()
+                .employeeId(punch.getEmployeeId())
+                .punchedAt(punchedAt)
+                .direction(direction)
+                .deviceId(punch.getDeviceId())
+                .receivedAt(now)
+                .build();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("buffered", buffer.size());
+        status.put("capacity", buffer.capacity());
+        status.put("accepted", (long) accepted.count());
+        status.put("rejected", (long) rejected.count());
+        status.put("written", (long) written.count());
+        // Buffered or in the writer's current batch
+        status.put("pending", (long) (accepted.count() - written.count()));
+        status.put("writeFailures", (long) writeFailures.count());
+        status.put("batches", batchTimer.count());
+        status.put("meanBatchMs", batchTimer.mean(TimeUnit.MILLISECONDS));
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    private void writeLoop() {
+        List<Punch> batch = new ArrayList<>(batchSize);
+        long oldestNanos = 0;
+        while (true) {
+            if (batch.isEmpty()) {
+                oldestNanos = System.nanoTime();
+            }
+            buffer.drainTo(batch, batchSize - batch.size());
+            boolean due = batch.size() >= batchSize || stopping
+                    || System.nanoTime() - oldestNanos >= TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+            if (batch.isEmpty() || !due) {
+                if (stopping) {
+                    return;
+                }
+                // Woken early by ingest; the timeout bounds the delay of a partial batch
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(1, maxDelayMs / 4)));
+                continue;
+            }
+            if (!writeWithRetry(batch)) {
+                log.error("Dropped {} punches at shutdown: {}", batch.size(), lastError);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    // Holds the batch until it is written; false only if shutdown interrupts the retries
+    private boolean writeWithRetry(List<Punch> batch) {
+        long backoffMs = 100;
+        while (true) {
+            try {
+                batchTimer.record(() -> insert(batch));
+                written.increment(batch.size());
+                if (lastError != null) {
+                    log.info("Punch writes recovered");
+                    lastError = null;
+                }
+                return true;
+            } catch (Exception e) {
+                writeFailures.increment();
+                lastError = e.getMessage();
+                log.warn("Writing {} punches failed, retrying in {} ms: {}", batch.size(), backoffMs, e.getMessage());
+                if (stopping && backoffMs >= MAX_RETRY_BACKOFF_MS) {
+                    return false;
+                }
+                LockSupport.parkNanos(Duration.ofMillis(backoffMs).toNanos());
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    // One transaction per batch, so a failed attempt leaves nothing behind to
+    // duplicate on retry; on MySQL rewriteBatchedStatements sends multi-row INSERTs
+    private void insert(List<Punch> batch) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, punch) -> {
+            statement.setLong(1, punch.getEmployeeId());
+            statement.setTimestamp(2, Timestamp.valueOf(punch.getPunchedAt()));
+            statement.setString(3, punch.getDirection().name());
+            statement.setString(4, punch.getDeviceId());
+            statement.setTimestamp(5, Timestamp.valueOf(punch.getReceivedAt()));
+        }));
+    }
+}
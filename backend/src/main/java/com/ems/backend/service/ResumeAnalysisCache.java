@@ -0,0 +1,213 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import com.ems.backend.model.CachedAnalysis;
+import com.ems.backend.repository.CachedAnalysisRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Deduplicates resume work by SHA-256 of the uploaded bytes: extracted text per
+// file, analysis per (file, normalized role). Concurrent identical requests share
+// one in-flight computation; an optional database tier survives restarts.
+@Component
+@RequiredArgsConstructor
+public class ResumeAnalysisCache {
+
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private record ResultKey(String fileHash, String role) {
+    }
+
+    private final CachedAnalysisRepository cachedAnalysisRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ats.cache.max-texts:500}")
+    private long maxTexts;
+
+    @Value("${ats.cache.max-results:2000}")
+    private long maxResults;
+
+    @Value("${ats.cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${ats.cache.persistent:false}")
+    private boolean persistent;
+
+    @Value("${ats.cache.persistent-ttl-days:30}")
+    private long persistentTtlDays;
+
+    private AsyncCache<String, ResumeTextExtractor.Extraction> textCache;
+    private AsyncCache<ResultKey, AnalysisResultDTO> resultCache;
+    private final AtomicLong persistentHits = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        textCache = Caffeine.newBuilder()
+                .maximumSize(maxTexts)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .buildAsync();
+        resultCache = Caffeine.newBuilder()
+                .maximumSize(maxResults)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, textCache, "ats.text");
+        CaffeineCacheMetrics.monitor(meterRegistry, resultCache, "ats.result");
+        FunctionCounter.builder("ats.cache.persistent.hits", persistentHits, AtomicLong::get).register(meterRegistry);
+    }
+
+    public String sha256(InputStream in) throws IOException {
+        try {
+            DigestInputStream digestStream = new DigestInputStream(in, MessageDigest.getInstance("SHA-256"));
+            digestStream.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(digestStream.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public ResumeTextExtractor.Extraction getText(String fileHash, Loader<ResumeTextExtractor.Extraction> loader)
+            throws IOException {
+        ResumeTextExtractor.Extraction text = singleFlight(textCache, fileHash, loader);
+        if (!text.complete()) {
+            // Cut short by the time budget: shared with concurrent callers, then extracted again
+            textCache.synchronous().invalidate(fileHash);
+        }
+        return text;
+    }
+
+    public AnalysisResultDTO getResult(String fileHash, String role, Loader<AnalysisResultDTO> loader)
+            throws IOException {
+        ResultKey key = new ResultKey(fileHash, normalizeRole(role));
+        AnalysisResultDTO result = singleFlight(resultCache, key, () -> loadResult(key, loader));
+        if (result.isDegraded()) {
+            // Fallback and partial-text answers are served once but not kept
+            resultCache.synchronous().invalidate(key);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("text", describe(textCache.synchronous().stats(), textCache.synchronous().estimatedSize()));
+        stats.put("result", describe(resultCache.synchronous().stats(), resultCache.synchronous().estimatedSize()));
+        stats.put("persistentHits", persistentHits.get());
+        return stats;
+    }
+
+    static String normalizeRole(String role) {
+        return role.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // The first caller for a key computes on its own thread; everyone else waits
+    // on the same future. Failed futures are dropped by Caffeine automatically.
+    private <K, V> V singleFlight(AsyncCache<K, V> cache, K key, Loader<V> loader) throws IOException {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> shared = cache.get(key, (k, executor) -> mine);
+        if (shared == mine) {
+            try {
+                mine.complete(loader.load());
+            } catch (IOException | RuntimeException e) {
+                mine.completeExceptionally(e);
+            }
+        }
+        try {
+            return shared.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private AnalysisResultDTO loadResult(ResultKey key, Loader<AnalysisResultDTO> loader) throws IOException {
+        if (persistent) {
+            Optional<AnalysisResultDTO> stored = readPersisted(key);
+            if (stored.isPresent()) {
+                persistentHits.incrementAndGet();
+                return stored.get();
+            }
+        }
+
+        AnalysisResultDTO result = loader.load();
+        if (persistent && !result.isDegraded()) {
+            writePersisted(key, result);
+        }
+        return result;
+    }
+
+    private Optional<AnalysisResultDTO> readPersisted(ResultKey key) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(persistentTtlDays);
+        return cachedAnalysisRepository.findByFileHashAndRole(key.fileHash(), key.role())
+                .filter(entry -> entry.getCreatedAt() == null || entry.getCreatedAt().isAfter(cutoff))
+                // Local scores stored by earlier versions are not final analyses
+                .filter(entry -> !entry.getResultJson().contains(ResumeService.LOCAL_ANALYSIS_MARKER))
+                .map(entry -> {
+                    try {
+                        return objectMapper.readValue(entry.getResultJson(), AnalysisResultDTO.class);
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private void writePersisted(ResultKey key, AnalysisResultDTO result) throws JsonProcessingException {
+        String json = objectMapper.writeValueAsString(result);
+        CachedAnalysis entry = cachedAnalysisRepository.findByFileHashAndRole(key.fileHash(), key.role())
+                .orElseGet(() -> CachedAnalysis.builder().fileHash(key.fileHash()).role(key.role()).build());
+        entry.setResultJson(json);
+        entry.setCreatedAt(LocalDateTime.now());
+        try {
+            cachedAnalysisRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored the same analysis first
+        }
+    }
+
+    private static Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", size);
+        out.put("hits", stats.hitCount());
+        out.put("misses", stats.missCount());
+        out.put("hitRate", stats.hitRate());
+        out.put("evictions", stats.evictionCount());
+        return out;
+    }
+}
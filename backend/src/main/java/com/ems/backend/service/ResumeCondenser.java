@@ -0,0 +1,207 @@
+package com.ems.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Shrinks extracted resume text before it is sent to the LLM: whitespace is
+// normalized, running headers/footers and contact details are dropped, and the
+// text is split into sections that share a character budget by priority, so a
+// long experience section can no longer push the skills section out. Pages are
+// separated by form feeds (see ResumeTextExtractor).
+@Component
+public class ResumeCondenser {
+
+    enum Section {
+        SKILLS(0.25),
+        EXPERIENCE(0.40),
+        SUMMARY(0.10),
+        PROJECTS(0.10),
+        CERTIFICATIONS(0.05),
+        EDUCATION(0.05),
+        OTHER(0.05);
+
+        private final double share;
+
+        Section(double share) {
+            this.share = share;
+        }
+    }
+
+    private static final Map<Pattern, Section> HEADINGS = Map.of(
+            Pattern.compile("(technical |key |core )?(skills|competencies|technologies|tech stack)"), Section.SKILLS,
+            Pattern.compile("(work |professional )?(experience|employment|work history)"), Section.EXPERIENCE,
+            Pattern.compile("(professional )?(summary|profile|objective|about me)"), Section.SUMMARY,
+            Pattern.compile("(key |personal |academic )?projects"), Section.PROJECTS,
+            Pattern.compile("certifications?|licenses?|courses|training"), Section.CERTIFICATIONS,
+            Pattern.compile("education|academics?|qualifications?"), Section.EDUCATION);
+
+    private static final Pattern BULLETS = Pattern.compile("^[\\u2022\\u25CF\\u25AA\\u25E6\\u2023\\u2043*\\-]+\\s*");
+    private static final Pattern SPACES = Pattern.compile("[\\s\\u00A0]+");
+    // Emails, phone numbers and profile links; removed from the line, not the whole
+    // line, so "Code at github.com/jane/ledger" keeps its text and project link
+    private static final Pattern CONTACT = Pattern.compile("(?i)[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+"
+            + "|(?<![\\w.])(\\+\\d{1,3}[\\s.-]?)?(\\(\\d{3}\\)|\\d{3})[\\s.-]\\d{3}[\\s.-]\\d{4}(?![\\w.])"
+            + "|(?<![\\w.])\\+\\d{1,3}[\\s.-]?\\d{10}(?![\\w.])"
+            + "|(https?://)?(www\\.)?linkedin\\.com/\\S*"
+            + "|(https?://)?(www\\.)?github\\.com/[\\w-]+/?(?![\\w/.-])");
+    // What is left of a pure contact line once the details are removed
+    private static final Pattern CONTACT_RESIDUE = Pattern.compile(
+            "(?i)[\\s|,;:/()\\u2022\\u00B7-]*((e-?mail|phone|mobile|tel|cell|linkedin|github|contact)[\\s|,;:/()\\u2022\\u00B7-]*)*");
+    private static final Pattern SEPARATOR_RUNS = Pattern.compile("\\s*([|,;\\u2022\\u00B7]\\s*){2,}");
+    private static final Pattern EDGE_SEPARATORS = Pattern.compile("^[\\s|,;\\u2022\\u00B7]+|[\\s|,;\\u2022\\u00B7]+$");
+    private static final Pattern PAGE_MARKER = Pattern.compile("(?i)^(page\\s*)?\\d+(\\s*(of|/)\\s*\\d+)?$");
+
+    // Lines this close to the top or bottom of a page can be running headers/footers
+    private static final int EDGE_LINES = 2;
+
+    public String condense(String text, int charBudget) {
+        List<String> lines = normalize(text);
+        Map<Section, StringBuilder> sections = segment(lines);
+
+        // The "## SECTION" headers are part of the output, so they come off the budget first
+        int overhead = sections.keySet().stream().mapToInt(section -> header(section).length() + 1).sum();
+        int budget = Math.max(0, charBudget - overhead);
+
+        // Pass 1: every section gets up to its share; pass 2: leftovers by priority
+        Map<Section, Integer> allowance = new EnumMap<>(Section.class);
+        int used = 0;
+        for (Section section : Section.values()) {
+            int length = sections.containsKey(section) ? sections.get(section).length() : 0;
+            int granted = Math.min(length, (int) (budget * section.share));
+            allowance.put(section, granted);
+            used += granted;
+        }
+        for (Section section : Section.values()) {
+            int length = sections.containsKey(section) ? sections.get(section).length() : 0;
+            int extra = Math.min(length - allowance.get(section), budget - used);
+            if (extra > 0) {
+                allowance.merge(section, extra, Integer::sum);
+                used += extra;
+            }
+        }
+
+        StringBuilder out = new StringBuilder(Math.min(charBudget, text.length()));
+        for (Section section : Section.values()) {
+            int limit = allowance.get(section);
+            if (limit == 0) {
+                continue;
+            }
+            out.append(header(section))
+                    .append(truncateAtLine(sections.get(section), limit)).append('\n');
+        }
+        return out.toString().trim();
+    }
+
+    private static String header(Section section) {
+        return "## " + section + "\n";
+    }
+
+    private List<String> normalize(String text) {
+        List<List<String>> pages = new ArrayList<>();
+        Map<String, Integer> edgeFrequency = new HashMap<>();
+        for (String page : text.split("\f")) {
+            List<String> lines = new ArrayList<>();
+            for (String raw : page.split("\\R")) {
+                String line = clean(raw);
+                if (line != null) {
+                    lines.add(line);
+                }
+            }
+            Set<String> edges = new HashSet<>();
+            for (int i = 0; i < lines.size(); i++) {
+                if (isEdge(i, lines.size())) {
+                    edges.add(lines.get(i).toLowerCase(Locale.ROOT));
+                }
+            }
+            edges.forEach(line -> edgeFrequency.merge(line, 1, Integer::sum));
+            pages.add(lines);
+        }
+
+        // Short lines repeated at the top or bottom of several pages are running
+        // headers/footers; the same line in the body of a page is content
+        List<String> lines = new ArrayList<>();
+        for (List<String> page : pages) {
+            for (int i = 0; i < page.size(); i++) {
+                String line = page.get(i);
+                if (isEdge(i, page.size()) && line.length() <= 80 && headingOf(line) == null
+                        && edgeFrequency.get(line.toLowerCase(Locale.ROOT)) >= 3) {
+                    continue;
+                }
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static boolean isEdge(int index, int lineCount) {
+        return index < EDGE_LINES || index >= lineCount - EDGE_LINES;
+    }
+
+    // Null when nothing worth keeping is left
+    private static String clean(String raw) {
+        String line = SPACES.matcher(BULLETS.matcher(raw.strip()).replaceFirst("- ")).replaceAll(" ").strip();
+        if (line.isEmpty() || line.equals("-") || PAGE_MARKER.matcher(line).matches()) {
+            return null;
+        }
+        String withoutContact = CONTACT.matcher(line).replaceAll(" ");
+        if (withoutContact.equals(line)) {
+            return line;
+        }
+        if (CONTACT_RESIDUE.matcher(withoutContact).matches()) {
+            return null;
+        }
+        withoutContact = SEPARATOR_RUNS.matcher(withoutContact).replaceAll(" | ");
+        return SPACES.matcher(EDGE_SEPARATORS.matcher(withoutContact).replaceAll("")).replaceAll(" ");
+    }
+
+    private Map<Section, StringBuilder> segment(List<String> lines) {
+        Map<Section, StringBuilder> sections = new EnumMap<>(Section.class);
+        Section current = Section.OTHER;
+        for (String line : lines) {
+            Section heading = headingOf(line);
+            if (heading != null) {
+                current = heading;
+                continue;
+            }
+            StringBuilder body = sections.computeIfAbsent(current, s -> new StringBuilder());
+            if (!body.isEmpty()) {
+                body.append('\n');
+            }
+            body.append(line);
+        }
+        return sections;
+    }
+
+    private static Section headingOf(String line) {
+        if (line.length() > 40) {
+            return null;
+        }
+        String candidate = line.toLowerCase(Locale.ROOT).replaceAll("[:|]+$", "").strip();
+        for (Map.Entry<Pattern, Section> entry : HEADINGS.entrySet()) {
+            if (entry.getKey().matcher(candidate).matches()) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String truncateAtLine(CharSequence body, int limit) {
+        if (body.length() <= limit) {
+            return body.toString();
+        }
+        int cut = limit;
+        while (cut > 0 && body.charAt(cut) != '\n') {
+            cut--;
+        }
+        return body.subSequence(0, cut > 0 ? cut : limit).toString();
+    }
+}
@@ -1,93 +1,143 @@
 package com.ems.backend.service;
 
 import com.ems.backend.dto.AnalysisResultDTO;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class ResumeService {
 
-    @Value("${gemini.api.key:}")
-    private String apiKey;
+    // Appended to the summary of every in-process score
+    static final String LOCAL_ANALYSIS_MARKER = "(Local analysis: ";
 
-    // UPDATE: As of Jan 2026, 'gemini-1.5' is deprecated.
-    // We must use 'gemini-2.5-flash' which is the current free tier standard.
-    private static final String MODEL_NAME = "gemini-2.5-flash";
+    private final ResumeAnalysisCache analysisCache;
+    private final AtsScorer atsScorer;
+    private final ResumeTextExtractor textExtractor;
+    private final ResumeCondenser condenser;
+    private final LlmClient llmClient;
+    private final CandidateIndexService candidateIndex;
 
-    // Gemini 2.5 models require the 'v1beta' endpoint
-    private static final String API_ENDPOINT = "https://generativelanguage.googleapis.com/v1beta/models/";
+    // "primary" scores every resume in-process; "fallback" only when Gemini is unavailable
+    @Value("${ats.scorer.mode:fallback}")
+    private String scorerMode;
+
+    // Prompt budget for the condensed resume (about 4 characters per token)
+    @Value("${gemini.api.max-resume-tokens:1500}")
+    private int maxResumeTokens;
+
+    @Value("${ats.max-file-bytes:5242880}")
+    private long maxFileBytes;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final HttpClient httpClient = HttpClient.newHttpClient();
 
+    @Timed("ats.analyze")
     public AnalysisResultDTO analyzeResume(MultipartFile file, String targetRole) throws IOException {
-        String text = extractText(file);
+        checkSize(file);
+        // Move the multipart temp file instead of copying it into the heap
+        Path pdf = Files.createTempFile("ats-", ".pdf");
+        try {
+            file.transferTo(pdf);
+            return analyzeResume(pdf, file.getOriginalFilename(), targetRole);
+        } finally {
+            Files.deleteIfExists(pdf);
+        }
+    }
 
-        if (apiKey == null || apiKey.trim().isEmpty() || apiKey.contains("YOUR_API_KEY")) {
-            return mockAnalysis(text, targetRole, "API Key Missing");
+    // Hash first so repeated files skip extraction and analysis entirely. Only
+    // Gemini analyses of the complete text are cached; local scores are cheap
+    // and recomputed from the cached text, so a later API key takes effect at once.
+    @Timed("ats.analyze")
+    public AnalysisResultDTO analyzeResume(Path pdf, String fileName, String targetRole) throws IOException {
+        String hash;
+        try (InputStream in = Files.newInputStream(pdf)) {
+            hash = analysisCache.sha256(in);
         }
+        AnalysisResultDTO result;
+        if ("primary".equalsIgnoreCase(scorerMode)) {
+            result = localAnalysis(text(hash, pdf).text(), targetRole, "Primary Scorer");
+        } else {
+            result = analysisCache.getResult(hash, targetRole, () -> {
+                ResumeTextExtractor.Extraction text = text(hash, pdf);
+                AnalysisResultDTO analysis = analyzeText(text.text(), targetRole);
+                if (!text.complete()) {
+                    analysis.setDegraded(true);
+                }
+                return analysis;
+            });
+        }
+        indexCandidate(hash, fileName, targetRole, result, pdf);
+        return result;
+    }
 
-        return callGeminiAPI(text, targetRole);
+    private ResumeTextExtractor.Extraction text(String hash, Path pdf) throws IOException {
+        return analysisCache.getText(hash, () -> textExtractor.extract(pdf));
     }
 
-    private String extractText(MultipartFile file) throws IOException {
-        try (PDDocument document = Loader.loadPDF(file.getBytes())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+    public void checkSize(MultipartFile file) {
+        if (file.getSize() > maxFileBytes) {
+            throw new IllegalArgumentException("Resume exceeds " + maxFileBytes + " bytes");
         }
     }
 
-    private AnalysisResultDTO callGeminiAPI(String resumeText, String targetRole) {
-        try {
-            String cleanKey = apiKey.trim();
-            // Construct the 2026-compliant URL
-            String url = API_ENDPOINT + MODEL_NAME + ":generateContent?key=" + cleanKey;
-
-            String prompt = "Act as an ATS. Analyze this resume for a '" + targetRole + "' role. " +
-                    "Return a raw JSON object {score, missingKeywords, summary, recommendation}. " +
-                    "Resume: " + resumeText.substring(0, Math.min(resumeText.length(), 10000));
+    // Local-only scoring for bulk screening: no upstream call, text still cached
+    public AnalysisResultDTO analyzeResumeLocally(Path pdf, String fileName, String targetRole) throws IOException {
+        String hash;
+        try (InputStream in = Files.newInputStream(pdf)) {
+            hash = analysisCache.sha256(in);
+        }
+        AnalysisResultDTO result = localAnalysis(text(hash, pdf).text(), targetRole, "Bulk Screening");
+        indexCandidate(hash, fileName, targetRole, result, pdf);
+        return result;
+    }
 
-            // JSON Payload
-            String jsonPayload = objectMapper.writeValueAsString(Map.of(
-                    "contents", List.of(Map.of(
-                            "parts", List.of(Map.of("text", prompt))))));
+    // Best effort: a failed index write must not cost the caller its analysis
+    private void indexCandidate(String hash, String fileName, String targetRole, AnalysisResultDTO result, Path pdf) {
+        try {
+            candidateIndex.index(hash, fileName, targetRole, result,
+                    () -> text(hash, pdf).text());
+        } catch (Exception e) {
+            log.warn("Could not index candidate {} for role {}", fileName, targetRole, e);
+        }
+    }
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
-                    .build();
+    public Map<String, Object> getCacheStats() {
+        return analysisCache.getStats();
+    }
 
-            System.out.println("Sending AI Request to: " + MODEL_NAME + " for role: " + targetRole);
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    public Map<String, Object> getLlmStats() {
+        return llmClient.getStats();
+    }
 
-            if (response.statusCode() != 200) {
-                System.err.println("Google API Error: " + response.body());
-                // Fallback to simulation if the API limit is hit or model is busy
-                return mockAnalysis(resumeText, targetRole, "API Error " + response.statusCode());
-            }
+    private AnalysisResultDTO analyzeText(String text, String targetRole) {
+        if (!llmClient.isConfigured()) {
+            return fallbackAnalysis(text, targetRole, "API Key Missing");
+        }
 
-            JsonNode root = objectMapper.readTree(response.body());
+        return callGeminiAPI(text, targetRole);
+    }
 
-            if (!root.path("candidates").has(0)) {
-                return mockAnalysis(resumeText, targetRole, "AI returned no content");
-            }
+    private AnalysisResultDTO callGeminiAPI(String resumeText, String targetRole) {
+        try {
+            String prompt = "Act as an ATS. Analyze this resume for a '" + targetRole + "' role. " +
+                    "Return a raw JSON object {score, missingKeywords, summary, recommendation}. " +
+                    "Resume:\n" + condenser.condense(resumeText, maxResumeTokens * 4);
 
-            String responseText = root.path("candidates").get(0).path("content").path("parts").get(0).path("text")
-                    .asText();
+            log.debug("Sending AI request for role: {}", targetRole);
+            String responseText = llmClient.generateContent(prompt);
             responseText = responseText.replaceAll("```json", "").replaceAll("```", "").trim();
 
             JsonNode aiJson = objectMapper.readTree(responseText);
@@ -105,27 +155,27 @@ public class ResumeService {
                     .candidateName("Candidate")
                     .build();
 
+        } catch (LlmClient.LlmUnavailableException e) {
+            return fallbackAnalysis(resumeText, targetRole, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallbackAnalysis(resumeText, targetRole, "Interrupted");
         } catch (Exception e) {
-            e.printStackTrace();
-            return mockAnalysis(resumeText, targetRole, "System Error");
+            log.warn("Could not parse AI response", e);
+            return fallbackAnalysis(resumeText, targetRole, "System Error");
         }
     }
 
-    private AnalysisResultDTO mockAnalysis(String text, String targetRole, String reason) {
-        // High-Quality Simulation Logic
-        int score = 40;
-        // Simple heuristic: check if role keywords appear in text
-        if (text.toLowerCase().contains(targetRole.toLowerCase()))
-            score += 20;
-        if (text.toLowerCase().contains("experience"))
-            score += 10;
-
-        return AnalysisResultDTO.builder()
-                .score(score)
-                .missingKeywords(Arrays.asList("Skill A", "Skill B"))
-                .summary("Simulated Analysis for " + targetRole + ". Reason: " + reason)
-                .recommendation(score > 70 ? "Interview" : "Shortlist")
-                .candidateName("Candidate")
-                .build();
+    // No usable upstream: answer locally but keep the result out of the cache
+    private AnalysisResultDTO fallbackAnalysis(String text, String targetRole, String reason) {
+        AnalysisResultDTO result = localAnalysis(text, targetRole, reason);
+        result.setDegraded(true);
+        return result;
+    }
+
+    private AnalysisResultDTO localAnalysis(String text, String targetRole, String reason) {
+        AnalysisResultDTO result = atsScorer.score(text, targetRole);
+        result.setSummary(result.getSummary() + " " + LOCAL_ANALYSIS_MARKER + reason + ")");
+        return result;
     }
-}
\ No newline at end of file
+}
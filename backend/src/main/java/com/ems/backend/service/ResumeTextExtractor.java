@@ -0,0 +1,148 @@
+package com.ems.backend.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+// Memory-bounded PDF text extraction. The file is read through PDFBox's
+// buffered random-access reader (never loaded into a byte[]), decoded streams
+// spill to a scratch file past a small in-memory limit, and extraction stops at
+// a page or character budget because only the start of a resume is used. The
+// time budget is checked while a page's content stream is processed, so one
+// pathological page cannot overrun it. At most ats.pdf.max-concurrent documents
+// are parsed at once, whoever the caller.
+@Component
+public class ResumeTextExtractor {
+
+    // complete is false when the time budget cut extraction short; the text is
+    // then usable for this request but must not be cached as the file's text
+    public record Extraction(String text, boolean complete) {
+    }
+
+    @Value("${ats.pdf.max-pages:10}")
+    private int maxPages;
+
+    @Value("${ats.pdf.max-chars:20000}")
+    private int maxChars;
+
+    // Documents longer than this are rejected outright
+    @Value("${ats.pdf.reject-pages:300}")
+    private int rejectPages;
+
+    @Value("${ats.pdf.scratch-memory-bytes:4194304}")
+    private long scratchMemoryBytes;
+
+    @Value("${ats.pdf.scratch-max-bytes:67108864}")
+    private long scratchMaxBytes;
+
+    @Value("${ats.pdf.time-budget-ms:5000}")
+    private long timeBudgetMs;
+
+    // 0 = one per core; parsing is CPU and scratch-memory bound
+    @Value("${ats.pdf.max-concurrent:0}")
+    private int maxConcurrent;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors());
+    }
+
+    public Extraction extract(Path pdf) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to extract " + pdf.getFileName());
+        }
+        try {
+            return extractText(pdf);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Extraction extractText(Path pdf) throws IOException {
+        long deadline = System.nanoTime() + timeBudgetMs * 1_000_000;
+        MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(scratchMemoryBytes, scratchMaxBytes);
+
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadBufferedFile(pdf.toFile()),
+                memory.streamCache)) {
+            int pages = document.getNumberOfPages();
+            if (pages > rejectPages) {
+                throw new IllegalArgumentException("Resume has too many pages (" + pages + ")");
+            }
+
+            BudgetedStripper stripper = new BudgetedStripper(deadline);
+            StringBuilder text = new StringBuilder();
+            boolean complete = true;
+            int lastPage = Math.min(pages, maxPages);
+            for (int page = 1; page <= lastPage && text.length() < maxChars; page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                try {
+                    stripper.checkDeadline();
+                    text.append(stripper.getText(document)).append('\f'); // Page break for ResumeCondenser
+                } catch (TimeBudgetExceededException e) {
+                    if (text.isEmpty()) {
+                        throw new IllegalArgumentException("Resume could not be read within the time budget");
+                    }
+                    complete = false;
+                    break; // Keep the pages extracted so far
+                }
+            }
+            if (text.length() > maxChars) {
+                text.setLength(maxChars);
+            }
+            return new Extraction(text.toString(), complete);
+        }
+    }
+
+    private static class TimeBudgetExceededException extends IOException {
+        TimeBudgetExceededException() {
+            super("PDF text extraction time budget exceeded");
+        }
+    }
+
+    // Checks the deadline every few content stream operators (each glyph run,
+    // path or image draw is one), abandoning the page in progress
+    private static class BudgetedStripper extends PDFTextStripper {
+        private static final int CHECK_EVERY = 64;
+
+        private final long deadline;
+        private int operators;
+
+        BudgetedStripper(long deadline) {
+            this.deadline = deadline;
+        }
+
+        void checkDeadline() throws TimeBudgetExceededException {
+            if (System.nanoTime() > deadline) {
+                throw new TimeBudgetExceededException();
+            }
+        }
+
+        @Override
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            if (++operators % CHECK_EVERY == 0) {
+                checkDeadline();
+            }
+            super.processOperator(operator, operands);
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.AttendanceStatus;
+import com.ems.backend.model.LeaveStatus;
+import com.ems.backend.model.LeaveType;
+import com.ems.backend.model.PayrollStatus;
+import com.ems.backend.model.Role;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Bulk synthetic data for performance work: employees with a full history of
+// leaves, daily attendance and monthly payroll, written with parallel JDBC
+// batches. Employee n draws everything from its own random stream derived from
+// (seed, n), so a seed always yields the same rows whatever the thread count;
+// only the database-assigned ids differ between runs.
+// Off unless generator.enabled=true, and never meant for production data. The
+// accounts share one random password that is not kept anywhere, so none of them
+// can sign in until an admin sets a password.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "generator.enabled", havingValue = "true")
+public class SyntheticDataGenerator {
+
+    public record Spec(int employees, int years, long seed) {
+    }
+
+    // Cumulative weights parsed from "A:30,B:20,..."
+    private record Weighted<T>(List<T> values, double[] cumulative) {
+        T pick(SplittableRandom random) {
+            double roll = random.nextDouble() * cumulative[cumulative.length - 1];
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return values.get(i);
+                }
+            }
+            return values.get(values.size() - 1);
+        }
+    }
+
+    // A generated leave, in date order per employee
+    private record Leave(LocalDate start, LocalDate end, LeaveType type, LeaveStatus status) {
+    }
+
+    private static final int MAX_EMPLOYEES = 1_000_000;
+
+    private static final int MAX_YEARS = 10;
+
+    // Employees per task handed to the worker pool
+    private static final int CHUNK = 250;
+
+    // Pending leaves are drawn up to this far ahead
+    private static final int FUTURE_DAYS = 60;
+
+    private static final String USER_SQL = "INSERT INTO users (name, email, password, department, phone, address, "
+            + "role, salary, leave_balance, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String LEAVE_SQL = "INSERT INTO leave_requests (user_id, start_date, end_date, reason, status, "
+            + "leave_type, applied_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ATTENDANCE_SQL = "INSERT INTO attendance (employee_id, date, status, leave_request_id, "
+            + "finalized) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String PAYROLL_SQL = "INSERT INTO payroll (employee_id, month, year, base_salary, payable_days, "
+            + "deduction_amount, net_salary, status, generated_at, payment_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${generator.threads:4}")
+    private int threads;
+
+    @Value("${generator.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${generator.email-domain:synthetic.test}")
+    private String emailDomain;
+
+    @Value("${generator.departments:IT:30,Sales:20,Operations:20,Finance:10,Marketing:10,HR:10}")
+    private String departmentWeights;
+
+    @Value("${generator.salary.median:70000}")
+    private double salaryMedian;
+
+    // Log-normal spread of salaries around the median
+    @Value("${generator.salary.sigma:0.35}")
+    private double salarySigma;
+
+    @Value("${generator.inactive-rate:0.02}")
+    private double inactiveRate;
+
+    @Value("${generator.attendance.half-day-rate:0.05}")
+    private double halfDayRate;
+
+    @Value("${generator.attendance.absent-rate:0.04}")
+    private double absentRate;
+
+    @Value("${generator.leaves.per-year:8}")
+    private double leavesPerYear;
+
+    @Value("${generator.leaves.max-days:5}")
+    private int leaveMaxDays;
+
+    @Value("${generator.leaves.approved-rate:0.85}")
+    private double approvedRate;
+
+    @Value("${generator.leaves.types:CASUAL_LEAVE:40,SICK_LEAVE:30,EARNED_LEAVE:20,UNPAID_LEAVE:10}")
+    private String leaveTypeWeights;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong leaves = new AtomicLong();
+    private final AtomicLong attendance = new AtomicLong();
+    private final AtomicLong payroll = new AtomicLong();
+    private volatile Spec lastSpec;
+    private volatile String lastState = "IDLE";
+    private volatile long startedNanos;
+    private volatile long elapsedMs;
+
+    // Runs in the background; progress via getStatus()
+    public Map<String, Object> start(Spec spec) {
+        validate(spec);
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Synthetic data generation is already running");
+        }
+        try {
+            Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?",
+                    Integer.class, "%@" + emailDomain);
+            if (existing != null && existing > 0) {
+                throw new IllegalStateException("Synthetic data already present for @" + emailDomain);
+            }
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        lastSpec = spec;
+        lastState = "RUNNING";
+        users.set(0);
+        leaves.set(0);
+        attendance.set(0);
+        payroll.set(0);
+        startedNanos = System.nanoTime();
+        Thread.ofPlatform().name("synthetic-data").start(() -> {
+            try {
+                generate(spec);
+            } catch (Exception e) {
+                lastState = "FAILED: " + e.getMessage();
+                log.error("Synthetic data generation failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", lastState);
+        status.put("spec", lastSpec);
+        status.put("users", users.get());
+        status.put("leaves", leaves.get());
+        status.put("attendance", attendance.get());
+        status.put("payroll", payroll.get());
+        long millis = running.get() ? (System.nanoTime() - startedNanos) / 1_000_000 : elapsedMs;
+        status.put("elapsedMs", millis);
+        long rows = users.get() + leaves.get() + attendance.get() + payroll.get();
+        status.put("rowsPerSecond", millis == 0 ? 0 : rows * 1000 / millis);
+        return status;
+    }
+
+    // H2 in MySQL mode hands out duplicate identity values to concurrent batch
+    // inserts, so it gets a single writer; MySQL takes the configured count
+    private int writerThreads() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(product) && threads > 1) {
+            log.info("Generating with 1 writer thread on H2 (generator.threads={})", threads);
+            return 1;
+        }
+        return threads;
+    }
+
+    private void validate(Spec spec) {
+        if (spec.employees() < 1 || spec.employees() > MAX_EMPLOYEES) {
+            throw new IllegalArgumentException("employees must be between 1 and " + MAX_EMPLOYEES);
+        }
+        if (spec.years() < 1 || spec.years() > MAX_YEARS) {
+            throw new IllegalArgumentException("years must be between 1 and " + MAX_YEARS);
+        }
+    }
+
+    private void generate(Spec spec) throws Exception {
+        Weighted<String> departments = weighted(departmentWeights, value -> value);
+        Weighted<LeaveType> leaveTypes = weighted(leaveTypeWeights, LeaveType::valueOf);
+        LocalDate from = YearMonth.now().minusYears(spec.years()).atDay(1);
+        // One hash for every row, so generation does not pay BCrypt per employee
+        String password = passwordEncoder.encode(randomSecret());
+
+        ExecutorService pool = Executors.newFixedThreadPool(writerThreads());
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int first = 1; first <= spec.employees(); first += CHUNK) {
+                int last = Math.min(spec.employees(), first + CHUNK - 1);
+                int chunkFirst = first;
+                tasks.add(pool.submit(() -> {
+                    insertUsers(spec.seed(), chunkFirst, last, departments, password, from);
+                    return null;
+                }));
+            }
+            await(tasks);
+
+            long[] ids = employeeIds(spec.employees());
+            tasks.clear();
+            for (int first = 1; first <= spec.employees(); first += CHUNK) {
+                int last = Math.min(spec.employees(), first + CHUNK - 1);
+                int chunkFirst = first;
+                tasks.add(pool.submit(() -> {
+                    insertHistory(spec.seed(), chunkFirst, last, ids, leaveTypes, from);
+                    return null;
+                }));
+            }
+            await(tasks);
+        } finally {
+            pool.shutdownNow();
+            elapsedMs = (System.nanoTime() - startedNanos) / 1_000_000;
+        }
+        lastState = "DONE";
+        log.info("Generated {} users, {} leaves, {} attendance and {} payroll rows in {} ms", users.get(),
+                leaves.get(), attendance.get(), payroll.get(), elapsedMs);
+    }
+
+    private void insertUsers(long seed, int first, int last, Weighted<String> departments, String password,
+            LocalDate from) throws SQLException {
+        Timestamp created = Timestamp.valueOf(from.atStartOfDay());
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection.prepareStatement(USER_SQL)) {
+            connection.setAutoCommit(false);
+            int pending = 0;
+            for (int n = first; n <= last; n++) {
+                SplittableRandom random = random(seed, n, 0);
+                insert.setString(1, "Employee " + n);
+                insert.setString(2, email(n));
+                insert.setString(3, password);
+                insert.setString(4, departments.pick(random));
+                insert.setString(5, String.format("555-%07d", n));
+                insert.setString(6, n + " Synthetic Ave");
+                insert.setString(7, Role.EMPLOYEE.name());
+                insert.setBigDecimal(8, salary(seed, n));
+                insert.setInt(9, 10 + random.nextInt(20));
+                insert.setBoolean(10, random.nextDouble() >= inactiveRate);
+                insert.setTimestamp(11, created);
+                insert.setTimestamp(12, created);
+                insert.addBatch();
+                if (++pending == batchSize) {
+                    flush(connection, insert, users, pending);
+                    pending = 0;
+                }
+            }
+            flush(connection, insert, users, pending);
+        }
+    }
+
+    private long[] employeeIds(int employees) {
+        long[] ids = new long[employees + 1];
+        String suffix = "@" + emailDomain;
+        jdbcTemplate.query("SELECT id, email FROM users WHERE email LIKE ?", row -> {
+            String email = row.getString(2);
+            ids[Integer.parseInt(email.substring(3, email.length() - suffix.length()))] = row.getLong(1);
+        }, "%" + suffix);
+        return ids;
+    }
+
+    // Leaves first (their generated ids are referenced by attendance), then attendance and payroll
+    private void insertHistory(long seed, int first, int last, long[] ids, Weighted<LeaveType> leaveTypes,
+            LocalDate from) throws SQLException {
+        LocalDate today = LocalDate.now();
+        YearMonth current = YearMonth.from(today);
+        Map<Integer, List<Leave>> leavesByEmployee = new LinkedHashMap<>();
+        for (int n = first; n <= last; n++) {
+            leavesByEmployee.put(n, leaves(random(seed, n, 1), from, today, leaveTypes));
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            Map<Integer, long[]> leaveIds = insertLeaves(connection, ids, leavesByEmployee, today);
+
+            try (PreparedStatement insertAttendance = connection.prepareStatement(ATTENDANCE_SQL);
+                    PreparedStatement insertPayroll = connection.prepareStatement(PAYROLL_SQL)) {
+                int pendingAttendance = 0;
+                int pendingPayroll = 0;
+                for (int n = first; n <= last; n++) {
+                    SplittableRandom random = random(seed, n, 2);
+                    List<Leave> employeeLeaves = leavesByEmployee.get(n);
+                    long[] employeeLeaveIds = leaveIds.get(n);
+                    BigDecimal salary = salary(seed, n);
+                    int nextLeave = 0;
+                    double payableDays = 0;
+                    for (LocalDate date = from; date.isBefore(today); date = date.plusDays(1)) {
+                        while (nextLeave < employeeLeaves.size() && employeeLeaves.get(nextLeave).end().isBefore(date)) {
+                            nextLeave++;
+                        }
+                        Leave leave = nextLeave < employeeLeaves.size() ? employeeLeaves.get(nextLeave) : null;
+                        boolean onLeave = leave != null && leave.status() == LeaveStatus.APPROVED
+                                && !date.isBefore(leave.start());
+                        AttendanceStatus status = onLeave ? AttendanceStatus.LEAVE : attendanceStatus(random, date);
+                        insertAttendance.setLong(1, ids[n]);
+                        insertAttendance.setDate(2, Date.valueOf(date));
+                        insertAttendance.setString(3, status.name());
+                        if (onLeave) {
+                            insertAttendance.setLong(4, employeeLeaveIds[nextLeave]);
+                        } else {
+                            insertAttendance.setNull(4, Types.BIGINT);
+                        }
+                        insertAttendance.setBoolean(5, YearMonth.from(date).isBefore(current));
+                        insertAttendance.addBatch();
+                        if (++pendingAttendance == batchSize) {
+                            flush(connection, insertAttendance, attendance, pendingAttendance);
+                            pendingAttendance = 0;
+                        }
+
+                        // Same rules as PayrollService.generatePayroll
+                        payableDays += switch (status) {
+                            case PRESENT -> 1.0;
+                            case HALF_DAY -> 0.5;
+                            case LEAVE -> leave.type() == LeaveType.UNPAID_LEAVE ? 0 : 1.0;
+                            case ABSENT -> 0;
+                        };
+                        if (date.getDayOfMonth() == date.lengthOfMonth()) {
+                            addPayroll(insertPayroll, ids[n], YearMonth.from(date), salary, payableDays, current);
+                            payableDays = 0;
+                            if (++pendingPayroll == batchSize) {
+                                flush(connection, insertPayroll, payroll, pendingPayroll);
+                                pendingPayroll = 0;
+                            }
+                        }
+                    }
+                }
+                flush(connection, insertAttendance, attendance, pendingAttendance);
+                flush(connection, insertPayroll, payroll, pendingPayroll);
+            }
+        }
+    }
+
+    private Map<Integer, long[]> insertLeaves(Connection connection, long[] ids,
+            Map<Integer, List<Leave>> leavesByEmployee, LocalDate today) throws SQLException {
+        Map<Integer, long[]> leaveIds = new LinkedHashMap<>();
+        List<long[]> targets = new ArrayList<>();
+        try (PreparedStatement insert = connection.prepareStatement(LEAVE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            int pending = 0;
+            for (Map.Entry<Integer, List<Leave>> entry : leavesByEmployee.entrySet()) {
+                long[] employeeLeaveIds = new long[entry.getValue().size()];
+                leaveIds.put(entry.getKey(), employeeLeaveIds);
+                for (int i = 0; i < employeeLeaveIds.length; i++) {
+                    Leave leave = entry.getValue().get(i);
+                    LocalDate applied = leave.start().minusDays(7).isAfter(today) ? today : leave.start().minusDays(7);
+                    insert.setLong(1, ids[entry.getKey()]);
+                    insert.setDate(2, Date.valueOf(leave.start()));
+                    insert.setDate(3, Date.valueOf(leave.end()));
+                    insert.setString(4, "Synthetic");
+                    insert.setString(5, leave.status().name());
+                    insert.setString(6, leave.type().name());
+                    insert.setTimestamp(7, Timestamp.valueOf(applied.atTime(9, 0)));
+                    insert.addBatch();
+                    targets.add(new long[] { entry.getKey(), i });
+                    if (++pending == batchSize) {
+                        executeLeaves(connection, insert, leaveIds, targets, pending);
+                        pending = 0;
+                    }
+                }
+            }
+            executeLeaves(connection, insert, leaveIds, targets, pending);
+        }
+        return leaveIds;
+    }
+
+    // Generated keys come back in batch order
+    private void executeLeaves(Connection connection, PreparedStatement insert, Map<Integer, long[]> leaveIds,
+            List<long[]> targets, int pending) throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        insert.executeBatch();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            int i = 0;
+            while (keys.next() && i < targets.size()) {
+                long[] target = targets.get(i++);
+                leaveIds.get((int) target[0])[(int) target[1]] = keys.getLong(1);
+            }
+            if (i != targets.size()) {
+                throw new IllegalStateException("Driver returned " + i + " keys for " + targets.size() + " leaves");
+            }
+        }
+        connection.commit();
+        leaves.addAndGet(pending);
+        targets.clear();
+    }
+
+    private void addPayroll(PreparedStatement insert, long employeeId, YearMonth month, BigDecimal salary,
+            double payableDays, YearMonth current) throws SQLException {
+        int totalDays = month.lengthOfMonth();
+        BigDecimal perDay = salary.divide(BigDecimal.valueOf(totalDays), 2, RoundingMode.HALF_UP);
+        BigDecimal net = perDay.multiply(BigDecimal.valueOf(payableDays)).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal deduction = salary.subtract(net).max(BigDecimal.ZERO);
+        // Last month is generated but not yet paid; everything older is paid
+        boolean paid = month.plusMonths(1).isBefore(current);
+        LocalDateTime generated = month.plusMonths(1).atDay(1).atTime(8, 0);
+        insert.setLong(1, employeeId);
+        insert.setInt(2, month.getMonthValue());
+        insert.setInt(3, month.getYear());
+        insert.setBigDecimal(4, salary);
+        insert.setInt(5, (int) Math.ceil(payableDays));
+        insert.setBigDecimal(6, deduction);
+        insert.setBigDecimal(7, net);
+        insert.setString(8, (paid ? PayrollStatus.PAID : PayrollStatus.GENERATED).name());
+        insert.setTimestamp(9, Timestamp.valueOf(generated));
+        insert.setTimestamp(10, paid ? Timestamp.valueOf(generated.plusDays(4)) : null);
+        insert.addBatch();
+    }
+
+    // Non-overlapping leaves: each working day starts one with probability per-year / 250
+    private List<Leave> leaves(SplittableRandom random, LocalDate from, LocalDate today,
+            Weighted<LeaveType> leaveTypes) {
+        List<Leave> result = new ArrayList<>();
+        double startChance = leavesPerYear / 250.0;
+        LocalDate until = today.plusDays(FUTURE_DAYS);
+        for (LocalDate date = from; date.isBefore(until); date = date.plusDays(1)) {
+            if (isWeekend(date) || random.nextDouble() >= startChance) {
+                continue;
+            }
+            LocalDate end = date.plusDays(random.nextInt(leaveMaxDays));
+            LeaveStatus status = !date.isBefore(today) ? LeaveStatus.PENDING
+                    : random.nextDouble() < approvedRate ? LeaveStatus.APPROVED : LeaveStatus.REJECTED;
+            result.add(new Leave(date, end, leaveTypes.pick(random), status));
+            date = end.plusDays(1);
+        }
+        return result;
+    }
+
+    // Weekends count as present, as in DataSeederController.seedAttendance
+    private AttendanceStatus attendanceStatus(SplittableRandom random, LocalDate date) {
+        double roll = random.nextDouble();
+        if (isWeekend(date)) {
+            return AttendanceStatus.PRESENT;
+        }
+        if (roll < absentRate) {
+            return AttendanceStatus.ABSENT;
+        }
+        return roll < absentRate + halfDayRate ? AttendanceStatus.HALF_DAY : AttendanceStatus.PRESENT;
+    }
+
+    // Own stream, so the user row and every payroll row of employee n agree
+    private BigDecimal salary(long seed, int n) {
+        double gaussian = random(seed, n, 3).nextGaussian();
+        return BigDecimal.valueOf(Math.round(Math.exp(Math.log(salaryMedian) + salarySigma * gaussian)));
+    }
+
+    private void flush(Connection connection, PreparedStatement insert, AtomicLong counter, int pending)
+            throws SQLException {
+        if (pending > 0) {
+            insert.executeBatch();
+            connection.commit();
+            counter.addAndGet(pending);
+        }
+    }
+
+    private static void await(List<Future<?>> tasks) throws InterruptedException, ExecutionException {
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+    }
+
+    private static String randomSecret() {
+        byte[] bytes = new byte[24];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private String email(int n) {
+        return "emp" + n + "@" + emailDomain;
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    // Independent stream per (seed, employee, purpose)
+    private static SplittableRandom random(long seed, int n, int purpose) {
+        return new SplittableRandom(seed ^ (n * 0x9E3779B97F4A7C15L) ^ ((long) purpose << 56));
+    }
+
+    private static <T> Weighted<T> weighted(String spec, Function<String, T> parse) {
+        List<T> values = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected name:weight, got '" + part + "'");
+            }
+            values.add(parse.apply(pair[0].trim()));
+            weights.add(Double.parseDouble(pair[1].trim()));
+        }
+        double[] cumulative = new double[weights.size()];
+        double sum = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            sum += weights.get(i);
+            cumulative[i] = sum;
+        }
+        return new Weighted<>(values, cumulative);
+    }
+}
@@ -0,0 +1,190 @@
+package com.ems.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Serves files under uploads/. Every stored name is unique and written once
+// (content hash or UUID), so responses are immutable: a year of Cache-Control,
+// a strong ETag and 304s for revalidation. Small hot files come from a
+// byte-bounded in-memory cache; larger ones go out through Tomcat's sendfile
+// (or FileChannel.transferTo elsewhere) without passing through the heap.
+@Service
+public class UploadServingService {
+
+    private record CachedFile(String etag, byte[] bytes) {
+    }
+
+    private record Range(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    private static final Path ROOT = Paths.get("uploads").toAbsolutePath().normalize();
+
+    // uploads/avatars/<sha256>/<file>: the directory name already is a content hash
+    private static final Pattern HASHED = Pattern.compile("avatars/([0-9a-f]{64})/([\\w.-]+)");
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    private static final Range UNSATISFIABLE = new Range(1, 0);
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    @Value("${uploads.cache.max-bytes:33554432}")
+    private long cacheMaxBytes;
+
+    @Value("${uploads.cache.max-file-bytes:262144}")
+    private long cacheMaxFileBytes;
+
+    private Cache<Path, CachedFile> smallFiles;
+
+    @PostConstruct
+    void init() {
+        smallFiles = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((Path path, CachedFile file) -> file.bytes().length)
+                .build();
+    }
+
+    public void serve(String relativePath, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file;
+        BasicFileAttributes attributes;
+        try {
+            file = ROOT.resolve(relativePath).normalize();
+            attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException | InvalidPathException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // Staging files (*.tmp) are never served, nor anything outside uploads/
+        if (!file.startsWith(ROOT) || !attributes.isRegularFile()
+                || file.getFileName().toString().endsWith(".tmp")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = etag(ROOT.relativize(file).toString().replace('\\', '/'), size, lastModified);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets ETag/Last-Modified and answers If-None-Match / If-Modified-Since with 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        Range range = range(request, etag, size);
+        if (range == UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        if (range == null) {
+            range = new Range(0, size - 1);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+        }
+        response.setContentLengthLong(range.length());
+        if ("HEAD".equals(request.getMethod()) || range.length() == 0) {
+            return;
+        }
+
+        if (size <= cacheMaxFileBytes) {
+            CachedFile cached = smallFiles.getIfPresent(file);
+            if (cached == null || !cached.etag().equals(etag)) {
+                cached = new CachedFile(etag, Files.readAllBytes(file));
+                smallFiles.put(file, cached);
+            }
+            response.getOutputStream().write(cached.bytes(), (int) range.start(), (int) range.length());
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Tomcat writes the file with sendfile(2) once the servlet returns
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", range.start());
+            request.setAttribute("org.apache.tomcat.sendfile.end", range.end() + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    // Content-hashed files get an ETag derived from the hash; others from size and mtime
+    private static String etag(String relativePath, long size, long lastModified) {
+        Matcher hashed = HASHED.matcher(relativePath);
+        if (hashed.matches()) {
+            return "\"" + hashed.group(1).substring(0, 32) + "-" + hashed.group(2) + "\"";
+        }
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    // Single byte range only; multi-range and stale If-Range requests get the whole file
+    private static Range range(HttpServletRequest request, String etag, long size) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+        if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return null;
+        }
+        try {
+            if (matcher.group(1).isEmpty()) {
+                long suffix = Long.parseLong(matcher.group(2));
+                return suffix == 0 || size == 0 ? UNSATISFIABLE : new Range(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(matcher.group(1));
+            long end = matcher.group(2).isEmpty() ? size - 1 : Math.min(Long.parseLong(matcher.group(2)), size - 1);
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return end < start ? null : new Range(start, end); // Malformed: ignored per RFC 9110
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
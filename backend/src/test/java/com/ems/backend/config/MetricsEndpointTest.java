@@ -0,0 +1,82 @@
+package com.ems.backend.config;
+
+import com.ems.backend.security.JwtUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// /actuator/prometheus takes HTTP basic as the configured scrape user only;
+// health stays open for probes and the rest of Actuator is for ADMINs.
+// Tests export no metrics unless observability is switched back on.
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void scrapeNeedsTheScrapeCredentials() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, basic("prometheus", "wrong")))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        // An application login, even an ADMIN one, is not a scrape credential
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, basic("admin@ems.com", "password")))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin@ems.com")))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+
+        String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, basic("prometheus", "scrape-secret")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertTrue(scrape.contains("payroll_run_employees"), "payroll run gauge");
+        Assertions.assertTrue(scrape.contains("hikaricp_connections_active"), "pool gauges");
+        Assertions.assertTrue(scrape.contains("hibernate_"), "Hibernate statistics");
+    }
+
+    @Test
+    void healthIsOpenAndTheRestOfActuatorIsForAdmins() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("hr@ems.com")))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin@ems.com")))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private String token(String email) {
+        return jwtUtils.generateToken(userDetailsService.loadUserByUsername(email));
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
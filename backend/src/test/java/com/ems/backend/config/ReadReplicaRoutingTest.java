@@ -0,0 +1,159 @@
+package com.ems.backend.config;
+
+import com.ems.backend.repository.UserRepository;
+import com.ems.backend.service.DashboardService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+// Two H2 databases: the replica starts as a snapshot of the seeded primary plus
+// one extra active employee, so the dashboard's staff count tells which one a
+// read was served from. Nothing replicates, so the test sets the replica's
+// heartbeat itself.
+@SpringBootTest(properties = {
+        "db.replica.enabled=true",
+        "db.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+                + "NON_KEYWORDS=MONTH,YEAR,VALUE",
+        "db.replica.max-lag-ms=1000",
+        "db.replica.read-your-writes-ms=60000"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_ONLY = "replica.only@ems.com";
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long primaryStaff;
+
+    @BeforeEach
+    void snapshotPrimary() throws Exception {
+        // The first beat creates the heartbeat table, so the snapshot carries it
+        lagMonitor.beat();
+        Path script = Files.createTempFile("replica-test", ".sql");
+        try (Connection replica = replica(); Statement statement = replica.createStatement()) {
+            new JdbcTemplate(primaryDataSource).execute("SCRIPT DROP TO '" + script + "'");
+            statement.execute("RUNSCRIPT FROM '" + script + "'");
+            statement.execute("INSERT INTO users (name, email, password, department, role, salary, leave_balance, "
+                    + "is_active, created_at, updated_at) SELECT 'Replica Only', '" + REPLICA_ONLY + "', password, "
+                    + "department, role, salary, leave_balance, true, created_at, updated_at FROM users "
+                    + "WHERE email = 'alice.johnson@ems.com'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+        primaryStaff = userRepository.countActiveUsers();
+        stampReplicaHeartbeat(System.currentTimeMillis() + 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyServiceTransactionsGoToTheReplica() {
+        Assertions.assertEquals(primaryStaff + 1, dashboardService.getStats().getTotalStaff());
+    }
+
+    @Test
+    void repositoryReadsAndWritesStayOnThePrimary() {
+        // Spring Data's own read-only transaction is often the read half of an update
+        Assertions.assertTrue(userRepository.findByEmailAndIsActiveTrue(REPLICA_ONLY).isEmpty());
+        Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(
+                "UPDATE users SET phone = phone WHERE email = ?", REPLICA_ONLY));
+        Assertions.assertEquals(0, updated);
+    }
+
+    @Test
+    void aStaleReplicaIsSkipped() {
+        stampReplicaHeartbeat(System.currentTimeMillis() - 60_000);
+        Assertions.assertTrue(lagMonitor.lagMs() > 1000);
+        Assertions.assertEquals(primaryStaff, dashboardService.getStats().getTotalStaff());
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        authenticate("hr@ems.com");
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE users SET phone = phone WHERE email = ?", "hr@ems.com"));
+        Assertions.assertEquals(primaryStaff, dashboardService.getStats().getTotalStaff());
+
+        // Someone who has not written still reads the replica
+        authenticate("admin@ems.com");
+        Assertions.assertEquals(primaryStaff + 1, dashboardService.getStats().getTotalStaff());
+    }
+
+    @Test
+    void aRolledBackWriteDoesNotPinTheUser() {
+        authenticate("alice.johnson@ems.com");
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE users SET phone = phone WHERE email = ?", "alice.johnson@ems.com");
+            status.setRollbackOnly();
+        });
+        Assertions.assertEquals(primaryStaff + 1, dashboardService.getStats().getTotalStaff());
+    }
+
+    // Written behind the read-only pool's back, then picked up by a beat
+    private void stampReplicaHeartbeat(long beatAt) {
+        try (Connection replica = replica();
+                PreparedStatement update = replica.prepareStatement(
+                        "MERGE INTO replica_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)")) {
+            update.setLong(1, beatAt);
+            update.executeUpdate();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        lagMonitor.beat();
+    }
+
+    private Connection replica() throws Exception {
+        // The pool is wrapped by the SQL listener's proxy
+        return DriverManager.getConnection(replicaDataSource.unwrap(HikariDataSource.class).getJdbcUrl(), "sa", "");
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("ROLE_HR"))));
+    }
+}
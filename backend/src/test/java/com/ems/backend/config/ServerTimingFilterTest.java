@@ -0,0 +1,118 @@
+package com.ems.backend.config;
+
+import com.ems.backend.security.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Server-Timing goes to ADMIN/HR only; other callers' bodies are streamed
+// unbuffered, and header callers' bodies are buffered only up to the cap
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerTimingFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void headerOnlyForAdminAndHr() throws Exception {
+        MvcResult hr = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("hr@ems.com")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        String header = hr.getResponse().getHeader("Server-Timing");
+        Assertions.assertNotNull(header, "HR gets the breakdown");
+        Assertions.assertTrue(header.contains("ser;dur="), header);
+        Assertions.assertEquals(hr.getResponse().getContentAsByteArray().length, hr.getResponse().getContentLength());
+
+        MvcResult employee = mockMvc.perform(MockMvcRequestBuilders.get("/api/leaves/my")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("alice.johnson@ems.com")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        Assertions.assertNull(employee.getResponse().getHeader("Server-Timing"), "employees get no breakdown");
+
+        MvcResult anonymous = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")).andReturn();
+        Assertions.assertNull(anonymous.getResponse().getHeader("Server-Timing"), "anonymous callers get no breakdown");
+    }
+
+    @Test
+    void bodiesWithoutTheHeaderAreStreamed() throws Exception {
+        RequestTiming timing = RequestTiming.start(Set.of("ROLE_HR"));
+        authenticate("ROLE_EMPLOYEE");
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        converter().write(Map.of("name", "alice"), MediaType.APPLICATION_JSON, message);
+
+        Assertions.assertEquals("{\"name\":\"alice\"}", message.getBodyAsString());
+        Assertions.assertEquals(-1, message.getHeaders().getContentLength(), "written straight through");
+        Assertions.assertTrue(timing.serializationNanos() > 0, "still timed for the log");
+    }
+
+    @Test
+    void headerBodiesAreBufferedUpToTheCap() throws Exception {
+        RequestTiming timing = RequestTiming.start(Set.of("ROLE_HR"));
+        authenticate("ROLE_HR");
+
+        MockHttpOutputMessage small = new MockHttpOutputMessage();
+        converter().write(List.of("a", "b"), MediaType.APPLICATION_JSON, small);
+        Assertions.assertEquals(small.getBodyAsBytes().length, small.getHeaders().getContentLength());
+
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add("row-" + i);
+        }
+        MockHttpOutputMessage large = new MockHttpOutputMessage();
+        converter().write(rows, MediaType.APPLICATION_JSON, large);
+        Assertions.assertTrue(large.getBodyAsBytes().length > TimedJacksonConverter.MAX_BUFFERED_BYTES);
+        Assertions.assertEquals(-1, large.getHeaders().getContentLength(), "over the cap it streams");
+        Assertions.assertEquals(rows, new ObjectMapper().readValue(large.getBodyAsBytes(), List.class));
+        Assertions.assertTrue(timing.serializationNanos() > 0);
+    }
+
+    private static TimedJacksonConverter converter() {
+        return new TimedJacksonConverter(new ObjectMapper());
+    }
+
+    private static void authenticate(String authority) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user", null, List.of(new SimpleGrantedAuthority(authority))));
+    }
+
+    private String token(String email) {
+        return jwtUtils.generateToken(userDetailsService.loadUserByUsername(email));
+    }
+}
@@ -0,0 +1,92 @@
+package com.ems.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.ems.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SqlStatementListenerTest {
+
+    private static final String CALLER = "UserRepository.findByEmailAndIsActiveTrue";
+
+    @Autowired
+    private SqlStatementListener sqlStatementListener;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Logger slowLog = (Logger) LoggerFactory.getLogger("sql.slow");
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+    private Level level;
+    private Object thresholdMs;
+
+    @BeforeEach
+    void captureSlowLog() {
+        level = slowLog.getLevel();
+        thresholdMs = ReflectionTestUtils.getField(sqlStatementListener, "thresholdMs");
+        slowLog.setLevel(Level.INFO);
+        events.start();
+        slowLog.addAppender(events);
+    }
+
+    @AfterEach
+    void restore() {
+        slowLog.detachAppender(events);
+        slowLog.setLevel(level);
+        ReflectionTestUtils.setField(sqlStatementListener, "thresholdMs", thresholdMs);
+    }
+
+    @Test
+    void statementsOverTheThresholdAreLoggedWithTheirRepositoryMethodAndRedactedParameters() {
+        ReflectionTestUtils.setField(sqlStatementListener, "thresholdMs", 0L);
+        Assertions.assertTrue(userRepository.findByEmailAndIsActiveTrue("hr@ems.com").isPresent());
+
+        List<String> logged = logged();
+        Assertions.assertEquals(1, logged.size(), logged.toString());
+        String entry = logged.get(0);
+        Assertions.assertTrue(entry.contains("event=slow_query"), entry);
+        Assertions.assertTrue(entry.contains("caller=" + CALLER), entry);
+        Assertions.assertTrue(entry.contains("params=[<10 chars>]"), entry);
+        Assertions.assertFalse(entry.contains("hr@ems.com"), entry);
+    }
+
+    @Test
+    void fastStatementsAreOnlyTimed() {
+        ReflectionTestUtils.setField(sqlStatementListener, "thresholdMs", 60_000L);
+        for (int i = 0; i < 5; i++) {
+            userRepository.findByEmailAndIsActiveTrue("admin@ems.com");
+        }
+
+        Assertions.assertEquals(List.of(), logged());
+        Map<String, Object> summary = sqlStatementListener.getSummaries().stream()
+                .filter(s -> CALLER.equals(s.get("caller")))
+                .findFirst().orElseThrow();
+        Assertions.assertTrue((Long) summary.get("count") >= 5, summary.toString());
+        Assertions.assertTrue(summary.containsKey("p50Ms") && summary.containsKey("p99Ms"), summary.toString());
+    }
+
+    // Message plus the structured fields, for the statements of the caller under test
+    private List<String> logged() {
+        return events.list.stream()
+                .map(event -> event.getFormattedMessage() + " " + Arrays.toString(event.getArgumentArray()))
+                .filter(line -> line.contains(CALLER))
+                .collect(Collectors.toList());
+    }
+}
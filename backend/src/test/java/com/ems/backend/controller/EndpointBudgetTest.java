@@ -0,0 +1,364 @@
+package com.ems.backend.controller;
+
+import com.ems.backend.config.QueryBudget;
+import com.ems.backend.dto.AtsJobDTO;
+import com.ems.backend.model.User;
+import com.ems.backend.repository.AttendanceRepository;
+import com.ems.backend.repository.PayrollRepository;
+import com.ems.backend.repository.UserRepository;
+import com.ems.backend.security.JwtUtils;
+import com.ems.backend.service.AtsJobService;
+import com.ems.backend.service.AttendanceArchiveService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Runs every controller endpoint against the seeded database, one request at a
+// time, and holds each to a budget: SQL statements and wall time from its
+// @QueryBudget (or the query.budget.* defaults), rows fetched as given with each
+// request. Statements and rows come from the Hibernate statistics, so an N+1 lazy
+// load shows up as extra statements and open-session-in-view (off) cannot hide it.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointBudgetTest {
+
+    // A month no other test touches; day-close needs a day in the past
+    private static final int MONTH = 1;
+    private static final int YEAR = 2095;
+    private static final String EMPLOYEE = "alice.johnson@ems.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+
+    @Autowired
+    private AtsJobService atsJobService;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${query.budget.statements:10}")
+    private int defaultStatements;
+
+    @Value("${query.budget.wall-ms:2000}")
+    private long defaultWallMs;
+
+    private Statistics statistics;
+    private final Set<Method> exercised = new LinkedHashSet<>();
+    private final List<String> overBudget = new ArrayList<>();
+    private final List<String> avatars = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String avatar : avatars) {
+            FileSystemUtils.deleteRecursively(Paths.get("uploads", "avatars", avatar).toFile());
+        }
+    }
+
+    @Test
+    void everyEndpointStaysWithinItsBudget() throws Exception {
+        String hr = token("hr@ems.com");
+        String admin = token("admin@ems.com");
+        String employee = token(EMPLOYEE);
+        User alice = userRepository.findByEmailAndIsActiveTrue(EMPLOYEE).orElseThrow();
+        // Row budgets of listings and month-wide operations scale with the headcount
+        long users = userRepository.count() + 1; // Plus the employee created below
+        // One unmeasured request so the first measured one does not pay for warm-up
+        mockMvc.perform(as(MockMvcRequestBuilders.get("/api/users/me"), employee));
+
+        // Auth and users
+        measure(MockMvcRequestBuilders.post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"hr@ems.com\",\"password\":\"password\"}"), 200, 3);
+        measure(as(MockMvcRequestBuilders.post("/api/auth/verify-password"), hr)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"password\":\"password\"}"), 200, 2);
+        measure(as(MockMvcRequestBuilders.get("/api/users/me"), employee), 200, 2);
+        measure(as(MockMvcRequestBuilders.get("/api/users/" + alice.getId()), hr), 200, 2);
+        measure(as(MockMvcRequestBuilders.put("/api/users/" + alice.getId()), employee)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"phone\":\"555-0100\"}"), 200, 2);
+
+        // Employees
+        measure(as(MockMvcRequestBuilders.get("/api/employees"), hr), 200, users + 1);
+        MvcResult created = measure(as(MockMvcRequestBuilders.post("/api/employees"), admin)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget Probe\",\"email\":\"budget.probe@ems.com\",\"password\":\"password\","
+                        + "\"role\":\"EMPLOYEE\",\"department\":\"IT\",\"salary\":50000,\"leaveBalance\":10,"
+                        + "\"isActive\":true}"), 200, 2);
+        long probeId = json(created).get("id").asLong();
+        measure(as(MockMvcRequestBuilders.put("/api/employees/" + probeId), admin)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Budget Probe\",\"department\":\"Finance\",\"role\":\"EMPLOYEE\","
+                        + "\"salary\":55000}"), 200, 2);
+        measure(as(MockMvcRequestBuilders.get("/api/dashboard/stats"), hr), 200, 20);
+
+        // Attendance for the month, leave on top of it, then payroll
+        String month = String.valueOf(MONTH);
+        String year = String.valueOf(YEAR);
+        measure(as(MockMvcRequestBuilders.post("/api/attendance/init"), hr)
+                .param("month", month).param("year", year), 200, 2);
+        measure(as(MockMvcRequestBuilders.post("/api/seed/attendance"), hr)
+                .param("month", month).param("year", year), 200, users + 1);
+
+        MvcResult leave = measure(as(MockMvcRequestBuilders.post("/api/leaves"), employee)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"startDate\":\"2095-01-10\",\"endDate\":\"2095-01-11\",\"leaveType\":\"CASUAL_LEAVE\","
+                        + "\"reason\":\"Budget check\"}"), 200, 2);
+        measure(as(MockMvcRequestBuilders.get("/api/leaves/my"), employee), 200, 5);
+        measure(as(MockMvcRequestBuilders.get("/api/leaves"), hr).param("status", "PENDING"), 200, 10);
+        measure(as(MockMvcRequestBuilders.put("/api/leaves/" + json(leave).get("id").asLong() + "/status"), hr)
+                .param("status", "APPROVED"), 200, 4);
+        // The budget month is in the future, which accrual refuses; credit a past one
+        measure(as(MockMvcRequestBuilders.post("/api/leaves/accrual"), admin)
+                .param("month", month).param("year", "2000"), 200, users + 3);
+        measure(as(MockMvcRequestBuilders.post("/api/leaves/accrual"), admin)
+                .param("month", month).param("year", year), 400, 1);
+
+        measure(as(MockMvcRequestBuilders.get("/api/attendance"), hr)
+                .param("month", month).param("year", year), 200, users * 31 + 1);
+        long dayId = attendanceRepository.findByEmployeeAndDateRange(alice.getId(),
+                LocalDate.of(YEAR, MONTH, 2), LocalDate.of(YEAR, MONTH, 2)).get(0).getId();
+        measure(as(MockMvcRequestBuilders.put("/api/attendance/" + dayId), hr)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"HALF_DAY\",\"remarks\":\"Budget check\"}"), 200, 2);
+        measure(as(MockMvcRequestBuilders.post("/api/attendance/finalize"), hr)
+                .param("month", month).param("year", year), 200, 1);
+
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        measure(as(MockMvcRequestBuilders.post("/api/punches"), hr).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(
+                        Map.of("employeeId", alice.getId(), "direction", "IN",
+                                "punchedAt", yesterday.atTime(9, 0).toString(), "deviceId", "gate-1"),
+                        Map.of("employeeId", alice.getId(), "direction", "OUT",
+                                "punchedAt", yesterday.atTime(17, 30).toString(), "deviceId", "gate-1")))),
+                202, 1);
+        measure(as(MockMvcRequestBuilders.get("/api/punches/status"), hr), 200, 1);
+        measure(as(MockMvcRequestBuilders.post("/api/attendance/day-close"), hr)
+                .param("date", yesterday.toString()), 200, 2);
+
+        measure(as(MockMvcRequestBuilders.post("/api/payroll/generate"), hr)
+                .param("month", month).param("year", year), 200, users * 2 + 2);
+        measure(as(MockMvcRequestBuilders.get("/api/payroll"), hr)
+                .param("month", month).param("year", year), 200, users + 2);
+        measure(as(MockMvcRequestBuilders.get("/api/payroll/state"), hr)
+                .param("month", month).param("year", year), 200, 3);
+        measure(as(MockMvcRequestBuilders.get("/api/payroll/my"), employee), 200, 2);
+        long payrollId = payrollRepository.findByEmployeeIdAndMonthAndYear(alice.getId(), MONTH, YEAR)
+                .orElseThrow().getId();
+        measure(as(MockMvcRequestBuilders.post("/api/payroll/" + payrollId + "/mark-paid"), hr), 200, 2);
+        measure(as(MockMvcRequestBuilders.post("/api/payroll/process"), hr)
+                .param("month", month).param("year", year), 200, 2);
+        measure(as(MockMvcRequestBuilders.get("/api/payroll/payslip/" + payrollId), hr), 200, 2);
+
+        // Admin views
+        measure(as(MockMvcRequestBuilders.get("/api/admin/threads/pinning"), admin), 200, 1);
+        measure(as(MockMvcRequestBuilders.get("/api/admin/db/queries"), admin), 200, 1);
+        measure(as(MockMvcRequestBuilders.get("/api/admin/db/replica"), admin), 200, 1);
+        measure(as(MockMvcRequestBuilders.get("/api/admin/outbox/stats"), admin), 200, 4);
+
+        // ATS: background work is waited for before the next request is measured
+        byte[] resume = pdf("Jane Doe, Java developer with Spring Boot, Kafka and SQL experience");
+        measure(as(MockMvcRequestBuilders.multipart("/api/ats/analyze")
+                .file(new MockMultipartFile("file", "cv.pdf", "application/pdf", resume)), hr), 200, 3);
+        MvcResult job = measure(as(MockMvcRequestBuilders.multipart("/api/ats/jobs")
+                .file(new MockMultipartFile("file", "cv.pdf", "application/pdf", resume)), hr), 202, 3);
+        String jobId = json(job).get("id").asText();
+        awaitJob(jobId);
+        measure(as(MockMvcRequestBuilders.get("/api/ats/jobs/" + jobId), hr), 200, 1);
+        measure(as(MockMvcRequestBuilders.multipart("/api/ats/batch")
+                .file(new MockMultipartFile("files", "batch-cv.pdf", "application/pdf",
+                        pdf("John Roe, Python and Django engineer"))), hr), 200, 3);
+        measure(as(MockMvcRequestBuilders.delete("/api/ats/batch/unknown"), hr), 404, 1);
+        measure(as(MockMvcRequestBuilders.get("/api/ats/cache/stats"), hr), 200, 1);
+        measure(as(MockMvcRequestBuilders.get("/api/ats/candidates"), hr).param("q", "java spring"), 200, 3);
+        measure(as(MockMvcRequestBuilders.get("/api/ats/llm/stats"), hr), 200, 1);
+
+        // Archival continues on its own thread. The synthetic data endpoints are not
+        // registered here (generator.enabled is off), so coverage does not expect them.
+        measure(as(MockMvcRequestBuilders.get("/api/attendance/archive"), admin), 200, 2);
+        measure(as(MockMvcRequestBuilders.post("/api/attendance/archive"), admin), 202, 2);
+        awaitArchive();
+
+        // Avatars last: the thumbnails are generated in the background
+        MvcResult avatar = measure(as(MockMvcRequestBuilders.multipart("/api/employees/" + probeId + "/image")
+                .file(new MockMultipartFile("file", "me.png", "image/png", png())), admin), 200, 2);
+        String url = avatar.getResponse().getContentAsString();
+        avatars.add(Paths.get(url).getParent().getFileName().toString());
+        measure(MockMvcRequestBuilders.get(url), 200, 0);
+        measure(as(MockMvcRequestBuilders.put("/api/employees/" + probeId + "/soft-delete"), admin), 204, 2);
+
+        Set<Method> endpoints = handlerMapping.getHandlerMethods().values().stream()
+                .filter(method -> method.getBeanType().getPackageName().equals(getClass().getPackageName()))
+                .map(HandlerMethod::getMethod)
+                .collect(Collectors.toSet());
+        endpoints.removeAll(exercised);
+        Assertions.assertTrue(endpoints.isEmpty(), "Endpoints without a budget check: " + endpoints);
+        Assertions.assertTrue(overBudget.isEmpty(), "Over budget:\n" + String.join("\n", overBudget));
+    }
+
+    // Performs the request (and its async dispatch, if any) and checks it against the budgets
+    private MvcResult measure(MockHttpServletRequestBuilder request, int expectedStatus, long maxRows)
+            throws Exception {
+        statistics.clear();
+        long started = System.nanoTime();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn();
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+        long rows = rowsFetched();
+
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        Assertions.assertNotNull(handler, "No handler for " + result.getRequest().getRequestURI());
+        exercised.add(handler.getMethod());
+        String name = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        Assertions.assertEquals(expectedStatus, result.getResponse().getStatus(),
+                name + ": " + result.getResponse().getContentAsString());
+
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        int statementBudget = budget == null ? defaultStatements : budget.statements();
+        long wallBudget = budget == null ? defaultWallMs : budget.wallMs();
+        if ((statementBudget >= 0 && statements > statementBudget) || rows > maxRows
+                || (wallBudget >= 0 && elapsedMs > wallBudget)) {
+            overBudget.add(String.format("%s: %d statements (budget %d), %d rows (budget %d), %d ms (budget %d)",
+                    name, statements, statementBudget, rows, maxRows, elapsedMs, wallBudget));
+        }
+        return result;
+    }
+
+    // Rows returned by queries plus entities and collections fetched on their own
+    private long rowsFetched() {
+        long rows = statistics.getEntityFetchCount() + statistics.getCollectionFetchCount();
+        for (String query : statistics.getQueries()) {
+            rows += statistics.getQueryStatistics(query).getExecutionRowCount();
+        }
+        return rows;
+    }
+
+    private MockHttpServletRequestBuilder as(MockHttpServletRequestBuilder request, String token) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private String token(String email) {
+        return jwtUtils.generateToken(userDetailsService.loadUserByUsername(email));
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private void awaitJob(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (System.currentTimeMillis() < deadline) {
+            AtsJobDTO.Status status = atsJobService.getJob(id).orElseThrow().getStatus();
+            if (status == AtsJobDTO.Status.COMPLETED || status == AtsJobDTO.Status.FAILED) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        Assertions.fail("ATS job " + id + " did not finish");
+    }
+
+    private void awaitArchive() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 120_000;
+        while (Boolean.TRUE.equals(attendanceArchiveService.getStatus().get("running"))) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Archival did not finish");
+            Thread.sleep(100);
+        }
+    }
+
+    private static byte[] pdf(String text) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 11);
+                content.newLineAtOffset(50, 700);
+                content.showText(text);
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ems.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+// Candidate data and ATS operations are for ADMIN and HR only
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResumeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(roles = "EMPLOYEE")
+    void employeesCannotReachCandidateDataOrAtsOperations() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "cv.pdf", "application/pdf", new byte[] { 1 });
+        MockMultipartFile files = new MockMultipartFile("files", "cv.pdf", "application/pdf", new byte[] { 1 });
+
+        expectForbidden(MockMvcRequestBuilders.get("/api/ats/candidates").param("q", "java"));
+        expectForbidden(MockMvcRequestBuilders.multipart("/api/ats/jobs").file(file));
+        expectForbidden(MockMvcRequestBuilders.get("/api/ats/jobs/some-id"));
+        expectForbidden(MockMvcRequestBuilders.multipart("/api/ats/batch").file(files));
+        expectForbidden(MockMvcRequestBuilders.delete("/api/ats/batch/some-id"));
+        expectForbidden(MockMvcRequestBuilders.get("/api/ats/cache/stats"));
+        expectForbidden(MockMvcRequestBuilders.get("/api/ats/llm/stats"));
+    }
+
+    @Test
+    @WithMockUser(roles = "HR")
+    void hrCanSearchCandidates() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/ats/candidates").param("q", "java"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/ats/llm/stats"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private void expectForbidden(
+            org.springframework.test.web.servlet.RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+}
@@ -0,0 +1,133 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AtsJobDTO;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Async ATS jobs against a local stub of the Gemini API that holds every call
+// until the test releases it, then answers after a fixed delay. Submissions must
+// return at once, the queue must refuse work past ats.jobs.max-active, and
+// throughput must come from the LLM concurrency limit rather than serial calls.
+@SpringBootTest
+@ActiveProfiles("test")
+class AtsJobServiceTest {
+
+    private static final int MAX_ACTIVE = 24;
+    private static final int MAX_CONCURRENT_CALLS = 6;
+    private static final long UPSTREAM_DELAY_MS = 300;
+
+    private static final CountDownLatch release = new CountDownLatch(1);
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static HttpServer stub;
+
+    @Autowired
+    private AtsJobService atsJobService;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                release.await(30, TimeUnit.SECONDS);
+                Thread.sleep(UPSTREAM_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            byte[] body = ("{\"candidates\":[{\"content\":{\"parts\":[{\"text\":"
+                    + "\"{\\\"score\\\": 77, \\\"missingKeywords\\\": [\\\"kafka\\\"], "
+                    + "\\\"summary\\\": \\\"Stub\\\", \\\"recommendation\\\": \\\"Interview\\\"}\"}]}}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+        registry.add("gemini.api.key", () -> "stub-key");
+        registry.add("gemini.api.endpoint", () -> "http://localhost:" + stub.getAddress().getPort() + "/");
+        registry.add("gemini.api.max-concurrent-calls", () -> MAX_CONCURRENT_CALLS);
+        registry.add("ats.jobs.max-active", () -> MAX_ACTIVE);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void slowUpstreamIsBoundedAndDoesNotBlockSubmission() throws Exception {
+        long submitStarted = System.nanoTime();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < MAX_ACTIVE; i++) {
+            ids.add(atsJobService.submit(resume(i), "Java Developer").orElseThrow().getId());
+        }
+        long submitMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitStarted);
+        // Upstream is holding every call, so submission never waited on it
+        Assertions.assertTrue(submitMs < 5000, "Submitting took " + submitMs + " ms");
+
+        // The queue is full until something finishes
+        Assertions.assertTrue(atsJobService.submit(resume(MAX_ACTIVE), "Java Developer").isEmpty());
+        Assertions.assertEquals(MAX_ACTIVE, atsJobService.getActiveCount());
+
+        long started = System.nanoTime();
+        release.countDown();
+        for (String id : ids) {
+            AtsJobDTO job = await(id);
+            Assertions.assertEquals(AtsJobDTO.Status.COMPLETED, job.getStatus(), job.getError());
+            Assertions.assertEquals(77, job.getResult().getScore());
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // Never more calls upstream than the limit, and the limit was used
+        Assertions.assertEquals(MAX_CONCURRENT_CALLS, maxInFlight.get());
+        // Serial calls would need MAX_ACTIVE x delay; the limit allows about a sixth of that
+        long serialMs = MAX_ACTIVE * UPSTREAM_DELAY_MS;
+        Assertions.assertTrue(elapsedMs < serialMs / 2, "Drained in " + elapsedMs + " ms, serial is " + serialMs);
+        Assertions.assertTrue(atsJobService.submit(resume(MAX_ACTIVE + 1), "Java Developer").isPresent());
+    }
+
+    private AtsJobDTO await(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Optional<AtsJobDTO> job = atsJobService.getJob(id);
+            if (job.isPresent() && job.get().getCompletedAt() != null) {
+                return job.get();
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Job " + id + " did not finish");
+    }
+
+    // Distinct text per index, so no two uploads share a cache entry
+    private static MockMultipartFile resume(int index) throws IOException {
+        byte[] pdf = TestPdfs.pdf(List.of(List.of("Candidate " + index, "Java Spring Boot developer",
+                "Experience: " + (index % 10) + " years")));
+        return new MockMultipartFile("file", "resume-" + index + ".pdf", "application/pdf", pdf);
+    }
+}
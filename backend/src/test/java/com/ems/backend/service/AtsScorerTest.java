@@ -0,0 +1,47 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AtsScorerTest {
+
+    private final AtsScorer scorer = new AtsScorer();
+
+    @Test
+    void commonEnglishWordsAreNotSkills() {
+        AnalysisResultDTO result = scorer.score(
+                "Jane Doe\nReady to go live with the rest of the team after a good rest.", "Software Engineer");
+        Assertions.assertTrue(result.getMissingKeywords().contains("Programming Languages"));
+        Assertions.assertFalse(result.getSummary().contains("REST"));
+
+        AnalysisResultDTO backend = scorer.score("Built REST APIs in Golang and Java.", "Software Engineer");
+        Assertions.assertFalse(backend.getMissingKeywords().contains("Programming Languages"));
+    }
+
+    @Test
+    void repeatedEvidenceRaisesTheScoreUntilItSaturates() {
+        // About an average resume's length, so the length normalisation is neutral
+        String base = "Jane Doe\n" + "Delivered the reporting platform for customers. ".repeat(100);
+        int once = scorer.score(base + "Java.", "Java Developer").getScore();
+        int twice = scorer.score(base + "Java. Java.", "Java Developer").getScore();
+        int thrice = scorer.score(base + "Java. Java. Java.", "Java Developer").getScore();
+        int many = scorer.score(base + "Java. ".repeat(20), "Java Developer").getScore();
+        Assertions.assertTrue(once < twice, once + " < " + twice);
+        Assertions.assertTrue(twice < thrice, twice + " < " + thrice);
+        Assertions.assertEquals(thrice, many);
+    }
+
+    @Test
+    void freeTextRolesDoNotGrowTheProfileCacheWithoutBound() {
+        for (int i = 0; i < 2_000; i++) {
+            scorer.score("Jane Doe\nExperience with actuarial models.", "Actuary " + i);
+        }
+        Assertions.assertTrue(scorer.adhocProfileCount() <= 256, "cached: " + scorer.adhocProfileCount());
+
+        long before = scorer.adhocProfileCount();
+        scorer.score("Jane Doe", "Senior Backend Engineer");
+        scorer.score("Jane Doe", "Lead React Developer");
+        Assertions.assertEquals(before, scorer.adhocProfileCount());
+    }
+}
@@ -0,0 +1,96 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.Attendance;
+import com.ems.backend.model.AttendanceArchiveRun;
+import com.ems.backend.model.AttendanceStatus;
+import com.ems.backend.model.User;
+import com.ems.backend.repository.AttendanceArchiveRepository;
+import com.ems.backend.repository.AttendanceArchiveRunRepository;
+import com.ems.backend.repository.AttendanceRepository;
+import com.ems.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// A run interrupted part-way leaves its month closed to writers. The next run
+// has to finish it even though the month no longer passes the eligibility
+// checks: here the months are in the future, unfinalized and unpaid.
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceArchiveResumeTest {
+
+    private static final YearMonth EMPTIED = YearMonth.of(2081, 2);
+    private static final YearMonth HALF_MOVED = YearMonth.of(2081, 3);
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceArchiveRepository archiveRepository;
+
+    @Autowired
+    private AttendanceArchiveRunRepository runRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        for (YearMonth month : List.of(EMPTIED, HALF_MOVED)) {
+            archiveRepository.deleteAll(archiveRepository.findByDateRange(month.atDay(1), month.atEndOfMonth()));
+            attendanceRepository.deleteAll(
+                    attendanceRepository.findWithDetailsByDateRange(month.atDay(1), month.atEndOfMonth()));
+            runRepository.findByPeriod(month.toString()).ifPresent(runRepository::delete);
+        }
+    }
+
+    @Test
+    void incompleteRunsAreFinishedFirst() throws InterruptedException {
+        // Every row already moved, only the completion was lost
+        startedRun(EMPTIED);
+        // Some rows still live
+        startedRun(HALF_MOVED);
+        User employee = userRepository.findByEmailAndIsActiveTrue("alice.johnson@ems.com").orElseThrow();
+        for (int day = 1; day <= 3; day++) {
+            attendanceRepository.save(Attendance.builder()
+                    .employee(employee)
+                    .date(HALF_MOVED.atDay(day))
+                    .status(AttendanceStatus.PRESENT)
+                    .finalized(false)
+                    .build());
+        }
+        Assertions.assertEquals(AttendanceArchiveService.Location.MOVING, archiveService.locate(EMPTIED));
+        Assertions.assertEquals(AttendanceArchiveService.Location.MOVING, archiveService.locate(HALF_MOVED));
+
+        archiveService.start();
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (Boolean.TRUE.equals(archiveService.getStatus().get("running"))) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Archival did not finish");
+            Thread.sleep(50);
+        }
+
+        Assertions.assertEquals(AttendanceArchiveService.Location.ARCHIVED, archiveService.locate(EMPTIED));
+        Assertions.assertEquals(AttendanceArchiveService.Location.ARCHIVED, archiveService.locate(HALF_MOVED));
+        Assertions.assertTrue(attendanceRepository
+                .findWithDetailsByDateRange(HALF_MOVED.atDay(1), HALF_MOVED.atEndOfMonth()).isEmpty());
+        Assertions.assertEquals(3, archiveRepository
+                .findByDateRange(HALF_MOVED.atDay(1), HALF_MOVED.atEndOfMonth()).size());
+        Assertions.assertEquals(3L, runRepository.findByPeriod(HALF_MOVED.toString()).orElseThrow().getRowsMoved());
+    }
+
+    private void startedRun(YearMonth month) {
+        runRepository.save(AttendanceArchiveRun.builder()
+                .period(month.toString())
+                .completed(false)
+                .build());
+    }
+}
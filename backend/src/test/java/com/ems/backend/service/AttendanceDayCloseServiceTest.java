@@ -0,0 +1,124 @@
+package com.ems.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+// Punches are inserted straight into the table, as the writer would, for a
+// weekday no other test touches
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceDayCloseServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 10);
+
+    @Autowired
+    private AttendanceDayCloseService dayCloseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> employees;
+
+    @BeforeEach
+    void setUp() {
+        employees = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE role = 'EMPLOYEE' AND is_active = true ORDER BY id", Long.class);
+        Assertions.assertTrue(employees.size() >= 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM punches WHERE punched_at >= ? AND punched_at < ?",
+                Timestamp.valueOf(DAY.atStartOfDay()), Timestamp.valueOf(DAY.plusDays(2).atStartOfDay()));
+        jdbcTemplate.update("DELETE FROM attendance WHERE date = ?", Date.valueOf(DAY));
+    }
+
+    @Test
+    void shiftsArePairedWithinTheDay() {
+        punch(0, "IN", DAY, 9, 0);
+        punch(0, "OUT", DAY, 17, 30);
+        punch(1, "IN", DAY, 9, 0);
+        punch(1, "OUT", DAY, 14, 0);
+        // Overnight: counts for the day it started
+        punch(2, "IN", DAY, 22, 0);
+        punch(2, "OUT", DAY.plusDays(1), 6, 30);
+        // Repeated IN keeps the first, orphan OUT adds nothing
+        punch(3, "OUT", DAY, 8, 0);
+        punch(3, "IN", DAY, 9, 0);
+        punch(3, "IN", DAY, 9, 5);
+        punch(3, "OUT", DAY, 16, 30);
+
+        Map<String, Object> summary = dayCloseService.closeDay(DAY);
+
+        Assertions.assertEquals("PRESENT", status(0));
+        Assertions.assertEquals("HALF_DAY", status(1));
+        Assertions.assertEquals("PRESENT", status(2));
+        Assertions.assertEquals("PRESENT", status(3));
+        // Weekday: everyone else is derived as absent
+        Assertions.assertEquals("ABSENT", status(4));
+        Assertions.assertEquals(4, summary.get("employeesWithPunches"));
+    }
+
+    @Test
+    void anInOnTheNextDayClosesAShiftWithoutCredit() {
+        // The OUT for the day was never punched; next morning's shift must not close it
+        punch(0, "IN", DAY, 9, 0);
+        punch(0, "IN", DAY.plusDays(1), 8, 0);
+        punch(0, "OUT", DAY.plusDays(1), 11, 0);
+
+        dayCloseService.closeDay(DAY);
+
+        Assertions.assertEquals("ABSENT", status(0));
+    }
+
+    @Test
+    void leaveAndFinalizedRowsAreKeptAndReclosingUpdates() {
+        String insert = "INSERT INTO attendance (employee_id, date, status, finalized) VALUES (?, ?, ?, ?)";
+        jdbcTemplate.update(insert, employees.get(0), Date.valueOf(DAY), "LEAVE", false);
+        jdbcTemplate.update(insert, employees.get(1), Date.valueOf(DAY), "HALF_DAY", true);
+        for (int i = 0; i < 3; i++) {
+            punch(i, "IN", DAY, 9, 0);
+            punch(i, "OUT", DAY, 18, 0);
+        }
+
+        Map<String, Object> first = dayCloseService.closeDay(DAY);
+        Assertions.assertEquals("LEAVE", status(0));
+        Assertions.assertEquals("HALF_DAY", status(1));
+        Assertions.assertEquals("PRESENT", status(2));
+        Assertions.assertEquals(1, first.get("skippedLeave"));
+        Assertions.assertEquals(1, first.get("skippedFinalized"));
+
+        // Closing again re-derives the day from the punches as they are now
+        jdbcTemplate.update("DELETE FROM punches WHERE employee_id = ? AND direction = 'OUT'", employees.get(2));
+        punch(2, "OUT", DAY, 12, 0);
+        Map<String, Object> second = dayCloseService.closeDay(DAY);
+        Assertions.assertEquals("ABSENT", status(2));
+        Assertions.assertEquals(0, second.get("inserted"));
+    }
+
+    private void punch(int employee, String direction, LocalDate date, int hour, int minute) {
+        jdbcTemplate.update("INSERT INTO punches (employee_id, punched_at, direction, device_id, received_at) "
+                        + "VALUES (?, ?, ?, 'test', ?)", employees.get(employee),
+                Timestamp.valueOf(LocalDateTime.of(date, LocalTime.of(hour, minute))), direction,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private String status(int employee) {
+        return jdbcTemplate.queryForObject("SELECT status FROM attendance WHERE employee_id = ? AND date = ?",
+                String.class, employees.get(employee), Date.valueOf(DAY));
+    }
+}
@@ -0,0 +1,217 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import com.ems.backend.security.JwtUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BatchScreeningServiceTest {
+
+    private static final int SIX_MB = 6 * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BatchScreeningService batchScreeningService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cancelWhileStreamingStillWritesTheSummary() throws Exception {
+        byte[] pdf = TestPdfs.pdf(List.of(List.of("Java Spring Boot", "Kafka Docker Kubernetes")));
+        List<org.springframework.web.multipart.MultipartFile> uploads = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            uploads.add(new MockMultipartFile("files", "cv-" + i + ".pdf", "application/pdf", pdf));
+        }
+        BatchScreeningService.Batch batch = batchScreeningService.prepare(uploads, "Java Developer");
+
+        LineCountingStream out = new LineCountingStream();
+        CompletableFuture<Void> streaming = CompletableFuture.runAsync(() -> {
+            try {
+                batchScreeningService.stream(batch, out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (out.lines() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertTrue(batchScreeningService.cancel(batch.getId()));
+        streaming.get(30, TimeUnit.SECONDS);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        JsonNode summary = objectMapper.readTree(lines[lines.length - 1]);
+        Assertions.assertTrue(summary.get("cancelled").asBoolean());
+        Assertions.assertEquals(400, summary.get("total").asInt());
+        Assertions.assertTrue(summary.get("completed").asInt() < 400);
+        Assertions.assertEquals(lines.length - 1, summary.get("completed").asInt());
+    }
+
+    @Test
+    void anErrorWhileScoringStillCountsTowardsTheTotal() throws Exception {
+        // PDFBox can throw an Error, not an Exception, on a malformed file
+        ResumeService resumeService = new ResumeService(null, null, null, null, null, null) {
+            @Override
+            public AnalysisResultDTO analyzeResumeLocally(Path pdf, String fileName, String targetRole) {
+                if (fileName.startsWith("broken")) {
+                    throw new StackOverflowError();
+                }
+                return AnalysisResultDTO.builder().score(70).build();
+            }
+        };
+        BatchScreeningService service = new BatchScreeningService(resumeService, objectMapper);
+        BatchScreeningService.Batch batch = new BatchScreeningService.Batch("Java Developer",
+                Files.createTempDirectory("ats-batch-test"));
+        for (String name : List.of("cv-1.pdf", "broken.pdf", "cv-2.pdf")) {
+            batch.getFiles().put(Files.createFile(batch.getDirectory().resolve(name)), name);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    service.stream(batch, out);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).get(30, TimeUnit.SECONDS);
+        } finally {
+            service.shutdown();
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(4, lines.length);
+        // Rows come in completion order
+        List<JsonNode> errors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            JsonNode row = objectMapper.readTree(lines[i]);
+            if (row.hasNonNull("error")) {
+                errors.add(row);
+            }
+        }
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals("broken.pdf", errors.get(0).get("fileName").asText());
+        Assertions.assertTrue(errors.get(0).get("error").asText().contains("StackOverflowError"));
+        JsonNode summary = objectMapper.readTree(lines[3]);
+        Assertions.assertEquals(3, summary.get("completed").asInt());
+        Assertions.assertEquals(3, summary.get("total").asInt());
+    }
+
+    @Test
+    void onlyTheBatchEndpointAcceptsLargeUploads() throws Exception {
+        RestTemplate rest = new RestTemplate();
+        String token = jwtUtils.generateToken(userDetailsService.loadUserByUsername("hr@ems.com"));
+
+        byte[] oversized = new byte[SIX_MB];
+        new Random(1).nextBytes(oversized);
+        HttpStatusCodeException rejected = Assertions.assertThrows(HttpStatusCodeException.class,
+                () -> rest.postForEntity(url("/api/ats/analyze"), upload("file", "cv.pdf", oversized, token), String.class));
+        Assertions.assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, rejected.getStatusCode());
+
+        // One real resume plus an incompressible non-PDF entry pushes the request past 5MB
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry("cv.pdf"));
+            out.write(TestPdfs.pdf(List.of(List.of("Java Spring Boot"))));
+            out.closeEntry();
+            ZipEntry padding = new ZipEntry("notes.bin");
+            padding.setMethod(ZipEntry.STORED);
+            padding.setSize(oversized.length);
+            CRC32 crc = new CRC32();
+            crc.update(oversized);
+            padding.setCrc(crc.getValue());
+            out.putNextEntry(padding);
+            out.write(oversized);
+            out.closeEntry();
+        }
+        Assertions.assertTrue(zip.size() > SIX_MB);
+        ResponseEntity<String> accepted = rest.postForEntity(url("/api/ats/batch"),
+                upload("files", "resumes.zip", zip.toByteArray(), token), String.class);
+        Assertions.assertEquals(HttpStatus.OK, accepted.getStatusCode());
+        Assertions.assertNotNull(accepted.getHeaders().getFirst("X-Batch-Id"));
+        String[] lines = accepted.getBody().split("\n");
+        Assertions.assertEquals(1, objectMapper.readTree(lines[lines.length - 1]).get("completed").asInt());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    private static HttpEntity<MultiValueMap<String, Object>> upload(String field, String name, byte[] bytes, String token) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add(field, new ByteArrayResource(bytes) {
+            @Override
+            public String getFilename() {
+                return name;
+            }
+        });
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        headers.setBearerAuth(token);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private static class LineCountingStream extends ByteArrayOutputStream {
+        private volatile int lines;
+
+        @Override
+        public synchronized void write(int b) {
+            super.write(b);
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+        }
+
+        int lines() {
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import com.ems.backend.dto.CandidateDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CandidateIndexServiceTest {
+
+    @Autowired
+    private CandidateIndexService candidateIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentFirstIndexOfOneFileLeavesOneCandidate() throws Exception {
+        String hash = UUID.randomUUID().toString().replace("-", "");
+        String role = "Role " + UUID.randomUUID();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    candidateIndexService.index(hash, "cv.pdf", role, result(70),
+                            () -> "Kafka streams developer with Spring Boot");
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(); // Fails the test if any thread hit the unique key
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM candidates WHERE file_hash = ?", Integer.class, hash));
+        // kafka, streams, developer, spring, boot and the phrase "spring boot"
+        Assertions.assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM candidate_terms t "
+                + "JOIN candidates c ON c.id = t.candidate_id WHERE c.file_hash = ?", Integer.class, hash));
+    }
+
+    @Test
+    void idfIsComputedOverTheFilteredCandidates() throws Exception {
+        String role = "Role " + UUID.randomUUID();
+        String otherRole = "Role " + UUID.randomUUID();
+        // Same word count everywhere in the role, so length normalisation is neutral
+        index(role, "kafka streams developer");
+        index(role, "kafka platform engineer");
+        index(role, "python data analyst");
+        for (int i = 0; i < 40; i++) {
+            index(otherRole, "payroll benefits specialist");
+        }
+
+        List<CandidateDTO> hits = candidateIndexService.search("kafka", true, role, null, 0, 10);
+
+        Assertions.assertEquals(2, hits.size());
+        // N = 3 candidates in the role, 2 of them contain the term
+        double idf = Math.log(1 + (3 - 2 + 0.5) / (2 + 0.5));
+        for (CandidateDTO hit : hits) {
+            Assertions.assertEquals(Math.round(idf * 1000) / 1000.0, hit.getRelevance(), 0.0005);
+        }
+    }
+
+    private void index(String role, String text) throws Exception {
+        candidateIndexService.index(UUID.randomUUID().toString().replace("-", ""), "cv.pdf", role, result(60),
+                () -> text);
+    }
+
+    private static AnalysisResultDTO result(int score) {
+        return AnalysisResultDTO.builder()
+                .score(score)
+                .recommendation("Shortlist")
+                .candidateName("Jane Doe")
+                .summary("Indexed by test")
+                .build();
+    }
+}
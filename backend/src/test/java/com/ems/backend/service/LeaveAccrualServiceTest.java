@@ -0,0 +1,120 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.LeaveAccrualRun;
+import com.ems.backend.repository.LeaveAccrualRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Chunks of two users and the default policy: 2 days a month, capped at 45.
+// A CHECK constraint on one user's new balance makes the second chunk fail
+// inside the database, the way a lost connection or a crash would.
+@SpringBootTest(properties = "leave.accrual.chunk-size=2")
+@ActiveProfiles("test")
+class LeaveAccrualServiceTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2001, 6);
+
+    @Autowired
+    private LeaveAccrualService accrualService;
+
+    @Autowired
+    private LeaveAccrualRunRepository runRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> ids;
+    private Map<Long, Integer> original;
+
+    @BeforeEach
+    void setUp() {
+        ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE is_active = true ORDER BY id", Long.class);
+        Assertions.assertTrue(ids.size() >= 5);
+        original = balances();
+        // Below, just under and above the cap
+        for (Long id : ids) {
+            setBalance(id, 10);
+        }
+        setBalance(ids.get(0), 44);
+        setBalance(ids.get(1), 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT IF EXISTS accrual_crash");
+        jdbcTemplate.update("DELETE FROM leave_accrual_runs WHERE period = ?", PERIOD.toString());
+        original.forEach(this::setBalance);
+    }
+
+    @Test
+    void aRunThatFailsPartWayResumesWithoutCreditingTwice() {
+        jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT accrual_crash CHECK (id <> " + ids.get(2)
+                + " OR leave_balance <> 12)");
+        Assertions.assertThrows(DataAccessException.class, () -> accrualService.runAccrual(PERIOD));
+
+        // The first chunk committed together with its checkpoint, the second rolled back
+        LeaveAccrualRun failed = runRepository.findByPeriod(PERIOD.toString()).orElseThrow();
+        Assertions.assertFalse(failed.isCompleted());
+        Assertions.assertEquals(ids.get(1), failed.getLastUserId());
+        Assertions.assertEquals(2L, failed.getUsersCredited());
+        Map<Long, Integer> partial = balances();
+        Assertions.assertEquals(45, partial.get(ids.get(0)));
+        Assertions.assertEquals(60, partial.get(ids.get(1)));
+        for (Long id : ids.subList(2, ids.size())) {
+            Assertions.assertEquals(10, partial.get(id));
+        }
+
+        jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT accrual_crash");
+        accrualService.resumeIncomplete();
+        assertCreditedOnce();
+
+        // A completed period is a no-op
+        accrualService.runAccrual(PERIOD);
+        assertCreditedOnce();
+    }
+
+    @Test
+    void futurePeriodsAreRefused() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> accrualService.runAccrual(YearMonth.now().plusMonths(1)));
+        Assertions.assertTrue(runRepository.findByPeriod(YearMonth.now().plusMonths(1).toString()).isEmpty());
+    }
+
+    private void assertCreditedOnce() {
+        LeaveAccrualRun run = runRepository.findByPeriod(PERIOD.toString()).orElseThrow();
+        Assertions.assertTrue(run.isCompleted());
+        Assertions.assertEquals((long) ids.size(), run.getUsersCredited());
+        Map<Long, Integer> after = balances();
+        // Capped, left alone above the cap, credited once
+        Assertions.assertEquals(45, after.get(ids.get(0)));
+        Assertions.assertEquals(60, after.get(ids.get(1)));
+        for (Long id : ids.subList(2, ids.size())) {
+            Assertions.assertEquals(12, after.get(id));
+        }
+    }
+
+    private Map<Long, Integer> balances() {
+        Map<Long, Integer> balances = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, leave_balance FROM users WHERE is_active = true ORDER BY id",
+                row -> {
+                    balances.put(row.getLong(1), row.getInt(2));
+                });
+        return balances;
+    }
+
+    private void setBalance(Long id, Integer balance) {
+        jdbcTemplate.update("UPDATE users SET leave_balance = ? WHERE id = ?", balance, id);
+    }
+}
@@ -0,0 +1,142 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.LeaveRequest;
+import com.ems.backend.model.LeaveStatus;
+import com.ems.backend.model.LeaveType;
+import com.ems.backend.model.Role;
+import com.ems.backend.model.User;
+import com.ems.backend.repository.LeaveRepository;
+import com.ems.backend.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Hundreds of parallel approvals against one balance: the conditional debit
+// must approve exactly as many days as the balance holds and never go below zero.
+@SpringBootTest
+@ActiveProfiles("test")
+class LeaveServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void parallelApprovalsNeverOverspendTheBalance() throws Exception {
+        int balance = 100;
+        User employee = employee(balance);
+        List<Long> leaveIds = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            leaveIds.add(pendingLeave(employee, LocalDate.now().plusDays(10 + i)).getId());
+        }
+
+        List<Outcome> outcomes = runInParallel(leaveIds.stream()
+                .<Callable<Outcome>>map(id -> () -> decide(id))
+                .toList());
+
+        long approved = outcomes.stream().filter(outcome -> outcome == Outcome.APPROVED).count();
+        long insufficient = outcomes.stream().filter(outcome -> outcome == Outcome.INSUFFICIENT).count();
+        Assertions.assertEquals(balance, approved);
+        Assertions.assertEquals(leaveIds.size() - balance, insufficient);
+        Assertions.assertEquals(0, userRepository.findById(employee.getId()).orElseThrow().getLeaveBalance());
+        // A refused debit rolls back its status transition too
+        Assertions.assertEquals(balance, leaveRepository.findAllById(leaveIds).stream()
+                .filter(leave -> leave.getStatus() == LeaveStatus.APPROVED)
+                .count());
+    }
+
+    @Test
+    void aLeaveIsDecidedOnlyOnce() throws Exception {
+        User employee = employee(20);
+        Long leaveId = pendingLeave(employee, LocalDate.now().plusDays(30)).getId();
+
+        List<Callable<Outcome>> attempts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            attempts.add(() -> decide(leaveId));
+        }
+        List<Outcome> outcomes = runInParallel(attempts);
+
+        Assertions.assertEquals(1, outcomes.stream().filter(outcome -> outcome == Outcome.APPROVED).count());
+        Assertions.assertEquals(199, outcomes.stream().filter(outcome -> outcome == Outcome.ALREADY_DECIDED).count());
+        Assertions.assertEquals(19, userRepository.findById(employee.getId()).orElseThrow().getLeaveBalance());
+    }
+
+    private enum Outcome { APPROVED, INSUFFICIENT, ALREADY_DECIDED }
+
+    private Outcome decide(Long leaveId) {
+        try {
+            leaveService.updateLeaveStatus(leaveId, LeaveStatus.APPROVED);
+            return Outcome.APPROVED;
+        } catch (IllegalArgumentException e) {
+            return Outcome.INSUFFICIENT;
+        } catch (IllegalStateException e) {
+            return Outcome.ALREADY_DECIDED;
+        }
+    }
+
+    private static List<Outcome> runInParallel(List<Callable<Outcome>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (Callable<Outcome> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private User employee(int balance) {
+        return userRepository.save(User.builder()
+                .name("Stress Test")
+                .email(UUID.randomUUID() + "@stress.test")
+                .password("x")
+                .role(Role.EMPLOYEE)
+                .department("IT")
+                .salary(BigDecimal.valueOf(50000))
+                .leaveBalance(balance)
+                .isActive(true)
+                .build());
+    }
+
+    private LeaveRequest pendingLeave(User employee, LocalDate date) {
+        return leaveRepository.save(LeaveRequest.builder()
+                .user(employee)
+                .startDate(date)
+                .endDate(date)
+                .reason("Stress test")
+                .leaveType(LeaveType.CASUAL_LEAVE)
+                .status(LeaveStatus.PENDING)
+                .build());
+    }
+}
@@ -0,0 +1,134 @@
+package com.ems.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+
+// LlmClient against a local stub that replays scripted responses
+class LlmClientTest {
+
+    private record Scripted(int status, String retryAfter) {
+    }
+
+    private static final byte[] OK_BODY = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"ok\"}]}}]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final Deque<Scripted> script = new ArrayDeque<>();
+    private HttpServer stub;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/", exchange -> {
+            Scripted next;
+            synchronized (script) {
+                next = script.isEmpty() ? new Scripted(200, null) : script.poll();
+            }
+            if (next.retryAfter() != null) {
+                exchange.getResponseHeaders().add("Retry-After", next.retryAfter());
+            }
+            byte[] body = next.status() == 200 ? OK_BODY : "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(next.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void retryAfterAcceptsSecondsAndHttpDates() {
+        Assertions.assertEquals(3_000, LlmClient.retryAfterMs("3"));
+        Assertions.assertEquals(0, LlmClient.retryAfterMs(null));
+        Assertions.assertEquals(0, LlmClient.retryAfterMs("soon"));
+        Assertions.assertEquals(0, LlmClient.retryAfterMs("-5"));
+        Assertions.assertEquals(0, LlmClient.retryAfterMs("99999999999999999999"));
+        Assertions.assertEquals(0, LlmClient.retryAfterMs("Wed, 21 Oct 2015 07:28:00 GMT"));
+        long inFuture = LlmClient.retryAfterMs(httpDate(10));
+        Assertions.assertTrue(inFuture > 8_000 && inFuture <= 10_000, String.valueOf(inFuture));
+    }
+
+    @Test
+    void httpDateRetryAfterIsHonoured() throws Exception {
+        LlmClient client = client(2, 10);
+        script.add(new Scripted(429, httpDate(3)));
+
+        long started = System.nanoTime();
+        Assertions.assertEquals("ok", client.generateContent("prompt"));
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        // Second resolution: the date is at least two full seconds away
+        Assertions.assertTrue(elapsedMs >= 1_500, "retried after " + elapsedMs + "ms");
+    }
+
+    @Test
+    void unparsableRetryAfterFallsBackToJitteredBackoff() throws Exception {
+        script.add(new Scripted(503, "whenever"));
+        script.add(new Scripted(429, "Thursday"));
+        LlmClient client = client(2, 10);
+
+        long started = System.nanoTime();
+        Assertions.assertEquals("ok", client.generateContent("prompt"));
+        Assertions.assertTrue((System.nanoTime() - started) / 1_000_000 < 1_000);
+    }
+
+    @Test
+    void breakerOpensOnlyAfterMinCallsFailures() throws Exception {
+        LlmClient client = client(0, 10);
+        for (int i = 0; i < 10; i++) {
+            script.add(new Scripted(503, null));
+        }
+        for (int call = 1; call <= 9; call++) {
+            LlmClient.LlmUnavailableException e = Assertions.assertThrows(LlmClient.LlmUnavailableException.class,
+                    () -> client.generateContent("prompt"));
+            Assertions.assertEquals("API Error 503", e.getMessage(), "call " + call);
+        }
+        Assertions.assertThrows(LlmClient.LlmUnavailableException.class, () -> client.generateContent("prompt"));
+        LlmClient.LlmUnavailableException open = Assertions.assertThrows(LlmClient.LlmUnavailableException.class,
+                () -> client.generateContent("prompt"));
+        Assertions.assertEquals("AI Circuit Open", open.getMessage());
+    }
+
+    private LlmClient client(int maxRetries, long retryMaxMs) {
+        LlmClient client = new LlmClient(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "apiKey", "stub-key");
+        ReflectionTestUtils.setField(client, "apiEndpoint", "http://localhost:" + stub.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 2_000L);
+        ReflectionTestUtils.setField(client, "requestTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(client, "deadlineMs", 10_000L);
+        ReflectionTestUtils.setField(client, "maxConcurrentCalls", 4);
+        ReflectionTestUtils.setField(client, "maxRetries", maxRetries);
+        ReflectionTestUtils.setField(client, "retryBaseMs", 5L);
+        ReflectionTestUtils.setField(client, "retryMaxMs", retryMaxMs);
+        ReflectionTestUtils.setField(client, "breakerWindow", 20);
+        ReflectionTestUtils.setField(client, "breakerMinCalls", 10);
+        ReflectionTestUtils.setField(client, "breakerFailureRate", 0.5);
+        ReflectionTestUtils.setField(client, "breakerOpenMs", 30_000L);
+        client.init();
+        return client;
+    }
+
+    private static String httpDate(long secondsFromNow) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(secondsFromNow));
+    }
+}
@@ -0,0 +1,223 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.Attendance;
+import com.ems.backend.model.AttendanceStatus;
+import com.ems.backend.model.LeaveRequest;
+import com.ems.backend.model.LeaveStatus;
+import com.ems.backend.model.LeaveType;
+import com.ems.backend.model.OutboxEvent;
+import com.ems.backend.model.OutboxEventType;
+import com.ems.backend.model.Role;
+import com.ems.backend.model.User;
+import com.ems.backend.repository.AttendanceRepository;
+import com.ems.backend.repository.LeaveRepository;
+import com.ems.backend.repository.OutboxEventRepository;
+import com.ems.backend.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Crash and replay of the leave-decided outbox. A crash is simulated by running
+// the dispatcher inside a transaction that is rolled back instead of committed:
+// whatever the dispatch did is lost, exactly as if the process died before commit.
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxDispatcherTest {
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${outbox.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Test
+    void approvalIsProjectedOnceAfterACrashAndReplays() {
+        User employee = employee();
+        LocalDate start = LocalDate.now().plusDays(20);
+        LocalDate end = start.plusDays(4);
+        LeaveRequest leave = leaveRepository.save(LeaveRequest.builder()
+                .user(employee)
+                .startDate(start)
+                .endDate(end)
+                .reason("Outbox test")
+                .leaveType(LeaveType.EARNED_LEAVE)
+                .status(LeaveStatus.PENDING)
+                .build());
+
+        leaveService.updateLeaveStatus(leave.getId(), LeaveStatus.APPROVED);
+        OutboxEvent event = eventFor(leave.getId());
+        Assertions.assertNull(event.getProcessedAt());
+        // The decision commits without touching attendance
+        Assertions.assertTrue(rows(employee, start, end).isEmpty());
+
+        // Crash mid-dispatch: the projection and the processed mark roll back together
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxDispatcher.dispatchPending();
+            Assertions.assertEquals(5, rows(employee, start, end).size());
+            status.setRollbackOnly();
+        });
+        Assertions.assertTrue(rows(employee, start, end).isEmpty());
+        Assertions.assertNull(eventFor(leave.getId()).getProcessedAt());
+
+        // Restart: the event is still pending and is applied
+        outboxDispatcher.dispatchPending();
+        Assertions.assertNotNull(eventFor(leave.getId()).getProcessedAt());
+        assertLeaveDays(employee, start, end);
+
+        // Redelivery (processed mark lost) rewrites the same rows, no duplicates
+        event = eventFor(leave.getId());
+        event.setProcessedAt(null);
+        outboxEventRepository.save(event);
+        outboxDispatcher.dispatchPending();
+        assertLeaveDays(employee, start, end);
+        Assertions.assertEquals(15, userRepository.findById(employee.getId()).orElseThrow().getLeaveBalance());
+    }
+
+    @Test
+    void deadLettersLeavePendingAndLag() {
+        outboxDispatcher.dispatchPending();
+        long pending = outboxDispatcher.getPendingCount();
+        long dead = outboxDispatcher.getDeadCount();
+
+        OutboxEvent poisoned = outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEventType.LEAVE_DECIDED)
+                .aggregateId(-1L)
+                .payload(LeaveStatus.APPROVED.name())
+                .build());
+        Assertions.assertEquals(pending + 1, outboxDispatcher.getPendingCount());
+
+        for (int i = 0; i < maxAttempts; i++) {
+            outboxDispatcher.dispatchPending();
+            makeDue(poisoned.getId());
+        }
+
+        OutboxEvent failed = outboxEventRepository.findById(poisoned.getId()).orElseThrow();
+        Assertions.assertEquals(maxAttempts, failed.getAttempts());
+        Assertions.assertNotNull(failed.getLastError());
+        Assertions.assertEquals(pending, outboxDispatcher.getPendingCount());
+        Assertions.assertEquals(dead + 1, outboxDispatcher.getDeadCount());
+        Assertions.assertTrue(outboxDispatcher.getLag().isZero());
+    }
+
+    @Test
+    void aTransientFailureBacksOffAndSucceedsInALaterCycle() {
+        User employee = employee();
+        LocalDate start = LocalDate.now().plusDays(40);
+        LocalDate end = start.plusDays(4);
+        LeaveRequest leave = leaveRepository.save(LeaveRequest.builder()
+                .user(employee)
+                .startDate(start)
+                .endDate(end)
+                .reason("Outbox backoff test")
+                .leaveType(LeaveType.CASUAL_LEAVE)
+                .status(LeaveStatus.PENDING)
+                .build());
+        leaveService.updateLeaveStatus(leave.getId(), LeaveStatus.APPROVED);
+        Long eventId = eventFor(leave.getId()).getId();
+
+        // The projection fails, as it would with a lock timeout or the database briefly away
+        jdbcTemplate.execute("ALTER TABLE attendance ADD CONSTRAINT outbox_outage CHECK (employee_id <> "
+                + employee.getId() + ")");
+        try {
+            outboxDispatcher.dispatchPending();
+            OutboxEvent failed = outboxEventRepository.findById(eventId).orElseThrow();
+            Assertions.assertEquals(1, failed.getAttempts());
+            Assertions.assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+            // Cycles during the backoff leave it alone instead of spending its attempts
+            outboxDispatcher.dispatchPending();
+            outboxDispatcher.dispatchPending();
+            Assertions.assertEquals(1, outboxEventRepository.findById(eventId).orElseThrow().getAttempts());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE attendance DROP CONSTRAINT outbox_outage");
+        }
+
+        // Once the backoff has passed, the next cycle applies it
+        makeDue(eventId);
+        outboxDispatcher.dispatchPending();
+        OutboxEvent applied = outboxEventRepository.findById(eventId).orElseThrow();
+        Assertions.assertNotNull(applied.getProcessedAt());
+        Assertions.assertEquals(1, applied.getAttempts());
+        assertLeaveDays(employee, start, end);
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        Duration first = outboxDispatcher.backoff(1);
+        Assertions.assertEquals(first.multipliedBy(2), outboxDispatcher.backoff(2));
+        Assertions.assertEquals(first.multipliedBy(8), outboxDispatcher.backoff(4));
+        Assertions.assertEquals(outboxDispatcher.backoff(40), outboxDispatcher.backoff(1000));
+    }
+
+    // Stands in for the backoff running out
+    private void makeDue(Long eventId) {
+        OutboxEvent event = outboxEventRepository.findById(eventId).orElseThrow();
+        event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(event);
+    }
+
+    private void assertLeaveDays(User employee, LocalDate start, LocalDate end) {
+        List<Attendance> rows = rows(employee, start, end);
+        Assertions.assertEquals(5, rows.size());
+        for (Attendance row : rows) {
+            Assertions.assertEquals(AttendanceStatus.LEAVE, row.getStatus());
+        }
+    }
+
+    private List<Attendance> rows(User employee, LocalDate start, LocalDate end) {
+        return attendanceRepository.findByEmployeeAndDateRange(employee.getId(), start, end);
+    }
+
+    private OutboxEvent eventFor(Long leaveId) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(leaveId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private User employee() {
+        return userRepository.save(User.builder()
+                .name("Outbox Test")
+                .email(UUID.randomUUID() + "@outbox.test")
+                .password("x")
+                .role(Role.EMPLOYEE)
+                .department("IT")
+                .salary(BigDecimal.valueOf(50000))
+                .leaveBalance(20)
+                .isActive(true)
+                .build());
+    }
+}
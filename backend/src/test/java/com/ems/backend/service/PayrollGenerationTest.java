@@ -0,0 +1,198 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.Attendance;
+import com.ems.backend.model.AttendanceArchive;
+import com.ems.backend.model.AttendanceArchiveRun;
+import com.ems.backend.model.AttendanceStatus;
+import com.ems.backend.model.LeaveRequest;
+import com.ems.backend.model.LeaveStatus;
+import com.ems.backend.model.LeaveType;
+import com.ems.backend.model.Payroll;
+import com.ems.backend.model.User;
+import com.ems.backend.repository.AttendanceArchiveRepository;
+import com.ems.backend.repository.AttendanceArchiveRunRepository;
+import com.ems.backend.repository.AttendanceRepository;
+import com.ems.backend.repository.LeaveRepository;
+import com.ems.backend.repository.PayrollRepository;
+import com.ems.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Payable days are summed by the database and employees paid a chunk at a
+// time. The sums have to match the per-row rules (present 1, half day 0.5,
+// paid leave 1, unpaid leave and absent 0) wherever the month is stored.
+@SpringBootTest
+@ActiveProfiles("test")
+class PayrollGenerationTest {
+
+    // 29 days; periods no other test generates payroll for
+    private static final YearMonth LIVE_MONTH = YearMonth.of(2092, 2);
+    private static final YearMonth MOVING_MONTH = YearMonth.of(2096, 2);
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceArchiveRepository archiveRepository;
+
+    @Autowired
+    private AttendanceArchiveRunRepository runRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<LeaveRequest> leaves = new ArrayList<>();
+
+    @BeforeEach
+    void smallChunks() {
+        // Several chunks even for the seeded headcount
+        ReflectionTestUtils.setField(payrollService, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(payrollService, "chunkSize", 1000);
+        for (YearMonth month : List.of(LIVE_MONTH, MOVING_MONTH)) {
+            payrollRepository.deleteAll(payrollRepository.findByMonthAndYear(month.getMonthValue(), month.getYear()));
+            archiveRepository.deleteAll(archiveRepository.findByDateRange(month.atDay(1), month.atEndOfMonth()));
+            attendanceRepository.deleteAll(
+                    attendanceRepository.findWithDetailsByDateRange(month.atDay(1), month.atEndOfMonth()));
+            runRepository.findByPeriod(month.toString()).ifPresent(runRepository::delete);
+        }
+        leaveRepository.deleteAll(leaves);
+        leaves.clear();
+    }
+
+    @Test
+    void payableDaysFollowStatusAndLeaveType() {
+        User alice = user("alice.johnson@ems.com");
+        User bob = user("bob.smith@ems.com");
+        List<Attendance> rows = month(LIVE_MONTH, alice, bob);
+        attendanceRepository.saveAll(rows);
+
+        payrollService.generatePayroll(LIVE_MONTH.getMonthValue(), LIVE_MONTH.getYear());
+
+        assertPaid(LIVE_MONTH, alice, 15.0);
+        assertPaid(LIVE_MONTH, bob, 1.0);
+        // Everyone with a salary is paid, with or without attendance rows
+        long salaried = userRepository.findAll().stream()
+                .filter(u -> u.getSalary() != null && u.getSalary().signum() > 0).count();
+        Assertions.assertEquals(salaried,
+                payrollRepository.findByMonthAndYear(LIVE_MONTH.getMonthValue(), LIVE_MONTH.getYear()).size());
+    }
+
+    @Test
+    void aMonthBeingArchivedIsCountedOnce() {
+        User alice = user("alice.johnson@ems.com");
+        User bob = user("bob.smith@ems.com");
+        List<Attendance> rows = attendanceRepository.saveAll(month(MOVING_MONTH, alice, bob));
+        runRepository.save(AttendanceArchiveRun.builder().period(MOVING_MONTH.toString()).completed(false).build());
+        // A third of the rows moved, a third in both tables (a chunk seen mid-move), a third still live
+        for (int i = 0; i < rows.size(); i++) {
+            Attendance row = rows.get(i);
+            if (i % 3 == 2) {
+                continue;
+            }
+            archiveRepository.save(AttendanceArchive.builder()
+                    .id(row.getId())
+                    .employee(row.getEmployee())
+                    .date(row.getDate())
+                    .status(row.getStatus())
+                    .leaveRequest(row.getLeaveRequest())
+                    .build());
+            if (i % 3 == 0) {
+                attendanceRepository.delete(row);
+            }
+        }
+
+        payrollService.generatePayroll(MOVING_MONTH.getMonthValue(), MOVING_MONTH.getYear());
+
+        assertPaid(MOVING_MONTH, alice, 15.0);
+        assertPaid(MOVING_MONTH, bob, 1.0);
+    }
+
+    // Alice: 10 present, 4 half days, 3 days paid leave, 2 days unpaid leave, 10 absent = 15 payable.
+    // Bob: 1 present, 28 absent = 1 payable. All finalized.
+    private List<Attendance> month(YearMonth month, User alice, User bob) {
+        LeaveRequest paid = leave(alice, month, LeaveType.CASUAL_LEAVE);
+        LeaveRequest unpaid = leave(alice, month, LeaveType.UNPAID_LEAVE);
+        List<Attendance> rows = new ArrayList<>();
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            AttendanceStatus status = AttendanceStatus.ABSENT;
+            LeaveRequest leave = null;
+            if (day <= 10) {
+                status = AttendanceStatus.PRESENT;
+            } else if (day <= 14) {
+                status = AttendanceStatus.HALF_DAY;
+            } else if (day <= 17) {
+                status = AttendanceStatus.LEAVE;
+                leave = paid;
+            } else if (day <= 19) {
+                status = AttendanceStatus.LEAVE;
+                leave = unpaid;
+            }
+            rows.add(row(alice, month, day, status, leave));
+            rows.add(row(bob, month, day, day == 1 ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT, null));
+        }
+        return rows;
+    }
+
+    private Attendance row(User employee, YearMonth month, int day, AttendanceStatus status, LeaveRequest leave) {
+        return Attendance.builder()
+                .employee(employee)
+                .date(month.atDay(day))
+                .status(status)
+                .leaveRequest(leave)
+                .finalized(true)
+                .build();
+    }
+
+    private LeaveRequest leave(User employee, YearMonth month, LeaveType type) {
+        LeaveRequest leave = leaveRepository.save(LeaveRequest.builder()
+                .user(employee)
+                .startDate(month.atDay(1))
+                .endDate(month.atDay(1))
+                .status(LeaveStatus.APPROVED)
+                .leaveType(type)
+                .build());
+        leaves.add(leave);
+        return leave;
+    }
+
+    private void assertPaid(YearMonth month, User employee, double payableDays) {
+        Payroll payroll = payrollRepository
+                .findByEmployeeIdAndMonthAndYear(employee.getId(), month.getMonthValue(), month.getYear())
+                .orElseThrow();
+        BigDecimal perDay = employee.getSalary().divide(BigDecimal.valueOf(month.lengthOfMonth()), 2,
+                RoundingMode.HALF_UP);
+        BigDecimal net = perDay.multiply(BigDecimal.valueOf(payableDays)).setScale(2, RoundingMode.HALF_UP);
+        Assertions.assertEquals(0, net.compareTo(payroll.getNetSalary()), employee.getEmail());
+        Assertions.assertEquals(0, employee.getSalary().subtract(net).compareTo(payroll.getDeductionAmount()));
+        Assertions.assertEquals((int) Math.ceil(payableDays), payroll.getPayableDays());
+    }
+
+    private User user(String email) {
+        return userRepository.findByEmailAndIsActiveTrue(email).orElseThrow();
+    }
+}
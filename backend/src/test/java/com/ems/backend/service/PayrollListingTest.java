@@ -0,0 +1,116 @@
+package com.ems.backend.service;
+
+import com.ems.backend.config.StatementCounter;
+import com.ems.backend.dto.PayrollSummaryDTO;
+import com.ems.backend.model.Payroll;
+import com.ems.backend.model.PayrollStatus;
+import com.ems.backend.model.User;
+import com.ems.backend.repository.PayrollRepository;
+import com.ems.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PayrollListingTest {
+
+    // A period no other test generates payroll for
+    private static final int MONTH = 3;
+    private static final int YEAR = 2091;
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private int rows;
+
+    @BeforeEach
+    void seed() {
+        List<Payroll> payrolls = new ArrayList<>();
+        List<User> users = userRepository.findAll();
+        for (int i = 0; i < users.size(); i++) {
+            payrolls.add(Payroll.builder()
+                    .employee(users.get(i))
+                    .month(MONTH)
+                    .year(YEAR)
+                    .baseSalary(BigDecimal.valueOf(3000))
+                    .payableDays(31)
+                    .deductionAmount(BigDecimal.ZERO)
+                    .netSalary(BigDecimal.valueOf(3000))
+                    .status(i == 0 ? PayrollStatus.GENERATED : PayrollStatus.PAID)
+                    .build());
+        }
+        payrollRepository.saveAll(payrolls);
+        rows = payrolls.size();
+        Assertions.assertTrue(rows >= 3, "seeded users");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        payrollRepository.deleteAll(payrollRepository.findByMonthAndYear(MONTH, YEAR));
+    }
+
+    @Test
+    void pageIsOneStatementWhateverTheSize() {
+        // Partial first page: the count comes from the content, no count query
+        Assertions.assertEquals(1, statementsFor(null, rows + 10));
+        Assertions.assertEquals(1, statementsFor(null, rows + 100));
+        // Full page: data plus one count, still independent of the page size
+        Assertions.assertEquals(2, statementsFor(null, 1));
+        Assertions.assertEquals(2, statementsFor(null, rows - 1));
+    }
+
+    @Test
+    void listingReadsTheEmployeeWithoutExtraQueries() {
+        statementCounter.start(-1);
+        Page<PayrollSummaryDTO> page;
+        try {
+            page = payrollService.getPayroll(MONTH, YEAR, null, 0, 200);
+            page.getContent().forEach(p -> Assertions.assertNotNull(p.getEmployeeName()));
+        } finally {
+            Assertions.assertEquals(1, statementCounter.stop());
+        }
+        Assertions.assertEquals(rows, page.getTotalElements());
+    }
+
+    @Test
+    void monthStateIgnoresTheListingFilter() {
+        // Filtering to PAID would report every row as paid; the month still has one unpaid
+        Page<PayrollSummaryDTO> paid = payrollService.getPayroll(MONTH, YEAR, PayrollStatus.PAID, 0, 200);
+        Assertions.assertEquals(rows - 1, paid.getTotalElements());
+        Assertions.assertEquals(Map.of("generated", true, "unpaid", true),
+                payrollService.getPayrollState(MONTH, YEAR));
+        Assertions.assertEquals(Map.of("generated", false, "unpaid", false),
+                payrollService.getPayrollState(MONTH, YEAR + 1));
+    }
+
+    private int statementsFor(PayrollStatus status, int size) {
+        statementCounter.start(-1);
+        try {
+            payrollService.getPayroll(MONTH, YEAR, status, 0, size);
+        } catch (RuntimeException e) {
+            statementCounter.stop();
+            throw e;
+        }
+        return statementCounter.stop();
+    }
+}
@@ -0,0 +1,122 @@
+package com.ems.backend.service;
+
+import com.ems.backend.model.User;
+import com.ems.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfileImageServiceTest {
+
+    private static final Path AVATAR_DIR = Paths.get("uploads", "avatars");
+
+    @Autowired
+    private ProfileImageService profileImageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<String> stored = new ArrayList<>();
+
+    @AfterEach
+    void removeStoredImages() throws IOException {
+        for (String hash : stored) {
+            FileSystemUtils.deleteRecursively(AVATAR_DIR.resolve(hash));
+        }
+    }
+
+    @Test
+    void listPagesDownloadUnderFivePercentOfTheOriginalBytes() throws Exception {
+        byte[] photo = photo(2400, 1800);
+        User user = userRepository.findByEmailAndIsActiveTrue("hr@ems.com").orElseThrow();
+
+        ProfileImageService.StoredImage image = profileImageService.store(
+                new MockMultipartFile("file", "holiday.jpg", "image/jpeg", photo));
+        stored.add(image.hash());
+        Assertions.assertTrue(image.thumbnailUrl().endsWith("/" + image.hash() + "/128.jpg"));
+
+        // As EmployeeService does: show the original until the thumbnails exist
+        user.setProfileImage(image.originalUrl());
+        userRepository.save(user);
+        profileImageService.generateThumbnailsAsync(image, user.getId());
+        Path thumbnail = AVATAR_DIR.resolve(image.hash()).resolve("128.jpg");
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!thumbnailReady(user.getId(), image) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assertions.assertTrue(thumbnailReady(user.getId(), image), "thumbnails were not generated");
+
+        long originalBytes = Files.size(AVATAR_DIR.resolve(image.hash()).resolve("original.jpg"));
+        long listBytes = Files.size(thumbnail);
+        Assertions.assertEquals(photo.length, originalBytes);
+        Assertions.assertTrue(listBytes * 20 < originalBytes, listBytes + " of " + originalBytes + " bytes");
+    }
+
+    @Test
+    void identicalUploadsAreStoredOnce() throws Exception {
+        byte[] photo = photo(800, 600);
+        ProfileImageService.StoredImage first = profileImageService.store(
+                new MockMultipartFile("file", "a.jpg", "image/jpeg", photo));
+        stored.add(first.hash());
+        ProfileImageService.StoredImage second = profileImageService.store(
+                new MockMultipartFile("file", "b.jpg", "image/jpeg", photo));
+
+        Assertions.assertEquals(first.hash(), second.hash());
+        Assertions.assertEquals(first.originalUrl(), second.originalUrl());
+        try (var files = Files.list(AVATAR_DIR.resolve(first.hash()))) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    private boolean thumbnailReady(Long userId, ProfileImageService.StoredImage image) {
+        return image.thumbnailUrl().equals(userRepository.findById(userId).orElseThrow().getProfileImage());
+    }
+
+    // Smooth gradients with sensor-like noise, saved at camera quality
+    private static byte[] photo(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(7);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = Math.min(255, x * 255 / width + random.nextInt(24));
+                int g = Math.min(255, y * 255 / height + random.nextInt(24));
+                int b = Math.min(255, 128 + random.nextInt(48));
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.92f);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,163 @@
+package com.ems.backend.service;
+
+import com.ems.backend.controller.PunchController;
+import com.ems.backend.dto.PunchDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Each test runs its own small PunchIngestionService against the test database.
+// A database outage is simulated with a CHECK constraint that refuses this
+// test's punches (device ids "ingest-test-*").
+@SpringBootTest
+@ActiveProfiles("test")
+class PunchIngestionServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private PunchIngestionService service;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        jdbcTemplate.execute("ALTER TABLE punches DROP CONSTRAINT IF EXISTS punch_outage");
+        if (service != null) {
+            ReflectionTestUtils.invokeMethod(service, "stop");
+        }
+        jdbcTemplate.update("DELETE FROM punches WHERE device_id LIKE 'ingest-test-%'");
+    }
+
+    @Test
+    void aFullBufferAcceptsAPrefixAndTheCallerResendsFromAccepted() throws InterruptedException {
+        service = service(8, 4, 20);
+        PunchController controller = new PunchController(service);
+        List<PunchDTO> punches = punches("ingest-test-resend", 20);
+        outage();
+
+        ResponseEntity<Map<String, Object>> response = controller.ingest(punches);
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        Assertions.assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        int accepted = (int) response.getBody().get("accepted");
+        // The buffer, plus at most the batch the writer has taken out of it
+        Assertions.assertTrue(accepted >= 8 && accepted <= 12, "accepted " + accepted);
+        Assertions.assertEquals(20 - accepted, response.getBody().get("rejected"));
+
+        jdbcTemplate.execute("ALTER TABLE punches DROP CONSTRAINT punch_outage");
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (accepted < punches.size()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Resends were never accepted");
+            Thread.sleep(50);
+            response = controller.ingest(punches.subList(accepted, punches.size()));
+            accepted += (int) response.getBody().get("accepted");
+        }
+        Assertions.assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        awaitWritten(20);
+
+        // Every punch exactly once
+        Assertions.assertEquals(20, count("ingest-test-resend"));
+        Assertions.assertEquals(20, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT punched_at) FROM punches WHERE device_id = ?", Long.class, "ingest-test-resend"));
+    }
+
+    @Test
+    void aFailedBatchIsRetriedUntilTheDatabaseIsBack() throws InterruptedException {
+        service = service(64, 10, 20);
+        outage();
+        Assertions.assertEquals(10, service.ingest(punches("ingest-test-retry", 10)).get("accepted"));
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while ((long) service.getStatus().get("writeFailures") < 2) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "The writer never retried");
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(0, count("ingest-test-retry"));
+        Assertions.assertNotNull(service.getStatus().get("lastError"));
+        Assertions.assertEquals(10L, service.getStatus().get("pending"));
+
+        jdbcTemplate.execute("ALTER TABLE punches DROP CONSTRAINT punch_outage");
+        awaitWritten(10);
+        Assertions.assertEquals(10, count("ingest-test-retry"));
+        Assertions.assertEquals(0L, service.getStatus().get("pending"));
+        Assertions.assertNull(service.getStatus().get("lastError"));
+    }
+
+    @Test
+    void shutdownWritesWhatIsStillBuffered() {
+        // Neither a full batch nor the delay is reached before stop
+        service = service(64, 1000, 60_000);
+        Assertions.assertEquals(50, service.ingest(punches("ingest-test-shutdown", 50)).get("accepted"));
+        Assertions.assertEquals(0, count("ingest-test-shutdown"));
+
+        ReflectionTestUtils.invokeMethod(service, "stop");
+
+        Assertions.assertEquals(50, count("ingest-test-shutdown"));
+        Assertions.assertEquals(0, service.getStatus().get("buffered"));
+        // Nothing is taken once stopping
+        Map<String, Object> late = service.ingest(punches("ingest-test-shutdown", 1));
+        Assertions.assertEquals(0, late.get("accepted"));
+        Assertions.assertEquals(1, late.get("rejected"));
+    }
+
+    private PunchIngestionService service(int capacity, int batchSize, long maxDelayMs) {
+        PunchIngestionService ingestion = new PunchIngestionService(jdbcTemplate, transactionTemplate,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestion, "capacity", capacity);
+        ReflectionTestUtils.setField(ingestion, "batchSize", batchSize);
+        ReflectionTestUtils.setField(ingestion, "maxDelayMs", maxDelayMs);
+        ReflectionTestUtils.setField(ingestion, "maxClockSkewSeconds", 300L);
+        ReflectionTestUtils.setField(ingestion, "maxAgeHours", 48L);
+        ReflectionTestUtils.setField(ingestion, "maxRequestSize", 5000);
+        ReflectionTestUtils.invokeMethod(ingestion, "start");
+        return ingestion;
+    }
+
+    private void outage() {
+        jdbcTemplate.execute("ALTER TABLE punches ADD CONSTRAINT punch_outage "
+                + "CHECK (device_id IS NULL OR device_id NOT LIKE 'ingest-test-%')");
+    }
+
+    // A second apart, so each punch can be told apart in the table
+    private static List<PunchDTO> punches(String deviceId, int count) {
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        List<PunchDTO> punches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PunchDTO punch = new PunchDTO();
+            punch.setEmployeeId(1L);
+            punch.setPunchedAt(start.plusSeconds(i));
+            punch.setDirection(i % 2 == 0 ? "IN" : "OUT");
+            punch.setDeviceId(deviceId);
+            punches.add(punch);
+        }
+        return punches;
+    }
+
+    private void awaitWritten(long punches) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while ((long) service.getStatus().get("written") < punches) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline,
+                    "Punches were not written: " + service.getStatus());
+            Thread.sleep(20);
+        }
+    }
+
+    private long count(String deviceId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM punches WHERE device_id = ?", Long.class, deviceId);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ems.backend.service;
+
+import com.ems.backend.dto.AnalysisResultDTO;
+import com.ems.backend.repository.CachedAnalysisRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Only final analyses are kept: local fallbacks (no API key, upstream down) and
+// anything derived from text the time budget cut short are served once and
+// computed again on the next request, in memory and in the persisted tier.
+@SpringBootTest
+@ActiveProfiles("test")
+class ResumeAnalysisCacheTest {
+
+    @Autowired
+    private ResumeAnalysisCache analysisCache;
+
+    @Autowired
+    private ResumeService resumeService;
+
+    @Autowired
+    private CachedAnalysisRepository cachedAnalysisRepository;
+
+    @Test
+    void finalResultsAreCachedAndPersisted() throws Exception {
+        String hash = UUID.randomUUID().toString();
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            analysisCache.getResult(hash, "Java Developer", () -> {
+                loads.incrementAndGet();
+                return AnalysisResultDTO.builder().score(80).summary("Final").build();
+            });
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertTrue(cachedAnalysisRepository.findByFileHashAndRole(hash, "java developer").isPresent());
+    }
+
+    @Test
+    void degradedResultsAreNeitherCachedNorPersisted() throws Exception {
+        String hash = UUID.randomUUID().toString();
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            AnalysisResultDTO result = analysisCache.getResult(hash, "Java Developer", () -> {
+                loads.incrementAndGet();
+                return AnalysisResultDTO.builder().score(40).summary("Fallback").degraded(true).build();
+            });
+            Assertions.assertTrue(result.isDegraded());
+        }
+        Assertions.assertEquals(3, loads.get());
+        Assertions.assertTrue(cachedAnalysisRepository.findByFileHashAndRole(hash, "java developer").isEmpty());
+    }
+
+    @Test
+    void partialTextIsNotCached() throws Exception {
+        String hash = UUID.randomUUID().toString();
+        AtomicInteger complete = new AtomicInteger();
+        AtomicInteger partial = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            analysisCache.getText(hash + "-partial", () -> {
+                partial.incrementAndGet();
+                return new ResumeTextExtractor.Extraction("first page only", false);
+            });
+            analysisCache.getText(hash, () -> {
+                complete.incrementAndGet();
+                return new ResumeTextExtractor.Extraction("whole resume", true);
+            });
+        }
+        Assertions.assertEquals(3, partial.get());
+        Assertions.assertEquals(1, complete.get());
+    }
+
+    @Test
+    void localAnswerWithoutApiKeyIsNotKept() throws Exception {
+        // The test profile has no Gemini key
+        byte[] pdf = TestPdfs.pdf(List.of(List.of("Unique " + UUID.randomUUID(), "Java Spring Boot Kafka")));
+        AnalysisResultDTO result = resumeService.analyzeResume(
+                new MockMultipartFile("file", "cv.pdf", "application/pdf", pdf), "Java Developer");
+
+        Assertions.assertTrue(result.getSummary().contains("API Key Missing"));
+        String hash = analysisCache.sha256(new ByteArrayInputStream(pdf));
+        Assertions.assertTrue(cachedAnalysisRepository.findByFileHashAndRole(hash, "java developer").isEmpty());
+        // Served again from the scorer, not from the result cache
+        AtomicInteger loads = new AtomicInteger();
+        analysisCache.getResult(hash, "Java Developer", () -> {
+            loads.incrementAndGet();
+            return AnalysisResultDTO.builder().score(90).summary("Gemini").build();
+        });
+        Assertions.assertEquals(1, loads.get());
+    }
+}
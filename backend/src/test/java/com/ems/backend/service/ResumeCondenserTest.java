@@ -0,0 +1,81 @@
+package com.ems.backend.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ResumeCondenserTest {
+
+    private final ResumeCondenser condenser = new ResumeCondenser();
+
+    @Test
+    void runningHeadersAreDroppedButRepeatedBodyLinesAreKept() {
+        List<String> pages = new ArrayList<>();
+        for (int page = 1; page <= 3; page++) {
+            pages.add(String.join("\n",
+                    "Jane Doe - Curriculum Vitae",
+                    "Experience",
+                    "Acme Corp " + page,
+                    "- Migrated services to Spring Boot",
+                    "- Led the on-call rotation",
+                    "Tools used daily: Java, Kafka",
+                    "Team of " + (page + 4) + " engineers",
+                    "Shipped release " + page + ".0",
+                    "Page " + page + " of 3"));
+        }
+        String condensed = condenser.condense(String.join("\f", pages), 10_000);
+
+        Assertions.assertFalse(condensed.contains("Curriculum Vitae"), condensed);
+        // Repeated on every page, but in the body rather than at the edges
+        Assertions.assertEquals(3, count(condensed, "Migrated services to Spring Boot"));
+        Assertions.assertTrue(condensed.contains("Tools used daily: Java, Kafka"));
+        Assertions.assertFalse(condensed.contains("Page 2 of 3"));
+    }
+
+    @Test
+    void contactDetailsAreRemovedWithoutLosingTheLine() {
+        String resume = String.join("\n",
+                "Jane Doe",
+                "jane.doe@example.com | +1 (555) 123-4567 | linkedin.com/in/janedoe | github.com/janedoe",
+                "Projects",
+                "- Ledger service, code at github.com/janedoe/ledger, handles 1200000 events per day",
+                "- Cut p99 latency from 800 ms to 120 ms",
+                "Experience",
+                "- Support desk, reachable at support@acme.io during migrations");
+        String condensed = condenser.condense(resume, 10_000);
+
+        Assertions.assertFalse(condensed.contains("@example.com"));
+        Assertions.assertFalse(condensed.contains("555"));
+        Assertions.assertFalse(condensed.contains("linkedin"));
+        Assertions.assertFalse(condensed.contains("github.com/janedoe |"));
+        Assertions.assertTrue(condensed.contains("code at github.com/janedoe/ledger, handles 1200000 events per day"),
+                condensed);
+        Assertions.assertTrue(condensed.contains("Cut p99 latency from 800 ms to 120 ms"));
+        Assertions.assertTrue(condensed.contains("Support desk, reachable at during migrations"), condensed);
+    }
+
+    @Test
+    void outputIncludingSectionHeadersFitsTheBudget() {
+        StringBuilder resume = new StringBuilder("Jane Doe\nSummary\nBackend engineer.\nSkills\n");
+        resume.append("- Java, Spring Boot, Kafka\n".repeat(50));
+        resume.append("Experience\n").append("- Built and ran payment services at scale\n".repeat(200));
+        resume.append("Projects\n").append("- Open source contributor\n".repeat(50));
+        resume.append("Education\nB.Tech Computer Science\nCertifications\nAWS Developer\n");
+
+        for (int budget : new int[] {200, 500, 1_000, 4_000}) {
+            String condensed = condenser.condense(resume.toString(), budget);
+            Assertions.assertTrue(condensed.length() <= budget, budget + ": " + condensed.length());
+            Assertions.assertTrue(condensed.contains("## SKILLS"));
+        }
+    }
+
+    private static int count(String text, String needle) {
+        int count = 0;
+        for (int at = text.indexOf(needle); at >= 0; at = text.indexOf(needle, at + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ems.backend.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class ResumeTextExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsOnlyTheFirstPagesOfALongDocument() throws Exception {
+        Path pdf = tempDir.resolve("long.pdf");
+        TestPdfs.pdf(pages(200, 40), pdf);
+
+        ResumeTextExtractor.Extraction extraction = extractor(10, 5_000).extract(pdf);
+
+        Assertions.assertTrue(extraction.complete());
+        Assertions.assertTrue(extraction.text().contains("Page 10 line 0"));
+        Assertions.assertFalse(extraction.text().contains("Page 11 line 0"));
+    }
+
+    @Test
+    void timeBudgetStopsA200PageDocumentMidway() throws Exception {
+        Path pdf = tempDir.resolve("heavy.pdf");
+        TestPdfs.pdf(pages(200, 400), pdf);
+
+        long started = System.nanoTime();
+        ResumeTextExtractor.Extraction extraction = extractor(200, 300).extract(pdf);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        Assertions.assertFalse(extraction.complete());
+        Assertions.assertTrue(extraction.text().contains("Page 1 line 0"));
+        Assertions.assertFalse(extraction.text().contains("Page 200 line 0"));
+        // Loading the document is outside the budget; processing stops close to it
+        Assertions.assertTrue(elapsedMs < 3_000, "took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void budgetIsEnforcedWithinASinglePage() throws Exception {
+        // One page with a very long content stream
+        Path pdf = tempDir.resolve("one-page.pdf");
+        TestPdfs.pdf(pages(1, 60_000), pdf);
+
+        ResumeTextExtractor unbounded = extractor(1, 60_000);
+        long started = System.nanoTime();
+        Assertions.assertTrue(unbounded.extract(pdf).complete());
+        long fullPageMs = (System.nanoTime() - started) / 1_000_000;
+
+        ResumeTextExtractor bounded = extractor(1, 20);
+        started = System.nanoTime();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> bounded.extract(pdf));
+        long boundedMs = (System.nanoTime() - started) / 1_000_000;
+
+        Assertions.assertTrue(boundedMs < fullPageMs, boundedMs + "ms vs full page " + fullPageMs + "ms");
+    }
+
+    private static ResumeTextExtractor extractor(int maxPages, long timeBudgetMs) {
+        ResumeTextExtractor extractor = new ResumeTextExtractor();
+        ReflectionTestUtils.setField(extractor, "maxPages", maxPages);
+        ReflectionTestUtils.setField(extractor, "maxChars", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(extractor, "rejectPages", 300);
+        ReflectionTestUtils.setField(extractor, "scratchMemoryBytes", 4L * 1024 * 1024);
+        ReflectionTestUtils.setField(extractor, "scratchMaxBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(extractor, "timeBudgetMs", timeBudgetMs);
+        ReflectionTestUtils.setField(extractor, "maxConcurrent", 1);
+        extractor.init();
+        return extractor;
+    }
+
+    private static List<List<String>> pages(int pages, int linesPerPage) {
+        List<List<String>> document = new ArrayList<>(pages);
+        for (int page = 1; page <= pages; page++) {
+            List<String> lines = new ArrayList<>(linesPerPage);
+            for (int line = 0; line < linesPerPage; line++) {
+                lines.add("Page " + page + " line " + line + " Java Spring Boot microservices");
+            }
+            document.add(Collections.unmodifiableList(lines));
+        }
+        return document;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ems.backend.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class RingBufferTest {
+
+    @Test
+    void offerFailsWhenFullAndSucceedsOnceASlotIsDrained() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertTrue(buffer.offer(i));
+        }
+        Assertions.assertFalse(buffer.offer(8));
+        Assertions.assertEquals(8, buffer.size());
+
+        List<Integer> sink = new ArrayList<>();
+        Assertions.assertEquals(1, buffer.drainTo(sink, 1));
+        Assertions.assertTrue(buffer.offer(8));
+        Assertions.assertFalse(buffer.offer(9));
+
+        Assertions.assertEquals(8, buffer.drainTo(sink, 100));
+        Assertions.assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), sink);
+        Assertions.assertEquals(0, buffer.size());
+        Assertions.assertEquals(0, buffer.drainTo(sink, 100));
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Integer>(6));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Integer>(1));
+    }
+
+    // Producers retry on a small buffer so it is full most of the time and wraps
+    // thousands of laps; they yield rather than spin so the consumer still runs on
+    // a single core. Every element is (producer, sequence) and the consumer checks
+    // that each producer's sequence arrives complete, once and in order.
+    @Test
+    void manyProducersLoseNothingDuplicateNothingAndKeepTheirOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        RingBuffer<Long> buffer = new RingBuffer<>(64);
+        AtomicLong fullOffers = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            threads.add(Thread.ofPlatform().name("ring-producer-" + p).start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long sequence = 0; sequence < perProducer; sequence++) {
+                    while (!buffer.offer((producer << 32) | sequence)) {
+                        fullOffers.incrementAndGet();
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+
+        long[] next = new long[producers];
+        List<Long> sink = new ArrayList<>(64);
+        long received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        start.countDown();
+        while (received < (long) producers * perProducer) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Only " + received + " elements arrived");
+            sink.clear();
+            if (buffer.drainTo(sink, 16) == 0) {
+                Thread.yield();
+            }
+            for (long element : sink) {
+                int producer = (int) (element >>> 32);
+                long sequence = element & 0xFFFFFFFFL;
+                Assertions.assertEquals(next[producer], sequence, "Producer " + producer + " out of order");
+                next[producer]++;
+            }
+            received += sink.size();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] expected = new long[producers];
+        Arrays.fill(expected, perProducer);
+        Assertions.assertArrayEquals(expected, next);
+        Assertions.assertEquals(0, buffer.drainTo(sink, 16));
+        Assertions.assertEquals(0, buffer.size());
+        Assertions.assertTrue(fullOffers.get() > 0, "The buffer never filled up");
+    }
+}
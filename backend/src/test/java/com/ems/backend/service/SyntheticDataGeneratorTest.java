@@ -0,0 +1,97 @@
+package com.ems.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// The generator only exists with generator.enabled=true
+@SpringBootTest(properties = "generator.enabled=true")
+@ActiveProfiles("test")
+class SyntheticDataGeneratorTest {
+
+    private static final String DOMAIN = "%@synthetic.test";
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        deleteGenerated();
+    }
+
+    @Test
+    void sameSeedGivesTheSameRows() throws Exception {
+        SyntheticDataGenerator.Spec spec = new SyntheticDataGenerator.Spec(4, 1, 7);
+        generate(spec);
+        List<String> first = snapshot();
+        Assertions.assertFalse(first.isEmpty());
+
+        deleteGenerated();
+        generate(spec);
+        Assertions.assertEquals(first, snapshot(), "ids aside, a seed always yields the same rows");
+    }
+
+    @Test
+    void generatedAccountsHaveNoKnownPassword() throws Exception {
+        generate(new SyntheticDataGenerator.Spec(3, 1, 42));
+        List<String> hashes = jdbcTemplate.queryForList("SELECT password FROM users WHERE email LIKE ?",
+                String.class, DOMAIN);
+        Assertions.assertEquals(3, hashes.size());
+        for (String hash : hashes) {
+            Assertions.assertFalse(passwordEncoder.matches("password", hash), "seeded default password");
+            Assertions.assertFalse(passwordEncoder.matches("", hash));
+        }
+    }
+
+    private void generate(SyntheticDataGenerator.Spec spec) throws InterruptedException {
+        generator.start(spec);
+        long deadline = System.currentTimeMillis() + 60_000;
+        while ("RUNNING".equals(generator.getStatus().get("state"))) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Synthetic data generation did not finish");
+            Thread.sleep(50);
+        }
+        Map<String, Object> status = generator.getStatus();
+        Assertions.assertEquals("DONE", status.get("state"));
+        Assertions.assertEquals((long) spec.employees(), status.get("users"));
+    }
+
+    // Every generated row keyed by employee email instead of database id
+    private List<String> snapshot() {
+        List<String> rows = new ArrayList<>();
+        rows.addAll(jdbcTemplate.queryForList("SELECT CONCAT_WS('|', email, name, department, salary, leave_balance, "
+                + "is_active) FROM users WHERE email LIKE ? ORDER BY email", String.class, DOMAIN));
+        rows.addAll(jdbcTemplate.queryForList("SELECT CONCAT_WS('|', u.email, l.start_date, l.end_date, l.leave_type, "
+                + "l.status) FROM leave_requests l JOIN users u ON u.id = l.user_id WHERE u.email LIKE ? "
+                + "ORDER BY u.email, l.start_date", String.class, DOMAIN));
+        rows.addAll(jdbcTemplate.queryForList("SELECT CONCAT_WS('|', u.email, a.date, a.status, "
+                + "a.leave_request_id IS NULL, a.finalized) FROM attendance a JOIN users u ON u.id = a.employee_id "
+                + "WHERE u.email LIKE ? ORDER BY u.email, a.date", String.class, DOMAIN));
+        rows.addAll(jdbcTemplate.queryForList("SELECT CONCAT_WS('|', u.email, p.year, p.month, p.payable_days, "
+                + "p.net_salary, p.status) FROM payroll p JOIN users u ON u.id = p.employee_id WHERE u.email LIKE ? "
+                + "ORDER BY u.email, p.year, p.month", String.class, DOMAIN));
+        return rows;
+    }
+
+    private void deleteGenerated() {
+        String ids = "(SELECT id FROM users WHERE email LIKE ?)";
+        jdbcTemplate.update("DELETE FROM attendance WHERE employee_id IN " + ids, DOMAIN);
+        jdbcTemplate.update("DELETE FROM payroll WHERE employee_id IN " + ids, DOMAIN);
+        jdbcTemplate.update("DELETE FROM leave_requests WHERE user_id IN " + ids, DOMAIN);
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", DOMAIN);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ems.backend.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// Builds small text PDFs for tests: one page per entry, one line per element
+final class TestPdfs {
+
+    private TestPdfs() {
+    }
+
+    static byte[] pdf(List<List<String>> pages) throws IOException {
+        try (PDDocument document = build(pages); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    static void pdf(List<List<String>> pages, Path target) throws IOException {
+        try (PDDocument document = build(pages)) {
+            document.save(target.toFile());
+        }
+    }
+
+    private static PDDocument build(List<List<String>> pages) throws IOException {
+        PDDocument document = new PDDocument();
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        for (List<String> lines : pages) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(font, 10);
+                content.setLeading(12);
+                content.newLineAtOffset(50, 740);
+                for (String line : lines) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+        }
+        return document;
+    }
+}
@@ -16,13 +16,21 @@ const UserAvatar = ({ name, image, size = 40 }) => {
         return color;
     };
 
+    // Thumbnails are stored as .../<size>.jpg: pick the smallest one that stays sharp on HiDPI screens
+    const thumbnail = (url) => {
+        const match = url.match(/^(.*\/)(64|128|256)\.jpg$/);
+        if (!match) return url;
+        const best = [64, 128, 256].find((s) => s >= size * 2) || 256;
+        return `${match[1]}${best}.jpg`;
+    };
+
     const initial = name ? name.charAt(0).toUpperCase() : '?';
     const bgColor = stringToColor(name);
 
     if (image) {
         return (
             <img
-                src={image}
+                src={thumbnail(image)}
                 alt={name}
                 style={{
                     width: size,
@@ -34,13 +34,23 @@ const AtsScan = () => {
         setError(null);
 
         try {
-            const response = await api.post('/ats/analyze', formData, {
+            // Submit as a background job, then poll until it finishes
+            let { data: job } = await api.post('/ats/jobs', formData, {
                 headers: { 'Content-Type': 'multipart/form-data' }
             });
-            setResult(response.data);
+            while (job.status === 'PENDING' || job.status === 'RUNNING') {
+                await new Promise((resolve) => setTimeout(resolve, 1000));
+                ({ data: job } = await api.get(`/ats/jobs/${job.id}`));
+            }
+            if (job.status !== 'COMPLETED') {
+                throw new Error(job.error || 'Analysis failed');
+            }
+            setResult(job.result);
         } catch (err) {
             console.error(err);
-            setError("Failed to analyze resume. Please try again.");
+            setError(err.response?.status === 503
+                ? "The analyzer is busy right now. Please try again in a few seconds."
+                : "Failed to analyze resume. Please try again.");
         } finally {
             setLoading(false);
         }
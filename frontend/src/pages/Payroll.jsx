@@ -3,6 +3,8 @@ import api from '../api/axios';
 import { Container, Row, Col, Form, Button, Table, Badge, Card, Spinner, Alert, Modal } from 'react-bootstrap';
 import { useAuth } from '../context/AuthContext';
 
+const PAGE_SIZE = 50;
+
 const Payroll = () => {
     const { user } = useAuth();
     const isAdmin = user?.role?.includes('ADMIN') || user?.role?.includes('HR');
@@ -11,6 +13,12 @@ const Payroll = () => {
     const [month, setMonth] = useState(new Date().getMonth() + 1);
     const [year, setYear] = useState(new Date().getFullYear());
     const [payrolls, setPayrolls] = useState([]);
+    const [statusFilter, setStatusFilter] = useState('');
+    const [page, setPage] = useState(0);
+    const [totalPages, setTotalPages] = useState(0);
+    const [totalElements, setTotalElements] = useState(0);
+    // Whole-month flags from the API; the listing total depends on the status filter
+    const [monthState, setMonthState] = useState({ generated: false, unpaid: false });
     const [loading, setLoading] = useState(false);
     const [generating, setGenerating] = useState(false);
     const [processing, setProcessing] = useState(false);
@@ -33,8 +41,16 @@ const Payroll = () => {
         setError(null);
         try {
             if (isAdmin) {
-                const res = await api.get(`/payroll`, { params: { month, year } });
-                setPayrolls(res.data);
+                const [res, state] = await Promise.all([
+                    api.get(`/payroll`, {
+                        params: { month, year, page, size: PAGE_SIZE, status: statusFilter || undefined }
+                    }),
+                    api.get(`/payroll/state`, { params: { month, year } })
+                ]);
+                setPayrolls(res.data.content);
+                setTotalPages(res.data.totalPages);
+                setTotalElements(res.data.totalElements);
+                setMonthState(state.data);
             } else {
                 // Employee view could be handled here or separate component
             }
@@ -45,9 +61,10 @@ const Payroll = () => {
         }
     };
 
+    // Filter changes reset the page in the same render, so each change fetches once
     useEffect(() => {
         if (isAdmin) fetchPayroll();
-    }, [month, year, isAdmin]);
+    }, [month, year, statusFilter, page, isAdmin]);
 
     const handleGenerate = async () => {
         setGenerating(true);
@@ -65,7 +82,8 @@ const Payroll = () => {
     };
 
     const handleDisburse = () => {
-        if (payrolls.filter(p => p.status !== 'PAID').length === 0) {
+        // Only conclusive when every record of the month is on screen
+        if (!statusFilter && totalPages <= 1 && payrolls.filter(p => p.status !== 'PAID').length === 0) {
             alert("All records are already paid!");
             return;
         }
@@ -121,7 +139,7 @@ const Payroll = () => {
                 addLog("Batch Transaction Verified by Bank.");
             } else {
                 await api.post(`/payroll/${selectedPayroll.id}/mark-paid`);
-                addLog(`Transfer to ${selectedPayroll.employee.name} Verified.`);
+                addLog(`Transfer to ${selectedPayroll.employeeName} Verified.`);
             }
 
             addLog("Funds Debited: YES");
@@ -174,7 +192,7 @@ const Payroll = () => {
                         <Col md={2}>
                             <Form.Group>
                                 <Form.Label>Month</Form.Label>
-                                <Form.Select value={month} onChange={(e) => setMonth(parseInt(e.target.value))}>
+                                <Form.Select value={month} onChange={(e) => { setMonth(parseInt(e.target.value)); setPage(0); }}>
                                     {Array.from({ length: 12 }, (_, i) => (
                                         <option key={i + 1} value={i + 1}>{new Date(0, i).toLocaleString('default', { month: 'long' })}</option>
                                     ))}
@@ -184,15 +202,25 @@ const Payroll = () => {
                         <Col md={2}>
                             <Form.Group>
                                 <Form.Label>Year</Form.Label>
-                                <Form.Control type="number" value={year} onChange={(e) => setYear(parseInt(e.target.value))} />
+                                <Form.Control type="number" value={year} onChange={(e) => { setYear(parseInt(e.target.value)); setPage(0); }} />
                             </Form.Group>
                         </Col>
-                        <Col md={8} className="text-end">
+                        <Col md={2}>
+                            <Form.Group>
+                                <Form.Label>Status</Form.Label>
+                                <Form.Select value={statusFilter} onChange={(e) => { setStatusFilter(e.target.value); setPage(0); }}>
+                                    <option value="">All</option>
+                                    <option value="GENERATED">Generated</option>
+                                    <option value="PAID">Paid</option>
+                                </Form.Select>
+                            </Form.Group>
+                        </Col>
+                        <Col md={6} className="text-end">
                             <Button
                                 variant="primary"
                                 onClick={handleGenerate}
                                 className="me-2"
-                                disabled={generating || payrolls.length > 0}
+                                disabled={generating || monthState.generated}
                             >
                                 {generating ? <Spinner size="sm" /> : <><i className="bi bi-gear-fill me-1"></i> Generate Payroll</>}
                             </Button>
@@ -200,7 +228,7 @@ const Payroll = () => {
                                 <Button
                                     variant="success"
                                     onClick={handleDisburse}
-                                    disabled={processing || payrolls.length === 0}
+                                    disabled={processing || !monthState.unpaid}
                                 >
                                     {processing ? <Spinner size="sm" /> : <><i className="bi bi-cash-stack me-1"></i> Disburse Salaries</>}
                                 </Button>
@@ -235,8 +263,8 @@ const Payroll = () => {
                             payrolls.map(p => (
                                 <tr key={p.id}>
                                     <td>
-                                        <div className="fw-bold">{p.employee.name}</div>
-                                        <small className="text-muted">{p.employee.department || 'General'}</small>
+                                        <div className="fw-bold">{p.employeeName}</div>
+                                        <small className="text-muted">{p.department || 'General'}</small>
                                     </td>
                                     <td>₹{p.baseSalary.toLocaleString()}</td>
                                     <td>{p.payableDays}</td>
@@ -265,6 +293,18 @@ const Payroll = () => {
                         )}
                     </tbody>
                 </Table>
+                {totalPages > 1 && (
+                    <Card.Footer className="bg-white d-flex justify-content-between align-items-center">
+                        <small className="text-muted">{totalElements} records</small>
+                        <div>
+                            <Button variant="outline-secondary" size="sm" className="me-2"
+                                disabled={page === 0} onClick={() => setPage(page - 1)}>Previous</Button>
+                            <small className="me-2">Page {page + 1} of {totalPages}</small>
+                            <Button variant="outline-secondary" size="sm"
+                                disabled={page + 1 >= totalPages} onClick={() => setPage(page + 1)}>Next</Button>
+                        </div>
+                    </Card.Footer>
+                )}
             </Card>
 
             {/* Payslip Modal */}
@@ -281,9 +321,9 @@ const Payroll = () => {
                             </div>
                             <Row className="mb-3">
                                 <Col xs={6}>
-                                    <strong>Name:</strong> {selectedPayroll.employee.name}<br />
-                                    <strong>ID:</strong> EMS-{selectedPayroll.employee.id}<br />
-                                    <strong>Dept:</strong> {selectedPayroll.employee.department}
+                                    <strong>Name:</strong> {selectedPayroll.employeeName}<br />
+                                    <strong>ID:</strong> EMS-{selectedPayroll.employeeId}<br />
+                                    <strong>Dept:</strong> {selectedPayroll.department}
                                 </Col>
                                 <Col xs={6} className="text-end">
                                     <strong>Generated:</strong> {new Date(selectedPayroll.generatedAt).toLocaleDateString()}
@@ -331,7 +371,7 @@ const Payroll = () => {
                             <p className="text-muted mb-4">
                                 {paymentMode === 'BATCH'
                                     ? "You are about to disburse salaries for ALL employees."
-                                    : `You are about to transfer salary to ${selectedPayroll?.employee?.name}.`
+                                    : `You are about to transfer salary to ${selectedPayroll?.employeeName}.`
                                 }
                                 <br />Please enter your Transaction PIN.
                             </p>